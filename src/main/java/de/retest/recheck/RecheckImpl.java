@@ -126,7 +126,7 @@ public class RecheckImpl implements Recheck, SutStateLoader {
 			return new NoGoldenMasterActionReplayResult( currentStep, actual, file.getPath() );
 		}
 		final RecheckDifferenceFinder finder =
-				new RecheckDifferenceFinder( defaultFinder, currentStep, file.getPath() );
+				new RecheckDifferenceFinder( defaultFinder, currentStep, file.getPath(), options.getAlignmentStrategy() );
 
 		final ActionReplayResult actionReplayResult = finder.findDifferences( expected, actual );
 		if ( actionReplayResult.hasDifferences() ) {
@@ -155,12 +155,12 @@ public class RecheckImpl implements Recheck, SutStateLoader {
 
 	@Override
 	public SutState loadExpected( final File file ) {
-		return RecheckSutState.loadExpected( file );
+		return RecheckSutState.loadExpected( file, options.getProjectLayout() );
 	}
 
 	@Override
 	public SutState createNew( final File file, final SutState actual ) {
-		return RecheckSutState.createNew( file, actual );
+		return RecheckSutState.createNew( file, actual, options.getProjectLayout() );
 	}
 
 	protected TestReplayResult capTestSilently() {
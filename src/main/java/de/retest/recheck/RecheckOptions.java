@@ -20,6 +20,7 @@ import de.retest.recheck.persistence.NamingStrategy;
 import de.retest.recheck.persistence.ProjectLayout;
 import de.retest.recheck.persistence.ProjectLayouts;
 import de.retest.recheck.ui.descriptors.idproviders.RetestIdProvider;
+import de.retest.recheck.ui.diff.AlignmentStrategy;
 import de.retest.recheck.util.RetestIdProviderUtil;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -37,6 +38,7 @@ public class RecheckOptions {
 	private final boolean reportUploadEnabled;
 	private final Filter filter;
 	private final RetestIdProvider retestIdProvider;
+	private final AlignmentStrategy alignmentStrategy;
 
 	/**
 	 * Creates a shallow copy of the given options. Useful when extending the RecheckOptions to minimize dependencies on
@@ -63,7 +65,7 @@ public class RecheckOptions {
 	 */
 	protected RecheckOptions( final RecheckOptions toCopy ) {
 		this( toCopy.fileNamerStrategy, toCopy.namingStrategy, toCopy.projectLayout, toCopy.reportUploadEnabled,
-				toCopy.filter, toCopy.retestIdProvider );
+				toCopy.filter, toCopy.retestIdProvider, toCopy.alignmentStrategy );
 	}
 
 	/**
@@ -126,6 +128,13 @@ public class RecheckOptions {
 		return namingStrategy;
 	}
 
+	/**
+	 * @return The {@link AlignmentStrategy} to use for pairing expected and actual elements.
+	 */
+	public AlignmentStrategy getAlignmentStrategy() {
+		return alignmentStrategy;
+	}
+
 	public static class RecheckOptionsBuilder {
 
 		private FileNamerStrategy fileNamerStrategy;
@@ -135,6 +144,7 @@ public class RecheckOptions {
 		private Boolean reportUploadEnabled;
 		private Filter ignoreFilter = null;
 		private RetestIdProvider retestIdProvider = RetestIdProviderUtil.getConfiguredRetestIdProvider();
+		private AlignmentStrategy alignmentStrategy = AlignmentStrategy.GLOBAL;
 		private final List<Filter> ignoreFilterToAdd = new ArrayList<>();
 
 		protected RecheckOptionsBuilder() {}
@@ -273,6 +283,18 @@ public class RecheckOptions {
 			return this;
 		}
 
+		/**
+		 * @param alignmentStrategy
+		 *            The {@link AlignmentStrategy} that determines how expected and actual elements are paired. Default
+		 *            is {@link AlignmentStrategy#GLOBAL}. {@link AlignmentStrategy#HIERARCHICAL} is faster for large
+		 *            pages, as it only compares elements within aligned containers.
+		 * @return self
+		 */
+		public RecheckOptionsBuilder alignmentStrategy( final AlignmentStrategy alignmentStrategy ) {
+			this.alignmentStrategy = alignmentStrategy;
+			return this;
+		}
+
 		public RecheckOptions build() {
 			ProjectConfiguration.getInstance().ensureProjectConfigurationInitialized();
 			if ( projectLayout == null ) {
@@ -283,7 +305,7 @@ public class RecheckOptions {
 			return new RecheckOptions( fileNamerStrategy, namingStrategy, projectLayout,
 					reportUploadEnabled != null ? reportUploadEnabled
 							: RecheckProperties.getInstance().rehubReportUploadEnabled(),
-					buildFilter( suiteName ), retestIdProvider );
+					buildFilter( suiteName ), retestIdProvider, alignmentStrategy );
 		}
 
 		private String getSuiteName() {
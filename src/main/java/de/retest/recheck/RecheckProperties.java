@@ -43,6 +43,7 @@ public interface RecheckProperties extends Reloadable {
 	String SCREENSHOT_FOLDER_NAME = "screenshot";
 	String RECHECK_FOLDER_NAME = "recheck";
 	String DEFAULT_XML_FILE_NAME = "retest.xml";
+	String DEFAULT_BINARY_FILE_NAME = "retest.bin";
 
 	String RETEST_FOLDER_NAME = ".retest";
 
@@ -80,6 +81,61 @@ public interface RecheckProperties extends Reloadable {
 	@DefaultValue( "0.5" )
 	double rootElementContainedChildrenMatchThreshold();
 
+	String ALIGNMENT_PARALLEL_PROPERTY_KEY = "de.retest.recheck.alignment.parallel";
+
+	/**
+	 * @return {@code true} if the similarity of expected and actual elements should be computed on all cores when
+	 *         aligning large element trees. The resulting alignment is the same as without parallel computation.
+	 */
+	@Key( ALIGNMENT_PARALLEL_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean alignmentParallel();
+
+	String ROOT_ELEMENT_PARALLEL_PROPERTY_KEY = "de.retest.recheck.rootElement.parallel";
+
+	/**
+	 * @return {@code true} if the differences of multiple root elements (e.g. windows) should be computed concurrently.
+	 *         The root elements are still assigned to each other sequentially, so the resulting differences are the
+	 *         same as without concurrent computation. This requires the {@link de.retest.recheck.ui.DefaultValueFinder}
+	 *         of the adapter to be thread-safe (see {@link de.retest.recheck.ui.DefaultValueFinder#isThreadSafe()}),
+	 *         otherwise the differences are computed sequentially.
+	 */
+	@Key( ROOT_ELEMENT_PARALLEL_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean rootElementParallel();
+
+	String SCREENSHOT_STORE_ENABLED_PROPERTY_KEY = "de.retest.recheck.screenshot.store";
+
+	/**
+	 * @return {@code true} if screenshots of Golden Masters should be saved once per content in a store shared by all
+	 *         Golden Masters, instead of within each Golden Master. Screenshots are always loaded from the store if
+	 *         present.
+	 */
+	@Key( SCREENSHOT_STORE_ENABLED_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean screenshotStoreEnabled();
+
+	String XML_STREAMING_ENABLED_PROPERTY_KEY = "de.retest.recheck.xml.streaming";
+
+	/**
+	 * @return {@code true} if Golden Masters in XML format should be read by a streaming parser that creates the
+	 *         elements directly, which is considerably faster than JAXB. Content unknown to the parser is still read by
+	 *         JAXB.
+	 */
+	@Key( XML_STREAMING_ENABLED_PROPERTY_KEY )
+	@DefaultValue( "false" )
+	boolean xmlStreamingEnabled();
+
+	String MIGRATION_CACHE_FOLDER_PROPERTY_KEY = "de.retest.recheck.migration.cacheFolder";
+
+	/**
+	 * @return the folder to keep the results of migrations of outdated Golden Masters in, so that each is migrated only
+	 *         once instead of on each load, e.g. {@code target/recheck-migration}; {@code null} if migration results
+	 *         should not be kept.
+	 */
+	@Key( MIGRATION_CACHE_FOLDER_PROPERTY_KEY )
+	String migrationCacheFolder();
+
 	String REHUB_REPORT_UPLOAD_ENABLED_PROPERTY_KEY = "de.retest.recheck.rehub.reportUploadEnabled";
 
 	@Key( REHUB_REPORT_UPLOAD_ENABLED_PROPERTY_KEY )
@@ -115,12 +171,33 @@ public interface RecheckProperties extends Reloadable {
 	@Key( FILE_OUTPUT_FORMAT_PROPERTY_KEY )
 	FileOutputFormat fileOutputFormat();
 
+	String ZIP_COMPRESSION_LEVEL_PROPERTY_KEY = "de.retest.recheck.zip.compressionLevel";
+
+	/**
+	 * @return the deflate level of the XML within ZIP Golden Masters, from 0 (no compression) to 9 (best compression),
+	 *         or -1 for the default level. Lower levels save considerably faster, but result in larger files.
+	 */
+	@Key( ZIP_COMPRESSION_LEVEL_PROPERTY_KEY )
+	@DefaultValue( "9" )
+	int zipCompressionLevel();
+
+	String ZIP_STORE_SCREENSHOTS_PROPERTY_KEY = "de.retest.recheck.zip.storeScreenshots";
+
+	/**
+	 * @return {@code true} if screenshots within ZIP Golden Masters should be stored without compression, as PNG
+	 *         images are compressed already. The compression method is recorded per entry, so ZIP Golden Masters are
+	 *         always loaded the same way.
+	 */
+	@Key( ZIP_STORE_SCREENSHOTS_PROPERTY_KEY )
+	@DefaultValue( "true" )
+	boolean zipStoreScreenshots();
+
 	default FileOutputFormat getReportOutputFormat() {
 		if ( rehubReportUploadEnabled() ) {
 			return FileOutputFormat.CLOUD;
 		}
 		final FileOutputFormat format = fileOutputFormat();
-		if ( format == null ) {
+		if ( format == null || format == FileOutputFormat.BINARY ) {
 			return FileOutputFormat.KRYO;
 		}
 		return format;
@@ -128,7 +205,7 @@ public interface RecheckProperties extends Reloadable {
 
 	default FileOutputFormat getStateOutputFormat() {
 		final FileOutputFormat format = fileOutputFormat();
-		return format == FileOutputFormat.ZIP ? format : FileOutputFormat.PLAIN;
+		return format == FileOutputFormat.ZIP || format == FileOutputFormat.BINARY ? format : FileOutputFormat.PLAIN;
 	}
 
 }
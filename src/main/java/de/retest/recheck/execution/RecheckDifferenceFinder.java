@@ -11,6 +11,7 @@ import de.retest.recheck.report.action.DifferenceRetriever;
 import de.retest.recheck.report.action.WindowRetriever;
 import de.retest.recheck.ui.DefaultValueFinder;
 import de.retest.recheck.ui.descriptors.SutState;
+import de.retest.recheck.ui.diff.AlignmentStrategy;
 import de.retest.recheck.ui.diff.RootElementDifference;
 import de.retest.recheck.ui.diff.RootElementDifferenceFinder;
 import de.retest.recheck.ui.diff.StateDifference;
@@ -29,7 +30,12 @@ public class RecheckDifferenceFinder {
 
 	public RecheckDifferenceFinder( final DefaultValueFinder finder, final String currentStep,
 			final String goldenMasterPath ) {
-		this.finder = new RootElementDifferenceFinder( finder );
+		this( finder, currentStep, goldenMasterPath, AlignmentStrategy.GLOBAL );
+	}
+
+	public RecheckDifferenceFinder( final DefaultValueFinder finder, final String currentStep,
+			final String goldenMasterPath, final AlignmentStrategy alignmentStrategy ) {
+		this.finder = new RootElementDifferenceFinder( finder, alignmentStrategy );
 		this.currentStep = currentStep;
 		this.goldenMasterPath = goldenMasterPath;
 	}
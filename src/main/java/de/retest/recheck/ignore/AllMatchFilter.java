@@ -55,6 +55,11 @@ public class AllMatchFilter implements Filter {
 		return filters.stream().allMatch( f -> f.matches( element, attributeKey ) );
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return filters.stream().allMatch( Filter::isThreadSafe );
+	}
+
 	public static class AllMatchFilterLoader implements Loader<AllMatchFilter> {
 
 		@Override
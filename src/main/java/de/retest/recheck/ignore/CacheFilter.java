@@ -1,59 +1,142 @@
 package de.retest.recheck.ignore;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
-
-import org.apache.commons.lang3.tuple.Pair;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.AbstractCache.SimpleStatsCounter;
+import com.google.common.cache.AbstractCache.StatsCounter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalListener;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 import de.retest.recheck.review.ignore.io.Loader;
 import de.retest.recheck.review.ignore.io.Loaders;
 import de.retest.recheck.ui.descriptors.Element;
 import de.retest.recheck.ui.diff.AttributeDifference;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
-@RequiredArgsConstructor
+/**
+ * Caches the results of a (possibly expensive) filter. The cache is thread-safe and bounded, each kind of query is
+ * cached separately. Elements are compared by identity, since the {@link Element#equals(Object)} and
+ * {@link Element#hashCode()} compare and hash the whole subtree of the element. They are only weakly referenced, since
+ * each element references its parents and thus the whole state, which would otherwise be kept by long-lived filters.
+ * The results of an element are released together with the element.
+ */
 public class CacheFilter implements Filter {
 
-	private final Map<Element, Boolean> elementCache = new HashMap<>();
-	private final Map<Pair<Element, AttributeDifference>, Boolean> attributeCache = new HashMap<>();
-	private final Map<Pair<Element, String>, Boolean> attributeKeyCache = new HashMap<>();
+	public static final long DEFAULT_MAXIMUM_SIZE = 100_000;
+
+	private final Cache<Element, Boolean> elementCache;
+	private final StatsCounter queryStats = new SimpleStatsCounter();
+	private final QueryCache<ChangeType> changeTypeCache;
+	private final QueryCache<AttributeDifference> attributeCache;
+	private final QueryCache<String> attributeKeyCache;
 
 	@Getter
 	private final Filter base;
 
-	@Override
-	public boolean matches( final Element element ) {
-		return elementCache.computeIfAbsent( element, matches() );
+	public CacheFilter( final Filter base ) {
+		this( base, DEFAULT_MAXIMUM_SIZE );
 	}
 
-	private Function<Element, Boolean> matches() {
-		return base::matches;
+	/**
+	 * @param base
+	 *            the filter to cache the results of
+	 * @param maximumSize
+	 *            the maximum number of elements to cache results for, for each kind of query
+	 */
+	public CacheFilter( final Filter base, final long maximumSize ) {
+		this.base = base;
+		// Weak keys are compared by identity.
+		elementCache = CacheBuilder.newBuilder().weakKeys().maximumSize( maximumSize ).recordStats().build();
+		changeTypeCache = new QueryCache<>( maximumSize, queryStats );
+		attributeCache = new QueryCache<>( maximumSize, queryStats );
+		attributeKeyCache = new QueryCache<>( maximumSize, queryStats );
+	}
+
+	@Override
+	public boolean matches( final Element element ) {
+		try {
+			return elementCache.get( element, () -> base.matches( element ) );
+		} catch ( final ExecutionException | UncheckedExecutionException e ) {
+			// Rethrow exceptions of the base filter unchanged, as without caching.
+			Throwables.throwIfUnchecked( e.getCause() );
+			throw new IllegalStateException( e.getCause() );
+		}
 	}
 
 	@Override
 	public boolean matches( final Element element, final ChangeType changeType ) {
-		return elementCache.computeIfAbsent( element, e -> base.matches( e, changeType ) );
+		return changeTypeCache.get( element, changeType, () -> base.matches( element, changeType ) );
 	}
 
 	@Override
 	public boolean matches( final Element element, final AttributeDifference attributeDifference ) {
-		return attributeCache.computeIfAbsent( Pair.of( element, attributeDifference ), matchesDiff() );
+		return attributeCache.get( element, attributeDifference, () -> base.matches( element, attributeDifference ) );
 	}
 
-	private Function<Pair<Element, AttributeDifference>, Boolean> matchesDiff() {
-		return p -> base.matches( p.getLeft(), p.getRight() );
+	@Override
+	public boolean matches( final Element element, final String attributeKey ) {
+		return attributeKeyCache.get( element, attributeKey, () -> base.matches( element, attributeKey ) );
 	}
 
 	@Override
-	public boolean matches( final Element element, final String attributeKey ) {
-		return attributeKeyCache.computeIfAbsent( Pair.of( element, attributeKey ), matchesKeyDiff() );
+	public boolean isThreadSafe() {
+		return base.isThreadSafe();
+	}
+
+	/**
+	 * @return the hit and miss statistics of all kinds of queries, evictions count the results dropped
+	 */
+	public CacheStats getStats() {
+		return elementCache.stats().plus( queryStats.snapshot() );
 	}
 
-	private Function<Pair<Element, String>, Boolean> matchesKeyDiff() {
-		return p -> base.matches( p.getLeft(), p.getRight() );
+	/**
+	 * Caches the results of the queries for each element, so that the results are released together with the element.
+	 */
+	private static final class QueryCache<T> {
+
+		private final Cache<Element, ConcurrentMap<T, Boolean>> cache;
+		private final StatsCounter stats;
+
+		QueryCache( final long maximumSize, final StatsCounter stats ) {
+			final RemovalListener<Element, ConcurrentMap<T, Boolean>> listener = removal -> {
+				if ( removal.wasEvicted() ) {
+					removal.getValue().forEach( ( query, result ) -> stats.recordEviction() );
+				}
+			};
+			cache = CacheBuilder.newBuilder().weakKeys().maximumSize( maximumSize ).removalListener( listener ).build();
+			this.stats = stats;
+		}
+
+		boolean get( final Element element, final T query, final BooleanSupplier matches ) {
+			final ConcurrentMap<T, Boolean> results =
+					cache.asMap().computeIfAbsent( element, e -> new ConcurrentHashMap<>() );
+			final Boolean cached = results.get( query );
+			if ( cached != null ) {
+				stats.recordHits( 1 );
+				return cached;
+			}
+			final boolean[] missed = { false };
+			// Exceptions of the base filter are passed on unchanged and nothing is cached.
+			final Boolean result = results.computeIfAbsent( query, q -> {
+				missed[0] = true;
+				return matches.getAsBoolean();
+			} );
+			if ( missed[0] ) {
+				stats.recordMisses( 1 );
+			} else {
+				stats.recordHits( 1 );
+			}
+			return result;
+		}
 	}
 
 	public static class FilterLoader implements Loader<CacheFilter> {
@@ -1,7 +1,6 @@
 package de.retest.recheck.ignore;
 
-import static de.retest.recheck.util.Predicates.catchExceptionAsFalse;
-
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -13,7 +12,8 @@ import lombok.ToString;
 
 /**
  * A compound filter consists of multiple filters that are combined into one via an OR. So the compound filter returns
- * true if _any_ of its filters return true.
+ * true if _any_ of its filters return true. The filters are indexed (see {@link FilterIndex}), so that not all of them
+ * need to be evaluated for each element and attribute. Hence they are copied and cannot be modified afterwards.
  */
 @ToString
 public class CompoundFilter implements Filter {
@@ -21,6 +21,9 @@ public class CompoundFilter implements Filter {
 	@Getter
 	private final List<Filter> filters;
 
+	@ToString.Exclude
+	private final FilterIndex index;
+
 	public CompoundFilter() {
 		this( Collections.emptyList() );
 	}
@@ -30,41 +33,33 @@ public class CompoundFilter implements Filter {
 	}
 
 	public CompoundFilter( final List<Filter> filters ) {
-		this.filters = filters;
+		this.filters = Collections.unmodifiableList( new ArrayList<>( filters ) );
+		index = new FilterIndex( this.filters );
 	}
 
 	@Override
 	public boolean matches( final Element element ) {
-		for ( final Filter filter : filters ) {
-			if ( filter.matches( element ) ) {
-				return true;
-			}
-		}
-		return false;
+		return index.matches( element );
 	}
 
 	@Override
 	public boolean matches( final Element element, final ChangeType change ) {
-		return filters.stream().anyMatch( catchExceptionAsFalse( f -> f.matches( element, change ) ) );
+		return index.matches( element, change );
 	}
 
 	@Override
 	public boolean matches( final Element element, final AttributeDifference attributeDifference ) {
-		for ( final Filter filter : filters ) {
-			if ( filter.matches( element, attributeDifference ) ) {
-				return true;
-			}
-		}
-		return false;
+		return index.matches( element, attributeDifference );
 	}
 
 	@Override
 	public boolean matches( final Element element, final String attributeKey ) {
-		for ( final Filter filter : filters ) {
-			if ( filter.matches( element, attributeKey ) ) {
-				return true;
-			}
-		}
-		return false;
+		return index.matches( element, attributeKey );
+	}
+
+	@Override
+	public boolean isThreadSafe() {
+		return filters.stream().allMatch( Filter::isThreadSafe );
 	}
+
 }
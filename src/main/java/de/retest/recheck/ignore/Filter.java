@@ -92,15 +92,48 @@ public interface Filter {
 		return matches( element, attributeDifference.getKey() );
 	}
 
+	/**
+	 * Returns <code>true</code> if this filter may be used by multiple threads at the same time, e.g. to filter the
+	 * actions of a report in parallel (see {@link de.retest.recheck.report.TestReportFilter}). Filters are not
+	 * considered thread-safe unless they declare so.
+	 *
+	 * @return <code>true</code> if this filter is thread-safe.
+	 */
+	default boolean isThreadSafe() {
+		return false;
+	}
+
 	/**
 	 * A special {@link Filter} that never matches.
 	 */
-	Filter NEVER_MATCH = element -> false;
+	Filter NEVER_MATCH = new Filter() {
+
+		@Override
+		public boolean matches( final Element element ) {
+			return false;
+		}
+
+		@Override
+		public boolean isThreadSafe() {
+			return true;
+		}
+	};
 
 	/**
 	 * A special {@link Filter} that always matches.
 	 */
-	Filter ALWAYS_MATCH = element -> true;
+	Filter ALWAYS_MATCH = new Filter() {
+
+		@Override
+		public boolean matches( final Element element ) {
+			return true;
+		}
+
+		@Override
+		public boolean isThreadSafe() {
+			return true;
+		}
+	};
 
 	/**
 	 * Use {@link #NEVER_MATCH} instead.
@@ -15,4 +15,9 @@ public class FilterAllAttributes implements Filter {
 		return true;
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 }
@@ -0,0 +1,279 @@
+package de.retest.recheck.ignore;
+
+import static de.retest.recheck.util.Predicates.catchExceptionAsFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.google.common.collect.MapMaker;
+
+import de.retest.recheck.ignore.Filter.ChangeType;
+import de.retest.recheck.review.ignore.AttributeFilter;
+import de.retest.recheck.review.ignore.AttributeRegexFilter;
+import de.retest.recheck.review.ignore.DeletedFilter;
+import de.retest.recheck.review.ignore.ElementFilter;
+import de.retest.recheck.review.ignore.InsertedFilter;
+import de.retest.recheck.review.ignore.MatcherFilter;
+import de.retest.recheck.review.ignore.ValueRegexFilter;
+import de.retest.recheck.review.ignore.matcher.ElementClassMatcher;
+import de.retest.recheck.review.ignore.matcher.ElementIdMatcher;
+import de.retest.recheck.review.ignore.matcher.ElementRetestIdMatcher;
+import de.retest.recheck.review.ignore.matcher.ElementTypeMatcher;
+import de.retest.recheck.review.ignore.matcher.ElementXPathMatcher;
+import de.retest.recheck.review.ignore.matcher.Matcher;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.diff.AttributeDifference;
+
+/**
+ * Indexes the filters of a {@link CompoundFilter}, so that each lookup only evaluates the filters that can match at
+ * all, with the same result as evaluating all filters one after another. The filters that are known to this index
+ * (e.g. {@link MatcherFilter} with simple matchers, {@link AttributeFilter}, {@link InsertedFilter}) are looked up by
+ * retestId, id, type, class, XPath, attribute key or change type, all others are still evaluated one after another.
+ * <p>
+ * The only difference is that looking up a literal retestId, type or XPath never throws: an element without such a
+ * value is not matched, whereas the respective matcher throws a {@link NullPointerException}.
+ */
+final class FilterIndex {
+
+	private static final Pattern REGEX_CHARACTERS = Pattern.compile( "[\\\\\\[\\](){}.*+?^$|]" );
+
+	/**
+	 * Filters matching whole elements (including their children) and thus all of their attributes and changes.
+	 */
+	private final ElementIndex elements = new ElementIndex();
+	/**
+	 * Attribute keys that are filtered for all elements.
+	 */
+	private final Set<String> attributeKeys = new HashSet<>();
+	/**
+	 * Filters that only match a certain attribute key, but only if the remaining filter matches as well.
+	 */
+	private final Map<String, List<Filter>> attributeKeyConditions = new HashMap<>();
+	private final Set<ChangeType> changeTypes = EnumSet.noneOf( ChangeType.class );
+	/**
+	 * Filters only matching attribute keys and thus attribute differences.
+	 */
+	private final List<Filter> attributeFilters = new ArrayList<>();
+	/**
+	 * Filters only matching attribute differences.
+	 */
+	private final List<Filter> differenceFilters = new ArrayList<>();
+	/**
+	 * Filters unknown to this index, which can match anything.
+	 */
+	private final List<Filter> otherFilters = new ArrayList<>();
+
+	FilterIndex( final List<Filter> filters ) {
+		filters.forEach( this::add );
+	}
+
+	@SuppressWarnings( "deprecation" )
+	private void add( final Filter filter ) {
+		final Class<?> type = filter.getClass();
+		if ( type == CompoundFilter.class ) {
+			((CompoundFilter) filter).getFilters().forEach( this::add );
+		} else if ( type == PersistentFilter.class ) {
+			add( ((PersistentFilter) filter).getFilter() );
+		} else if ( type == MatcherFilter.class || type == ElementFilter.class ) {
+			elements.add( ((MatcherFilter) filter).getMatcher() );
+		} else if ( type == AttributeFilter.class ) {
+			attributeKeys.add( ((AttributeFilter) filter).getAttribute() );
+		} else if ( type == InsertedFilter.class ) {
+			changeTypes.add( ChangeType.INSERTED );
+		} else if ( type == DeletedFilter.class ) {
+			changeTypes.add( ChangeType.DELETED );
+		} else if ( type == AttributeRegexFilter.class ) {
+			attributeFilters.add( filter );
+		} else if ( type == ValueRegexFilter.class ) {
+			differenceFilters.add( filter );
+		} else if ( type != AllMatchFilter.class || !addAttributeKeyCondition( (AllMatchFilter) filter ) ) {
+			otherFilters.add( filter );
+		}
+	}
+
+	/**
+	 * An {@link AllMatchFilter} with an {@link AttributeFilter} (e.g. {@code matcher: type=meta, attribute=content})
+	 * never matches whole elements or changes, but only the attribute key of the {@link AttributeFilter} if the
+	 * remaining filters match as well.
+	 */
+	private boolean addAttributeKeyCondition( final AllMatchFilter filter ) {
+		final List<Filter> filters = filter.getFilters();
+		final List<Filter> remaining = new ArrayList<>( filters.size() );
+		AttributeFilter attributeFilter = null;
+		for ( final Filter each : filters ) {
+			if ( attributeFilter == null && each.getClass() == AttributeFilter.class ) {
+				attributeFilter = (AttributeFilter) each;
+			} else {
+				remaining.add( each );
+			}
+		}
+		if ( attributeFilter == null ) {
+			return false;
+		}
+		attributeKeyConditions.computeIfAbsent( attributeFilter.getAttribute(), key -> new ArrayList<>() )
+				.add( remaining.isEmpty() ? Filter.ALWAYS_MATCH : new AllMatchFilter( remaining ) );
+		return true;
+	}
+
+	boolean matches( final Element element ) {
+		return elements.matches( element )
+				|| otherFilters.stream().anyMatch( filter -> filter.matches( element ) );
+	}
+
+	boolean matches( final Element element, final ChangeType change ) {
+		return changeTypes.contains( change )
+				|| elements.matchesIgnoringExceptions( element )
+				|| otherFilters.stream()
+						.anyMatch( catchExceptionAsFalse( filter -> filter.matches( element, change ) ) );
+	}
+
+	boolean matches( final Element element, final String attributeKey ) {
+		return attributeKeys.contains( attributeKey ) //
+				|| attributeKeyConditions.getOrDefault( attributeKey, Collections.emptyList() ).stream()
+						.anyMatch( filter -> filter.matches( element, attributeKey ) )
+				|| elements.matches( element )
+				|| attributeFilters.stream().anyMatch( filter -> filter.matches( element, attributeKey ) )
+				|| otherFilters.stream().anyMatch( filter -> filter.matches( element, attributeKey ) );
+	}
+
+	boolean matches( final Element element, final AttributeDifference attributeDifference ) {
+		final String attributeKey = attributeDifference.getKey();
+		final Predicate<Filter> matchesDifference = filter -> filter.matches( element, attributeDifference );
+		return attributeKeys.contains( attributeKey ) //
+				|| attributeKeyConditions.getOrDefault( attributeKey, Collections.emptyList() ).stream()
+						.anyMatch( matchesDifference )
+				|| elements.matches( element )
+				|| attributeFilters.stream().anyMatch( matchesDifference )
+				|| differenceFilters.stream().anyMatch( matchesDifference )
+				|| otherFilters.stream().anyMatch( matchesDifference );
+	}
+
+	private static boolean isLiteral( final String regex ) {
+		return !REGEX_CHARACTERS.matcher( regex ).find();
+	}
+
+	/**
+	 * Indexes the matchers of {@link MatcherFilter}s. Like these, an element matches if itself or any of its parents
+	 * matches. Results are remembered, so that ancestors shared by many elements are matched only once. Elements are
+	 * compared by identity and weakly referenced, thus results are dropped along with the elements.
+	 */
+	private static final class ElementIndex {
+
+		private final Set<String> retestIds = new HashSet<>();
+		private final Set<String> ids = new HashSet<>();
+		private final Set<String> types = new HashSet<>();
+		private final Set<String> xPaths = new HashSet<>();
+		private final Map<String, List<Matcher<Element>>> byClass = new HashMap<>();
+		private final List<Matcher<Element>> others = new ArrayList<>();
+
+		private final ConcurrentMap<Element, Boolean> results = new MapMaker().weakKeys().makeMap();
+
+		void add( final Matcher<Element> matcher ) {
+			final Class<?> type = matcher.getClass();
+			if ( type == ElementRetestIdMatcher.class
+					&& isLiteral( ((ElementRetestIdMatcher) matcher).getRetestid() ) ) {
+				retestIds.add( ((ElementRetestIdMatcher) matcher).getRetestid() );
+			} else if ( type == ElementIdMatcher.class && isLiteral( ((ElementIdMatcher) matcher).getId() ) ) {
+				ids.add( ((ElementIdMatcher) matcher).getId() );
+			} else if ( type == ElementTypeMatcher.class && isLiteral( ((ElementTypeMatcher) matcher).getType() ) ) {
+				types.add( ((ElementTypeMatcher) matcher).getType() );
+			} else if ( type == ElementXPathMatcher.class ) {
+				xPaths.add( ((ElementXPathMatcher) matcher).getNormalizedXPath() );
+			} else if ( type == ElementClassMatcher.class ) {
+				final List<String> classes = ((ElementClassMatcher) matcher).getClasses();
+				// Elements need to have all classes, so it is sufficient to look up the first one.
+				if ( !classes.isEmpty() ) {
+					byClass.computeIfAbsent( classes.get( 0 ), key -> new ArrayList<>() ).add( matcher );
+				}
+			} else {
+				others.add( matcher );
+			}
+		}
+
+		boolean matches( final Element element ) {
+			if ( isEmpty() ) {
+				// Avoids walking and remembering all ancestors, e.g. for filters of only attributes.
+				return false;
+			}
+			final Boolean result = results.get( element );
+			if ( result != null ) {
+				return result;
+			}
+			final Element parent = element.getParent();
+			final boolean matches = matchesItself( element ) || parent != null && matches( parent );
+			results.put( element, matches );
+			return matches;
+		}
+
+		boolean isEmpty() {
+			return retestIds.isEmpty() && ids.isEmpty() && types.isEmpty() && xPaths.isEmpty() && byClass.isEmpty()
+					&& others.isEmpty();
+		}
+
+		/**
+		 * Like evaluating each {@link MatcherFilter} with {@code catchExceptionAsFalse}, a matcher that throws for the
+		 * element or any of its parents does not match, but the remaining matchers still may. If no matcher throws,
+		 * this is the same as {@link #matches(Element)}, otherwise each matcher is evaluated on its own.
+		 */
+		boolean matchesIgnoringExceptions( final Element element ) {
+			try {
+				return matches( element );
+			} catch ( final RuntimeException e ) {
+				return matchesLiterals( element ) || Stream.concat( byClass.values().stream().flatMap( List::stream ),
+						others.stream() ).anyMatch( catchExceptionAsFalse( matcher -> matches( matcher, element ) ) );
+			}
+		}
+
+		private static boolean matches( final Matcher<Element> matcher, final Element element ) {
+			final Element parent = element.getParent();
+			return matcher.test( element ) || parent != null && matches( matcher, parent );
+		}
+
+		private boolean matchesLiterals( final Element element ) {
+			final Element parent = element.getParent();
+			return matchesLiteral( element ) || parent != null && matchesLiterals( parent );
+		}
+
+		private boolean matchesItself( final Element element ) {
+			if ( matchesLiteral( element ) ) {
+				return true;
+			}
+			if ( !byClass.isEmpty() ) {
+				final String classes = element.getIdentifyingAttributes().get( ElementClassMatcher.CLASS_KEY );
+				if ( classes != null ) {
+					for ( final String clazz : classes.split( " " ) ) {
+						for ( final Matcher<Element> matcher : byClass.getOrDefault( clazz,
+								Collections.emptyList() ) ) {
+							if ( matcher.test( element ) ) {
+								return true;
+							}
+						}
+					}
+				}
+			}
+			for ( final Matcher<Element> matcher : others ) {
+				if ( matcher.test( element ) ) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean matchesLiteral( final Element element ) {
+			return retestIds.contains( element.getRetestId() ) //
+					|| !ids.isEmpty() && ids.contains( element.getIdentifyingAttributes().get( "id" ) )
+					|| !types.isEmpty() && types.contains( element.getIdentifyingAttributes().getType() )
+					|| !xPaths.isEmpty() && xPaths.contains( element.getIdentifyingAttributes().getPath() );
+		}
+	}
+}
@@ -16,4 +16,9 @@ public class FilterOutline implements Filter {
 				|| OutlineAttribute.ABSOLUTE_OUTLINE.equalsIgnoreCase( attributeKey );
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 }
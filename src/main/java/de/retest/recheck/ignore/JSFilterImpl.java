@@ -1,47 +1,113 @@
 package de.retest.recheck.ignore;
 
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toSet;
+
 import java.io.Reader;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Stream;
 
-import javax.script.Invocable;
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
-import javax.script.ScriptException;
-
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Function;
+import org.mozilla.javascript.ImporterTopLevel;
+import org.mozilla.javascript.LambdaFunction;
+import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.Undefined;
+import org.mozilla.javascript.Wrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.retest.recheck.ui.descriptors.Element;
 import de.retest.recheck.ui.diff.AttributeDifference;
 
+/**
+ * Filters with the functions of a JavaScript file. The script is compiled once (to byte code, if possible) and then
+ * executed in one scope per thread, since Rhino scopes must not be shared between threads. Like with the former
+ * JSR-223 engine, scripts may use {@code importPackage}, {@code importClass} and {@code print}. Only functions the
+ * script actually defines are called.
+ */
 public class JSFilterImpl implements Filter {
 
 	private static final Logger logger = LoggerFactory.getLogger( JSFilterImpl.class );
 
-	private static final String JS_ENGINE_NAME = "rhino";
+	private static final String MATCHES = "matches";
+	private static final String SHOULD_IGNORE_ELEMENT = "shouldIgnoreElement";
+	private static final String SHOULD_IGNORE_ATTRIBUTE_DIFFERENCE = "shouldIgnoreAttributeDifference";
+
+	/**
+	 * Rhino falls back to interpretation if a script cannot be compiled to byte code.
+	 */
+	private static final int OPTIMIZATION_LEVEL = 9;
 
 	private final String filePath;
-	private final ScriptEngine engine;
-	private boolean noMethodWarningPrinted = false;
+	private final Script script;
+	private final ThreadLocal<Scriptable> scopes = ThreadLocal.withInitial( this::createScope );
+	private final Set<String> functions;
+	private volatile boolean noMethodWarningPrinted = false;
 
 	public JSFilterImpl( final Path filterFilePath ) {
 		filePath = filterFilePath.toString();
-		final ScriptEngineManager manager = new ScriptEngineManager();
-		engine = manager.getEngineByName( JS_ENGINE_NAME );
-		if ( engine == null ) {
-			logger.error(
-					"Cannot execute JavaScript rules, `ScriptEngineManager` returned null for engine `JavaScript`. Try switching JDK or add a JavaScript engine: ",
-					new IllegalStateException( "No JavaScript available." ) );
-			return;
-		}
-		try {
-			engine.eval( readScriptFile( filterFilePath ) );
+		script = compile( filterFilePath );
+		functions = script == null ? Collections.emptySet() : findFunctions();
+	}
+
+	private Script compile( final Path filterFilePath ) {
+		final Context context = Context.enter();
+		try ( final Reader reader = readScriptFile( filterFilePath ) ) {
+			context.setOptimizationLevel( OPTIMIZATION_LEVEL );
+			return context.compileReader( reader, filePath, 1, null );
 		} catch ( final Exception e ) {
 			logger.error( "Reading script file '{}' caused exception: ", filterFilePath, e );
+			return null;
+		} finally {
+			Context.exit();
+		}
+	}
+
+	private Scriptable createScope() {
+		final Context context = Context.enter();
+		try {
+			final Scriptable scope = createTopLevel( context );
+			script.exec( context, scope );
+			return scope;
+		} catch ( final RhinoException e ) {
+			logger.error( "Executing script file '{}' caused exception: ", filePath, e );
+			return createTopLevel( context );
+		} finally {
+			Context.exit();
+		}
+	}
+
+	private static Scriptable createTopLevel( final Context context ) {
+		final ImporterTopLevel scope = new ImporterTopLevel( context );
+		// Prints to standard out, just like the former JSR-223 engine did.
+		final LambdaFunction print = new LambdaFunction( scope, "print", 1, ( cx, s, thisObj, args ) -> {
+			System.out.println( Stream.of( args ).map( Context::toString ).collect( joining( " " ) ) );
+			return Undefined.instance;
+		} );
+		ScriptableObject.defineProperty( scope, "print", print, ScriptableObject.DONTENUM );
+		return scope;
+	}
+
+	private Set<String> findFunctions() {
+		// Looking up properties may resolve imported packages, which requires a context.
+		Context.enter();
+		try {
+			final Scriptable scope = scopes.get();
+			return Stream.of( MATCHES, SHOULD_IGNORE_ELEMENT, SHOULD_IGNORE_ATTRIBUTE_DIFFERENCE ) //
+					.filter( name -> ScriptableObject.getProperty( scope, name ) instanceof Function ) //
+					.collect( toSet() );
+		} finally {
+			Context.exit();
 		}
 	}
 
@@ -59,33 +125,53 @@ public class JSFilterImpl implements Filter {
 
 	@Override
 	public boolean matches( final Element element ) {
-		return callBooleanJSFunction( "matches", element ) || callBooleanJSFunction( "shouldIgnoreElement", element );
+		return callBooleanJSFunction( MATCHES, element ) || callBooleanJSFunction( SHOULD_IGNORE_ELEMENT, element );
 	}
 
 	@Override
 	public boolean matches( final Element element, final ChangeType change ) {
 		// "shouldIgnore" is legacy, so this needn't be called there
-		return callBooleanJSFunction( "matches", element, change.toString().toLowerCase() );
+		return callBooleanJSFunction( MATCHES, element, change.toString().toLowerCase() );
 	}
 
 	@Override
 	public boolean matches( final Element element, final AttributeDifference attributeDifference ) {
-		return callBooleanJSFunction( "matches", element, attributeDifference )
-				|| callBooleanJSFunction( "shouldIgnoreAttributeDifference", element, attributeDifference );
+		return callBooleanJSFunction( MATCHES, element, attributeDifference )
+				|| callBooleanJSFunction( SHOULD_IGNORE_ATTRIBUTE_DIFFERENCE, element, attributeDifference );
+	}
+
+	@Override
+	public boolean isThreadSafe() {
+		return true;
 	}
 
 	private boolean callBooleanJSFunction( final String functionName, final Object... args ) {
-		if ( engine == null ) {
+		if ( !functions.contains( functionName ) ) {
+			if ( script != null && !functionName.startsWith( "shouldIgnore" ) && !noMethodWarningPrinted ) {
+				logger.warn( "Specified JS filter file '{}' has no '{}' function.", filePath, functionName );
+				noMethodWarningPrinted = true;
+			}
 			return false;
 		}
-		final Invocable inv = (Invocable) engine;
-		// call function from script file
+		final Context context = Context.enter();
 		try {
-			final Object callResult = inv.invokeFunction( functionName, args );
-			if ( callResult == null ) {
+			final Scriptable scope = scopes.get();
+			final Object function = ScriptableObject.getProperty( scope, functionName );
+			if ( !(function instanceof Function) ) {
+				return false;
+			}
+			final Object[] jsArgs = new Object[args.length];
+			for ( int i = 0; i < args.length; i++ ) {
+				jsArgs[i] = Context.javaToJS( args[i], scope );
+			}
+			Object callResult = ((Function) function).call( context, scope, scope, jsArgs );
+			if ( callResult instanceof Wrapper ) {
+				callResult = ((Wrapper) callResult).unwrap();
+			}
+			if ( callResult == null || callResult instanceof Undefined ) {
 				logger.warn(
 						"{} returned 'null' instead of a boolean value in file '{}'. Interpreting that as 'false'.",
-						filePath, functionName );
+						functionName, filePath );
 				return false;
 			}
 			if ( !(callResult instanceof Boolean) ) {
@@ -94,14 +180,11 @@ public class JSFilterImpl implements Filter {
 				return false;
 			}
 			return (boolean) callResult;
-		} catch ( final ScriptException e ) {
+		} catch ( final RhinoException e ) {
 			logger.error( "JS '{}' method caused an exception: {} in file '{}'.", functionName, e.getMessage(),
 					filePath );
-		} catch ( final NoSuchMethodException e ) {
-			if ( !functionName.startsWith( "shouldIgnore" ) && !noMethodWarningPrinted ) {
-				logger.warn( "Specified JS filter file '{}' has no '{}' function.", filePath, functionName );
-				noMethodWarningPrinted = true;
-			}
+		} finally {
+			Context.exit();
 		}
 		return false;
 	}
@@ -55,4 +55,9 @@ public class PersistentFilter implements Filter {
 		return filter.matches( element, attributeDifference );
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return filter.isThreadSafe();
+	}
+
 }
@@ -5,6 +5,7 @@ public enum FileOutputFormat {
 	PLAIN,
 	ZIP,
 	KRYO,
-	CLOUD
+	CLOUD,
+	BINARY
 
 }
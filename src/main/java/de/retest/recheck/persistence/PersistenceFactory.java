@@ -8,6 +8,7 @@ import java.util.Set;
 import org.apache.commons.io.FilenameUtils;
 
 import de.retest.recheck.RecheckProperties;
+import de.retest.recheck.persistence.bin.BinaryPersistence;
 import de.retest.recheck.persistence.bin.KryoPersistence;
 import de.retest.recheck.persistence.xml.XmlFolderPersistence;
 import de.retest.recheck.persistence.xml.XmlTransformer;
@@ -16,13 +17,25 @@ import de.retest.recheck.persistence.xml.XmlZipPersistence;
 public class PersistenceFactory {
 
 	private final XmlTransformer xml;
+	private final ProjectLayout projectLayout;
 
 	public PersistenceFactory( final Set<Class<?>> xmlDataClasses ) {
-		xml = new XmlTransformer( xmlDataClasses );
+		this( new XmlTransformer( xmlDataClasses ) );
 	}
 
 	public PersistenceFactory( final XmlTransformer xml ) {
+		this( xml, null );
+	}
+
+	/**
+	 * @param xml
+	 *            the transformer of the XML
+	 * @param projectLayout
+	 *            the layout locating the screenshot store of Golden Masters, {@code null} to use the detected layout
+	 */
+	public PersistenceFactory( final XmlTransformer xml, final ProjectLayout projectLayout ) {
 		this.xml = xml;
+		this.projectLayout = projectLayout;
 	}
 
 	public <T extends Persistable> Persistence<T> getPersistence() {
@@ -34,13 +47,15 @@ public class PersistenceFactory {
 
 		switch ( format ) {
 			case ZIP:
-				return new XmlZipPersistence<>( xml );
+				return new XmlZipPersistence<>( xml, projectLayout );
 			case PLAIN:
-				return new XmlFolderPersistence<>( xml );
+				return new XmlFolderPersistence<>( xml, projectLayout );
 			case KRYO:
 				return new KryoPersistence<>();
 			case CLOUD:
 				return new CloudPersistence<>();
+			case BINARY:
+				return new BinaryPersistence<>( xml, projectLayout );
 			default:
 				throw new RuntimeException(
 						"Unexpected FileOutputFormat: " + RecheckProperties.getInstance().getStateOutputFormat() );
@@ -54,13 +69,22 @@ public class PersistenceFactory {
 			return new KryoPersistence<>();
 		} else if ( format == FileOutputFormat.CLOUD ) {
 			return new CloudPersistence<>();
+		} else if ( isBinary( new File( identifier ), format ) ) {
+			return new BinaryPersistence<>( xml, projectLayout );
 		} else if ( new File( identifier ).isDirectory() ) {
-			return new XmlFolderPersistence<>( xml );
+			return new XmlFolderPersistence<>( xml, projectLayout );
 		} else {
-			return new XmlZipPersistence<>( xml );
+			return new XmlZipPersistence<>( xml, projectLayout );
 		}
 	}
 
+	private static boolean isBinary( final File folder, final FileOutputFormat format ) {
+		// Prefer the configured format if a Golden Master has been saved in both formats.
+		return new File( folder, RecheckProperties.DEFAULT_BINARY_FILE_NAME ).exists()
+				&& (format == FileOutputFormat.BINARY
+						|| !new File( folder, RecheckProperties.DEFAULT_XML_FILE_NAME ).exists());
+	}
+
 	private FileOutputFormat getFormatForIdentifier( final URI identifier ) {
 		final String filename = FilenameUtils.getName( identifier.getPath() );
 
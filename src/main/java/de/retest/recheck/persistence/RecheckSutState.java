@@ -11,12 +11,14 @@ import java.util.Set;
 import de.retest.recheck.RecheckAdapter;
 import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.meta.MetadataProviderService;
+import de.retest.recheck.persistence.xml.XmlTransformer;
 import de.retest.recheck.ui.descriptors.RootElement;
 import de.retest.recheck.ui.descriptors.SutState;
 
 public class RecheckSutState {
 
-	private static final PersistenceFactory persistenceFactory = new PersistenceFactory( getXmlTransformer() );
+	private static final XmlTransformer xml = getXmlTransformer();
+	private static final PersistenceFactory persistenceFactory = new PersistenceFactory( xml );
 
 	private RecheckSutState() {}
 
@@ -29,8 +31,21 @@ public class RecheckSutState {
 	}
 
 	public static SutState createNew( final File file, final SutState actual ) {
+		return createNew( file, actual, null );
+	}
+
+	/**
+	 * @param file
+	 *            the Golden Master to create
+	 * @param actual
+	 *            the state to save
+	 * @param layout
+	 *            the layout the Golden Master is created with, {@code null} to use the detected layout
+	 * @return an empty state
+	 */
+	public static SutState createNew( final File file, final SutState actual, final ProjectLayout layout ) {
 		try {
-			persistenceFactory.getPersistence().save( file.toURI(), actual );
+			getPersistenceFactory( layout ).getPersistence().save( file.toURI(), actual );
 		} catch ( final IOException e ) {
 			throw new UncheckedIOException( "Could not save SUT state '" + actual + "' to '" + file + "'.", e );
 		}
@@ -38,14 +53,30 @@ public class RecheckSutState {
 	}
 
 	public static SutState loadExpected( final File file ) {
-		// Folder could exist, but not the retest.xml...
-		if ( !file.exists() || !new File( file, RecheckProperties.DEFAULT_XML_FILE_NAME ).exists() ) {
+		return loadExpected( file, null );
+	}
+
+	/**
+	 * @param file
+	 *            the Golden Master to load
+	 * @param layout
+	 *            the layout the Golden Master was created with, {@code null} to use the detected layout
+	 * @return the loaded state or {@code null} if there is no Golden Master
+	 */
+	public static SutState loadExpected( final File file, final ProjectLayout layout ) {
+		// Folder could exist, but not the retest.xml or retest.bin...
+		if ( !file.exists() || !new File( file, RecheckProperties.DEFAULT_XML_FILE_NAME ).exists()
+				&& !new File( file, RecheckProperties.DEFAULT_BINARY_FILE_NAME ).exists() ) {
 			return null;
 		}
 		try {
-			return (SutState) persistenceFactory.getPersistence().load( file.toURI() );
+			return (SutState) getPersistenceFactory( layout ).getPersistence().load( file.toURI() );
 		} catch ( final IOException e ) {
 			throw new UncheckedIOException( "Could not load SUT state from '" + file + "'.", e );
 		}
 	}
+
+	private static PersistenceFactory getPersistenceFactory( final ProjectLayout layout ) {
+		return layout == null ? persistenceFactory : new PersistenceFactory( xml, layout );
+	}
 }
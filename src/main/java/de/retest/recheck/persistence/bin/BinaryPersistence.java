@@ -0,0 +1,83 @@
+package de.retest.recheck.persistence.bin;
+
+import static de.retest.recheck.util.FileUtil.writeToFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+import de.retest.recheck.RecheckProperties;
+import de.retest.recheck.persistence.Persistable;
+import de.retest.recheck.persistence.Persistence;
+import de.retest.recheck.persistence.ProjectLayout;
+import de.retest.recheck.persistence.xml.XmlTransformer;
+import de.retest.recheck.persistence.xml.util.ScreenshotFolderPersistence;
+import de.retest.recheck.ui.descriptors.SutState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persists a {@link SutState} as a compact binary file within the Golden Master folder, see
+ * {@link SutStateBinaryFormat}. Screenshots are stored as separate files next to it, just like
+ * {@link de.retest.recheck.persistence.xml.XmlFolderPersistence} does. Loading reads the whole file at once and
+ * decodes it without JAXB, which is considerably faster for large Golden Masters. Only attributes and values of unknown
+ * types are (un)marshalled by the given transformer.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class BinaryPersistence<T extends Persistable> implements Persistence<T> {
+
+	private final XmlTransformer xml;
+	/**
+	 * The layout locating the screenshot store, {@code null} to use the detected layout.
+	 */
+	private final ProjectLayout projectLayout;
+
+	public BinaryPersistence( final XmlTransformer xml ) {
+		this( xml, null );
+	}
+
+	@Override
+	public void save( final URI identifier, final T element ) throws IOException {
+		if ( !(element instanceof SutState) ) {
+			throw new IllegalArgumentException( "Binary format only supports SUT states, but got " + element + "." );
+		}
+		final File baseFolder = new File( identifier );
+		if ( !baseFolder.exists() ) {
+			log.debug( "baseFolder '{}' don't exists, create new one", baseFolder );
+			baseFolder.mkdirs();
+		}
+
+		final ScreenshotFolderPersistence screenshotPersistence =
+				new ScreenshotFolderPersistence( baseFolder, projectLayout );
+		final SutStateBinaryWriter writer = new SutStateBinaryWriter( xml, screenshotPersistence::saveScreenshot );
+
+		// Write completely before opening the file, so that a refused state does not leave an empty file behind.
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		writer.write( (SutState) element, bytes );
+		final File binaryFile = new File( baseFolder, RecheckProperties.DEFAULT_BINARY_FILE_NAME );
+		writeToFile( binaryFile, bytes::writeTo );
+
+		// Otherwise, the outdated XML would be loaded if the output format is changed back.
+		final File xmlFile = new File( baseFolder, RecheckProperties.DEFAULT_XML_FILE_NAME );
+		if ( Files.deleteIfExists( xmlFile.toPath() ) ) {
+			log.debug( "Deleted outdated '{}'.", xmlFile );
+		}
+	}
+
+	@Override
+	@SuppressWarnings( "unchecked" )
+	public T load( final URI identifier ) throws IOException {
+		final File baseFolder = new File( identifier );
+		final ScreenshotFolderPersistence screenshotPersistence =
+				new ScreenshotFolderPersistence( baseFolder, projectLayout );
+
+		final File binaryFile = new File( baseFolder, RecheckProperties.DEFAULT_BINARY_FILE_NAME );
+		// Not memory mapped, since the mapping would lock the file on Windows until it is garbage collected.
+		final ByteBuffer buffer = ByteBuffer.wrap( Files.readAllBytes( binaryFile.toPath() ) );
+		return (T) new SutStateBinaryReader( buffer, xml, screenshotPersistence::loadScreenshot ).read();
+	}
+}
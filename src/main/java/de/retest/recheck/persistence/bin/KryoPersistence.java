@@ -23,6 +23,7 @@ import com.esotericsoftware.kryo.kryo5.io.Input;
 import com.esotericsoftware.kryo.kryo5.io.Output;
 import com.esotericsoftware.kryo.kryo5.objenesis.strategy.SerializingInstantiatorStrategy;
 import com.esotericsoftware.kryo.kryo5.util.DefaultInstantiatorStrategy;
+import com.esotericsoftware.kryo.kryo5.util.Pool;
 
 import de.retest.recheck.persistence.IncompatibleReportVersionException;
 import de.retest.recheck.persistence.Persistable;
@@ -50,11 +51,54 @@ public class KryoPersistence<T extends Persistable> implements Persistence<T> {
 		return map;
 	}
 
-	private final Kryo kryo;
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Creating a {@code Kryo} instance is expensive due to the class registration, but instances are not thread-safe,
+	 * hence they are pooled. Softly referenced, so that unused instances can be reclaimed.
+	 */
+	private static final Pool<Kryo> kryoPool = new Pool<Kryo>( true, true ) {
+		@Override
+		protected Kryo create() {
+			return createKryo();
+		}
+
+		@Override
+		protected void reset( final Kryo kryo ) {
+			// Usually already done by Kryo itself, but not if (de-)serialization failed.
+			kryo.reset();
+		}
+	};
+
+	private static final Pool<Output> outputPool = new Pool<Output>( true, true ) {
+		@Override
+		protected Output create() {
+			return new Output( BUFFER_SIZE );
+		}
+
+		@Override
+		protected void reset( final Output output ) {
+			output.setOutputStream( null );
+		}
+	};
+
+	private static final Pool<Input> inputPool = new Pool<Input>( true, true ) {
+		@Override
+		protected Input create() {
+			return new Input( BUFFER_SIZE );
+		}
+
+		@Override
+		protected void reset( final Input input ) {
+			input.setInputStream( null );
+		}
+	};
+
+	private final Pool<Kryo> kryos;
 	private final String version;
 
 	public KryoPersistence() {
-		this( createKryo(), VersionProvider.RECHECK_VERSION );
+		this( kryoPool, VersionProvider.RECHECK_VERSION );
 	}
 
 	/**
@@ -66,7 +110,16 @@ public class KryoPersistence<T extends Persistable> implements Persistence<T> {
 	 *            recheck version to use.
 	 */
 	KryoPersistence( final Kryo kryo, final String version ) {
-		this.kryo = kryo;
+		this( new Pool<Kryo>( false, false ) {
+			@Override
+			protected Kryo create() {
+				return kryo;
+			}
+		}, version );
+	}
+
+	private KryoPersistence( final Pool<Kryo> kryos, final String version ) {
+		this.kryos = kryos;
 		this.version = version;
 	}
 
@@ -100,9 +153,16 @@ public class KryoPersistence<T extends Persistable> implements Persistence<T> {
 	}
 
 	public void save( final OutputStream outputStream, final T element ) throws IOException {
-		try ( Output output = new Output( new LZ4FrameOutputStream( outputStream ) ) ) {
+		final Kryo kryo = kryos.obtain();
+		final Output output = outputPool.obtain();
+		try ( final LZ4FrameOutputStream out = new LZ4FrameOutputStream( outputStream ) ) {
+			output.setOutputStream( out );
 			output.writeString( version );
 			kryo.writeClassAndObject( output, element );
+			output.flush();
+		} finally {
+			outputPool.free( output );
+			kryos.free( kryo );
 		}
 	}
 
@@ -115,7 +175,10 @@ public class KryoPersistence<T extends Persistable> implements Persistence<T> {
 	@SuppressWarnings( "unchecked" )
 	public T load( final InputStream in, final URI identifier ) throws IOException {
 		String writerVersion = null;
-		try ( Input input = new Input( new LZ4FrameInputStream( in ) ) ) {
+		final Kryo kryo = kryos.obtain();
+		final Input input = inputPool.obtain();
+		try ( final LZ4FrameInputStream lz4In = new LZ4FrameInputStream( in ) ) {
+			input.setInputStream( lz4In );
 			writerVersion = input.readString();
 			final T persistable = (T) kryo.readClassAndObject( input );
 			if ( !isCompatible( persistable ) ) {
@@ -132,6 +195,9 @@ public class KryoPersistence<T extends Persistable> implements Persistence<T> {
 				writerVersion = OLD_RECHECK_VERSION;
 			}
 			throw new IncompatibleReportVersionException( writerVersion, version, identifier, e );
+		} finally {
+			inputPool.free( input );
+			kryos.free( kryo );
 		}
 	}
 
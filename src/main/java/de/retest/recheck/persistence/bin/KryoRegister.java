@@ -1,6 +1,10 @@
 package de.retest.recheck.persistence.bin;
 
 import com.esotericsoftware.kryo.kryo5.Kryo;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+import com.esotericsoftware.kryo.kryo5.serializers.FieldSerializer;
+
+import de.retest.recheck.ui.image.Screenshot;
 
 public class KryoRegister {
 
@@ -10,7 +14,7 @@ public class KryoRegister {
 
 		kryo.register( de.retest.recheck.ui.Path.class );
 		kryo.register( de.retest.recheck.ui.PathElement.class );
-		kryo.register( de.retest.recheck.ui.image.Screenshot.class );
+		kryo.register( de.retest.recheck.ui.image.Screenshot.class, new ScreenshotSerializer( kryo ) );
 		kryo.register( de.retest.recheck.ui.image.Screenshot.ImageType.class );
 		kryo.register( de.retest.recheck.ui.review.GoldenMasterSource.class );
 
@@ -65,4 +69,19 @@ public class KryoRegister {
 		// TODO add more, see #836
 	}
 
+	/**
+	 * Writes the same fields as the default serializer, but ensures that lazily loaded data is written, too.
+	 */
+	private static final class ScreenshotSerializer extends FieldSerializer<Screenshot> {
+
+		ScreenshotSerializer( final Kryo kryo ) {
+			super( kryo, Screenshot.class );
+		}
+
+		@Override
+		public void write( final Kryo kryo, final Output output, final Screenshot screenshot ) {
+			screenshot.getBinaryData();
+			super.write( kryo, output, screenshot );
+		}
+	}
 }
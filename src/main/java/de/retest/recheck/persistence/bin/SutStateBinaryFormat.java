@@ -0,0 +1,52 @@
+package de.retest.recheck.persistence.bin;
+
+/**
+ * Layout of the binary Golden Master file, as written by {@link SutStateBinaryWriter} and read by
+ * {@link SutStateBinaryReader}. All numbers are big-endian.
+ *
+ * <pre>
+ * file       := MAGIC formatVersion:int persistenceVersion:int strings body
+ * strings    := count:int (length:int utf8Bytes)*
+ * body       := metadata rootCount:int rootElement*
+ * metadata   := count:int (key:string value:string)*
+ * element    := length:int retestId:string identifyingAttributes attributes screenshot
+ *               [screen:string screenId:int title:string] childCount:int element*
+ * screenshot := persistenceId:string [type:byte sha256:string] (only if the persistence ID is not null)
+ * string     := index:int (into strings, -1 for null)
+ * </pre>
+ *
+ * The length of an element is the number of bytes following the length itself, including all contained elements, so
+ * that whole subtrees can be skipped; it is verified when reading. Screenshots only reference their data, which is
+ * stored as separate files, but carry its hash, so that they can be compared without loading it. Attributes and values
+ * of other types than the ones listed below, e.g. of an adapter, are stored as their JAXB XML fragment (see
+ * {@link de.retest.recheck.persistence.xml.XmlTransformer#toXmlFragment}). Hence loading a file only ever creates
+ * instances of types bound to JAXB, just like loading XML.
+ */
+final class SutStateBinaryFormat {
+
+	static final byte[] MAGIC = { 'R', 'C', 'G', 'M' };
+	static final int FORMAT_VERSION = 1;
+
+	static final int NULL_STRING = -1;
+
+	// Attribute types.
+	static final byte STRING_ATTRIBUTE = 0;
+	static final byte SUFFIX_ATTRIBUTE = 1;
+	static final byte CONTEXT_ATTRIBUTE = 2;
+	static final byte TEXT_ATTRIBUTE = 3;
+	static final byte WEIGHTED_TEXT_ATTRIBUTE = 4;
+	static final byte CODE_LOC_ATTRIBUTE = 5;
+	static final byte PATH_ATTRIBUTE = 6;
+	static final byte OUTLINE_ATTRIBUTE = 7;
+	static final byte DEFAULT_ATTRIBUTE = 8;
+	static final byte XML_ATTRIBUTE = 9;
+
+	// Value types.
+	static final byte NULL_VALUE = 0;
+	static final byte STRING_VALUE = 1;
+	static final byte INTEGER_VALUE = 2;
+	static final byte BOOLEAN_VALUE = 3;
+	static final byte XML_VALUE = 4;
+
+	private SutStateBinaryFormat() {}
+}
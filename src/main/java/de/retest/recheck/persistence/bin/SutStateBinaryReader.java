@@ -0,0 +1,286 @@
+package de.retest.recheck.persistence.bin;
+
+import static de.retest.recheck.persistence.bin.SutStateBinaryFormat.*;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.retest.recheck.persistence.xml.XmlTransformer;
+import de.retest.recheck.ui.Path;
+import de.retest.recheck.ui.descriptors.Attribute;
+import de.retest.recheck.ui.descriptors.Attributes;
+import de.retest.recheck.ui.descriptors.CodeLocAttribute;
+import de.retest.recheck.ui.descriptors.ContextAttribute;
+import de.retest.recheck.ui.descriptors.DefaultAttribute;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.MutableAttributes;
+import de.retest.recheck.ui.descriptors.OutlineAttribute;
+import de.retest.recheck.ui.descriptors.PathAttribute;
+import de.retest.recheck.ui.descriptors.RootElement;
+import de.retest.recheck.ui.descriptors.StringAttribute;
+import de.retest.recheck.ui.descriptors.SuffixAttribute;
+import de.retest.recheck.ui.descriptors.SutState;
+import de.retest.recheck.ui.descriptors.TextAttribute;
+import de.retest.recheck.ui.descriptors.WeightedTextAttribute;
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
+import jakarta.xml.bind.JAXBException;
+
+/**
+ * Reads a {@link SutState} in the format described by {@link SutStateBinaryFormat} directly from a buffer. Attributes
+ * and values of unknown types are unmarshalled from XML by the given transformer. The data of screenshots is requested
+ * from the given loader, which returns {@code null} if it is missing; such screenshots are dropped, like when reading
+ * XML. Every length and index is checked against the buffer, so that a corrupt file results in an {@link IOException}.
+ */
+final class SutStateBinaryReader {
+
+	interface ScreenshotLoader {
+		Screenshot load( String persistenceId, ImageType type, String sha256 );
+	}
+
+	private final ByteBuffer buffer;
+	private final XmlTransformer xml;
+	private final ScreenshotLoader screenshotLoader;
+	private final Map<String, Screenshot> screenshots = new HashMap<>();
+	private String[] strings;
+
+	SutStateBinaryReader( final ByteBuffer buffer, final XmlTransformer xml, final ScreenshotLoader screenshotLoader ) {
+		this.buffer = buffer;
+		this.xml = xml;
+		this.screenshotLoader = screenshotLoader;
+	}
+
+	SutState read() throws IOException {
+		try {
+			readHeader();
+			readStrings();
+			final Map<String, String> metadata = readMetadata();
+			final int rootCount = readCount();
+			final List<RootElement> rootElements = new ArrayList<>( rootCount );
+			for ( int i = 0; i < rootCount; i++ ) {
+				rootElements.add( (RootElement) readElement( null ) );
+			}
+			return new SutState( rootElements, () -> metadata );
+		} catch ( final RuntimeException e ) {
+			// E.g. a BufferUnderflowException, but constructors of attributes may also reject corrupt values.
+			throw new IOException( "Corrupt binary Golden Master.", e );
+		}
+	}
+
+	private void readHeader() throws IOException {
+		final byte[] magic = new byte[MAGIC.length];
+		buffer.get( magic );
+		for ( int i = 0; i < MAGIC.length; i++ ) {
+			if ( magic[i] != MAGIC[i] ) {
+				throw new IOException( "Not a binary Golden Master." );
+			}
+		}
+		final int formatVersion = buffer.getInt();
+		if ( formatVersion != FORMAT_VERSION ) {
+			throw new IOException( "Unsupported binary Golden Master format version " + formatVersion
+					+ ", expected version " + FORMAT_VERSION + "." );
+		}
+		final int persistenceVersion = buffer.getInt();
+		if ( persistenceVersion != SutState.PERSISTENCE_VERSION ) {
+			throw new IOException( "Unsupported persistence version " + persistenceVersion + ", expected version "
+					+ SutState.PERSISTENCE_VERSION + "." );
+		}
+	}
+
+	private void readStrings() {
+		strings = new String[readCount( Integer.BYTES )];
+		for ( int i = 0; i < strings.length; i++ ) {
+			final byte[] bytes = new byte[readCount()];
+			buffer.get( bytes );
+			strings[i] = new String( bytes, StandardCharsets.UTF_8 );
+		}
+	}
+
+	private Map<String, String> readMetadata() {
+		final int count = readCount( 2 * Integer.BYTES );
+		final Map<String, String> metadata = new HashMap<>( count * 2 );
+		for ( int i = 0; i < count; i++ ) {
+			metadata.put( readString(), readString() );
+		}
+		return metadata;
+	}
+
+	private Element readElement( final Element parent ) {
+		final int length = readCount();
+		final int start = buffer.position();
+		final String retestId = readString();
+		final IdentifyingAttributes identifyingAttributes = readIdentifyingAttributes();
+		final Attributes attributes = readAttributes();
+		final Screenshot screenshot = readScreenshot();
+		final Element element;
+		if ( parent == null ) {
+			element = new RootElement( retestId, identifyingAttributes, attributes, screenshot, readString(),
+					buffer.getInt(), readString() );
+		} else {
+			element = Element.create( retestId, parent, identifyingAttributes, attributes, screenshot );
+		}
+		final int childCount = readCount();
+		final List<Element> containedElements = new ArrayList<>( childCount );
+		for ( int i = 0; i < childCount; i++ ) {
+			containedElements.add( readElement( element ) );
+		}
+		element.addChildren( containedElements );
+		if ( buffer.position() - start != length ) {
+			throw new IllegalArgumentException( "Element '" + retestId + "' has length " + length + ", but "
+					+ (buffer.position() - start) + " bytes were read." );
+		}
+		return element;
+	}
+
+	private IdentifyingAttributes readIdentifyingAttributes() {
+		final int count = readCount();
+		final List<Attribute> attributes = new ArrayList<>( count );
+		for ( int i = 0; i < count; i++ ) {
+			attributes.add( readAttribute() );
+		}
+		return new IdentifyingAttributes( attributes );
+	}
+
+	@SuppressWarnings( "deprecation" )
+	private Attribute readAttribute() {
+		final byte type = buffer.get();
+		switch ( type ) {
+			case STRING_ATTRIBUTE:
+				return new StringAttribute( readString(), readString(), readString() );
+			case SUFFIX_ATTRIBUTE:
+				readString(); // key
+				return new SuffixAttribute( readString(), readString() );
+			case CONTEXT_ATTRIBUTE:
+				readString(); // key
+				return new ContextAttribute( readString(), readString() );
+			case TEXT_ATTRIBUTE:
+				return new TextAttribute( readString(), readString(), readString() );
+			case WEIGHTED_TEXT_ATTRIBUTE:
+				return new WeightedTextAttribute( readString(), readString(), readString() );
+			case CODE_LOC_ATTRIBUTE:
+				readString(); // key
+				return new CodeLocAttribute( readString(), readString() );
+			case PATH_ATTRIBUTE:
+				return new PathAttribute( Path.fromString( readString() ), readString() );
+			case OUTLINE_ATTRIBUTE:
+				return readOutlineAttribute();
+			case DEFAULT_ATTRIBUTE:
+				return new DefaultAttribute( readString(), (Serializable) readValue(), readString() );
+			case XML_ATTRIBUTE:
+				return fromXmlFragment( readString(), Attribute.class );
+			default:
+				throw new IllegalArgumentException( "Unknown attribute type " + type + "." );
+		}
+	}
+
+	private Attribute readOutlineAttribute() {
+		final String key = readString();
+		final Rectangle outline = new Rectangle( buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt() );
+		final boolean empty = outline.x == -1 && outline.y == -1 && outline.width == -1 && outline.height == -1;
+		if ( OutlineAttribute.ABSOLUTE_OUTLINE.equals( key ) ) {
+			return OutlineAttribute.createAbsolute( empty ? null : outline );
+		}
+		return OutlineAttribute.create( empty ? null : outline );
+	}
+
+	private Attributes readAttributes() {
+		final int count = readCount();
+		final MutableAttributes attributes = new MutableAttributes();
+		for ( int i = 0; i < count; i++ ) {
+			attributes.put( readString(), (Serializable) readValue() );
+		}
+		final Screenshot screenshot = readScreenshot();
+		if ( screenshot != null ) {
+			attributes.put( screenshot );
+		}
+		return attributes.immutable();
+	}
+
+	private Object readValue() {
+		final byte type = buffer.get();
+		switch ( type ) {
+			case NULL_VALUE:
+				return null;
+			case STRING_VALUE:
+				return readString();
+			case INTEGER_VALUE:
+				return buffer.getInt();
+			case BOOLEAN_VALUE:
+				return buffer.get() != 0;
+			case XML_VALUE:
+				return fromXmlFragment( readString(), Object.class );
+			default:
+				throw new IllegalArgumentException( "Unknown value type " + type + "." );
+		}
+	}
+
+	private Screenshot readScreenshot() {
+		final String persistenceId = readString();
+		if ( persistenceId == null ) {
+			return null;
+		}
+		final ImageType type = readImageType();
+		final String sha256 = readString();
+		// Also remember missing screenshots, which are usually referenced twice.
+		if ( screenshots.containsKey( persistenceId ) ) {
+			return screenshots.get( persistenceId );
+		}
+		final Screenshot screenshot = screenshotLoader.load( persistenceId, type, sha256 );
+		screenshots.put( persistenceId, screenshot );
+		return screenshot;
+	}
+
+	private ImageType readImageType() {
+		final byte ordinal = buffer.get();
+		if ( ordinal < 0 || ordinal >= ImageType.values().length ) {
+			throw new IllegalArgumentException( "Unknown image type " + ordinal + "." );
+		}
+		return ImageType.values()[ordinal];
+	}
+
+	private <T> T fromXmlFragment( final String fragment, final Class<T> declaredType ) {
+		if ( fragment == null ) {
+			throw new IllegalArgumentException( "Missing XML of " + declaredType.getSimpleName() + "." );
+		}
+		try {
+			return xml.fromXmlFragment( fragment, declaredType );
+		} catch ( final JAXBException e ) {
+			throw new IllegalArgumentException( "Invalid XML of " + declaredType.getSimpleName() + ".", e );
+		}
+	}
+
+	private int readCount() {
+		return readCount( 1 );
+	}
+
+	/**
+	 * Reads a count or length, which must not exceed the remaining bytes given the minimum size of each entry. This
+	 * prevents allocating huge arrays for a corrupt file.
+	 */
+	private int readCount( final int minEntrySize ) {
+		final int count = buffer.getInt();
+		if ( count < 0 || count > buffer.remaining() / minEntrySize ) {
+			throw new IllegalArgumentException( "Invalid count " + count + " at position " + buffer.position() + "." );
+		}
+		return count;
+	}
+
+	private String readString() {
+		final int index = buffer.getInt();
+		if ( index == NULL_STRING ) {
+			return null;
+		}
+		if ( index < 0 || index >= strings.length ) {
+			throw new IllegalArgumentException( "Invalid string index " + index + "." );
+		}
+		return strings[index];
+	}
+}
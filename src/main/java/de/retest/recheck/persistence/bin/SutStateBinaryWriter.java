@@ -0,0 +1,271 @@
+package de.retest.recheck.persistence.bin;
+
+import static de.retest.recheck.persistence.bin.SutStateBinaryFormat.*;
+
+import java.awt.Rectangle;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import de.retest.recheck.persistence.xml.XmlTransformer;
+import de.retest.recheck.ui.descriptors.Attribute;
+import de.retest.recheck.ui.descriptors.Attributes;
+import de.retest.recheck.ui.descriptors.CodeLocAttribute;
+import de.retest.recheck.ui.descriptors.ContextAttribute;
+import de.retest.recheck.ui.descriptors.DefaultAttribute;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.OutlineAttribute;
+import de.retest.recheck.ui.descriptors.ParameterizedAttribute;
+import de.retest.recheck.ui.descriptors.PathAttribute;
+import de.retest.recheck.ui.descriptors.RootElement;
+import de.retest.recheck.ui.descriptors.StringAttribute;
+import de.retest.recheck.ui.descriptors.SuffixAttribute;
+import de.retest.recheck.ui.descriptors.SutState;
+import de.retest.recheck.ui.descriptors.TextAttribute;
+import de.retest.recheck.ui.descriptors.WeightedTextAttribute;
+import de.retest.recheck.ui.image.Screenshot;
+import jakarta.xml.bind.JAXBException;
+
+/**
+ * Writes a {@link SutState} in the format described by {@link SutStateBinaryFormat}. Each distinct string is written
+ * only once. Attributes and values of unknown types are written as XML fragments by the given transformer, which fails
+ * if they are not bound to JAXB. Screenshots are handed to the given consumer, which is responsible for storing their
+ * data.
+ */
+final class SutStateBinaryWriter {
+
+	private final Map<String, Integer> strings = new LinkedHashMap<>();
+	private final Buffer body = new Buffer();
+	private final XmlTransformer xml;
+	private final Consumer<Screenshot> screenshotConsumer;
+
+	SutStateBinaryWriter( final XmlTransformer xml, final Consumer<Screenshot> screenshotConsumer ) {
+		this.xml = xml;
+		this.screenshotConsumer = screenshotConsumer;
+	}
+
+	void write( final SutState state, final OutputStream outputStream ) throws IOException {
+		writeMetadata( state.getMetadata() );
+		final List<RootElement> rootElements = state.getRootElements();
+		body.writeInt( rootElements.size() );
+		for ( final RootElement rootElement : rootElements ) {
+			writeElement( rootElement, true );
+		}
+
+		final DataOutputStream out = new DataOutputStream( outputStream );
+		out.write( MAGIC );
+		out.writeInt( FORMAT_VERSION );
+		out.writeInt( state.version() );
+		out.writeInt( strings.size() );
+		for ( final String string : strings.keySet() ) {
+			final byte[] bytes = string.getBytes( StandardCharsets.UTF_8 );
+			out.writeInt( bytes.length );
+			out.write( bytes );
+		}
+		body.writeTo( out );
+		out.flush();
+	}
+
+	private void writeMetadata( final Map<String, String> metadata ) {
+		body.writeInt( metadata.size() );
+		metadata.forEach( ( key, value ) -> {
+			writeString( key );
+			writeString( value );
+		} );
+	}
+
+	private void writeElement( final Element element, final boolean root ) throws IOException {
+		final int lengthPosition = body.reserveInt();
+		writeString( element.getRetestId() );
+		writeIdentifyingAttributes( element.getIdentifyingAttributes() );
+		writeAttributes( element.getAttributes() );
+		writeScreenshot( element.getScreenshot() );
+		if ( root ) {
+			final RootElement rootElement = (RootElement) element;
+			writeString( rootElement.getScreen() );
+			body.writeInt( rootElement.getScreenId() );
+			writeString( rootElement.getTitle() );
+		}
+		final List<Element> containedElements = element.getContainedElements();
+		body.writeInt( containedElements.size() );
+		for ( final Element containedElement : containedElements ) {
+			writeElement( containedElement, false );
+		}
+		body.setInt( lengthPosition, body.size() - lengthPosition - Integer.BYTES );
+	}
+
+	private void writeIdentifyingAttributes( final IdentifyingAttributes identifyingAttributes ) throws IOException {
+		final List<Attribute> attributes = identifyingAttributes.getAttributes();
+		body.writeInt( attributes.size() );
+		for ( final Attribute attribute : attributes ) {
+			writeAttribute( attribute );
+		}
+	}
+
+	private void writeAttribute( final Attribute attribute ) throws IOException {
+		final Class<?> type = attribute.getClass();
+		if ( type == PathAttribute.class ) {
+			body.writeByte( PATH_ATTRIBUTE );
+			writeString( ((PathAttribute) attribute).getValue().toString() );
+			writeString( ((PathAttribute) attribute).getVariableName() );
+		} else if ( type == OutlineAttribute.class && isKnownOutline( attribute.getKey() ) ) {
+			body.writeByte( OUTLINE_ATTRIBUTE );
+			writeString( attribute.getKey() );
+			final Rectangle outline = ((OutlineAttribute) attribute).getValue();
+			body.writeInt( outline == null ? -1 : outline.x );
+			body.writeInt( outline == null ? -1 : outline.y );
+			body.writeInt( outline == null ? -1 : outline.width );
+			body.writeInt( outline == null ? -1 : outline.height );
+		} else if ( type == DefaultAttribute.class ) {
+			body.writeByte( DEFAULT_ATTRIBUTE );
+			writeString( attribute.getKey() );
+			writeValue( attribute.getValue() );
+			writeString( ((DefaultAttribute) attribute).getVariableName() );
+		} else if ( isKnownStringAttribute( type ) ) {
+			body.writeByte( stringAttributeType( type ) );
+			writeString( attribute.getKey() );
+			writeString( ((StringAttribute) attribute).getValue() );
+			writeString( ((ParameterizedAttribute) attribute).getVariableName() );
+		} else {
+			// Attributes of other types, e.g. of an adapter, are written like in XML.
+			body.writeByte( XML_ATTRIBUTE );
+			writeString( toXmlFragment( attribute, Attribute.class ) );
+		}
+	}
+
+	private static boolean isKnownOutline( final String key ) {
+		return OutlineAttribute.RELATIVE_OUTLINE.equals( key ) || OutlineAttribute.ABSOLUTE_OUTLINE.equals( key );
+	}
+
+	private static boolean isKnownStringAttribute( final Class<?> type ) {
+		return type == StringAttribute.class || type == SuffixAttribute.class || type == ContextAttribute.class
+				|| type == TextAttribute.class || type == WeightedTextAttribute.class
+				|| type == CodeLocAttribute.class;
+	}
+
+	private static byte stringAttributeType( final Class<?> type ) {
+		if ( type == SuffixAttribute.class ) {
+			return SUFFIX_ATTRIBUTE;
+		}
+		if ( type == ContextAttribute.class ) {
+			return CONTEXT_ATTRIBUTE;
+		}
+		if ( type == TextAttribute.class ) {
+			return TEXT_ATTRIBUTE;
+		}
+		if ( type == WeightedTextAttribute.class ) {
+			return WEIGHTED_TEXT_ATTRIBUTE;
+		}
+		if ( type == CodeLocAttribute.class ) {
+			return CODE_LOC_ATTRIBUTE;
+		}
+		return STRING_ATTRIBUTE;
+	}
+
+	private void writeAttributes( final Attributes attributes ) throws IOException {
+		final int countPosition = body.reserveInt();
+		int count = 0;
+		for ( final Map.Entry<String, Object> attribute : attributes ) {
+			// The screenshot is only referenced by its persistence ID and written separately.
+			if ( !Attributes.SCREENSHOT.equals( attribute.getKey() ) ) {
+				writeString( attribute.getKey() );
+				writeValue( attribute.getValue() );
+				count++;
+			}
+		}
+		body.setInt( countPosition, count );
+		writeScreenshot( (Screenshot) attributes.get( Attributes.SCREENSHOT ) );
+	}
+
+	private void writeValue( final Object value ) throws IOException {
+		if ( value == null ) {
+			body.writeByte( NULL_VALUE );
+		} else if ( value instanceof String ) {
+			body.writeByte( STRING_VALUE );
+			writeString( (String) value );
+		} else if ( value instanceof Integer ) {
+			body.writeByte( INTEGER_VALUE );
+			body.writeInt( (Integer) value );
+		} else if ( value instanceof Boolean ) {
+			body.writeByte( BOOLEAN_VALUE );
+			body.writeByte( (Boolean) value ? 1 : 0 );
+		} else {
+			body.writeByte( XML_VALUE );
+			writeString( toXmlFragment( value, Object.class ) );
+		}
+	}
+
+	private <T> String toXmlFragment( final T value, final Class<T> declaredType ) throws IOException {
+		try {
+			return xml.toXmlFragment( value, declaredType );
+		} catch ( final JAXBException e ) {
+			throw new IOException( "Cannot write '" + value + "' of " + value.getClass() + " in binary format.", e );
+		}
+	}
+
+	private void writeScreenshot( final Screenshot screenshot ) {
+		if ( screenshot == null ) {
+			writeString( null );
+			return;
+		}
+		writeString( screenshot.getPersistenceId() );
+		body.writeByte( screenshot.getType().ordinal() );
+		writeString( screenshot.getSha256() );
+		screenshotConsumer.accept( screenshot );
+	}
+
+	private void writeString( final String string ) {
+		body.writeInt( string == null ? NULL_STRING : strings.computeIfAbsent( string, s -> strings.size() ) );
+	}
+
+	private static final class Buffer {
+
+		private byte[] bytes = new byte[1 << 16];
+		private int size;
+
+		int size() {
+			return size;
+		}
+
+		void writeByte( final int value ) {
+			ensureCapacity( 1 );
+			bytes[size++] = (byte) value;
+		}
+
+		void writeInt( final int value ) {
+			ensureCapacity( Integer.BYTES );
+			setInt( size, value );
+			size += Integer.BYTES;
+		}
+
+		int reserveInt() {
+			final int position = size;
+			writeInt( 0 );
+			return position;
+		}
+
+		void setInt( final int position, final int value ) {
+			bytes[position] = (byte) (value >>> 24);
+			bytes[position + 1] = (byte) (value >>> 16);
+			bytes[position + 2] = (byte) (value >>> 8);
+			bytes[position + 3] = (byte) value;
+		}
+
+		void writeTo( final OutputStream out ) throws IOException {
+			out.write( bytes, 0, size );
+		}
+
+		private void ensureCapacity( final int additional ) {
+			if ( size + additional > bytes.length ) {
+				bytes = Arrays.copyOf( bytes, Math.max( bytes.length * 2, size + additional ) );
+			}
+		}
+	}
+}
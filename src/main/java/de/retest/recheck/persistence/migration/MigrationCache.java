@@ -0,0 +1,142 @@
+package de.retest.recheck.persistence.migration;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.UnaryOperator;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+
+import de.retest.recheck.util.DeleteOnCloseFileInputStream;
+import de.retest.recheck.util.NamedBufferedInputStream;
+import de.retest.recheck.util.VersionProvider;
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
+
+/**
+ * Keeps the results of migrations, so that an outdated file is migrated only once and not on each load. Results are
+ * keyed by the SHA-256 hash of the outdated file and the recheck version, thus changed files or a different recheck
+ * version (possibly with different migrations) never get stale results.
+ *
+ * <pre>
+ * ${CACHE_FOLDER}
+ * +- 810ff2fb...1f50-1.11.0.xml.lz4
+ * </pre>
+ *
+ * The folder should be within the build directory (e.g. {@code target}), so that it is removed on clean builds.
+ */
+public class MigrationCache {
+
+	private static final Logger logger = LoggerFactory.getLogger( MigrationCache.class );
+
+	private static final String FILE_EXTENSION = ".xml.lz4";
+
+	private final File folder;
+	private final String version;
+
+	/**
+	 * @param folder
+	 *            the folder to keep the results of migrations in
+	 */
+	public MigrationCache( final File folder ) {
+		this( folder, VersionProvider.RECHECK_VERSION );
+	}
+
+	MigrationCache( final File folder, final String version ) {
+		this.folder = folder;
+		this.version = version.replaceAll( "[^\\w.-]", "_" );
+	}
+
+	/**
+	 * Returns the cached result of the migration of the given file or migrates and caches it, if there is no result
+	 * yet. If the stream reads a file, the file is hashed directly, so that the stream is only read if the file must
+	 * actually be migrated. Otherwise the stream is copied while hashing it.
+	 *
+	 * @param bin
+	 *            the outdated file, which is consumed if it is migrated or does not read a file
+	 * @param migration
+	 *            migrates the given outdated file
+	 * @return the migrated file
+	 * @throws IOException
+	 *             if the file cannot be read or the result cannot be cached
+	 */
+	public NamedBufferedInputStream migrate( final NamedBufferedInputStream bin,
+			final UnaryOperator<NamedBufferedInputStream> migration ) throws IOException {
+		Files.createDirectories( folder.toPath() );
+		final File source = bin.getFile();
+		if ( source != null && source.isFile() ) {
+			final String sha256;
+			try ( final HashingInputStream in =
+					new HashingInputStream( Hashing.sha256(), new FileInputStream( source ) ) ) {
+				IOUtils.consume( in );
+				sha256 = in.hash().toString();
+			}
+			final File cached = getFile( sha256 );
+			if ( cached.isFile() ) {
+				logger.info( "Using migrated file '{}' from cache '{}'.", bin.getName(), cached );
+				return open( cached, bin.getName() );
+			}
+			return migrateAndCache( bin, sha256, migration );
+		}
+
+		// The whole stream is needed to compute its hash, so keep a copy in case it must be migrated.
+		final File copy = File.createTempFile( "retest-migration-", FILE_EXTENSION, folder );
+		final String sha256;
+		try ( final HashingInputStream in = new HashingInputStream( Hashing.sha256(), bin );
+				final OutputStream out = new LZ4BlockOutputStream( new FileOutputStream( copy ) ) ) {
+			IOUtils.copy( in, out );
+			sha256 = in.hash().toString();
+		} catch ( final IOException | RuntimeException e ) {
+			Files.deleteIfExists( copy.toPath() );
+			throw e;
+		}
+
+		final File cached = getFile( sha256 );
+		if ( cached.isFile() ) {
+			Files.delete( copy.toPath() );
+			logger.info( "Using migrated file '{}' from cache '{}'.", bin.getName(), cached );
+			return open( cached, bin.getName() );
+		}
+		try ( final NamedBufferedInputStream outdated = new NamedBufferedInputStream(
+				new LZ4BlockInputStream( new DeleteOnCloseFileInputStream( copy ) ), bin.getName() ) ) {
+			return migrateAndCache( outdated, sha256, migration );
+		}
+	}
+
+	private NamedBufferedInputStream migrateAndCache( final NamedBufferedInputStream outdated, final String sha256,
+			final UnaryOperator<NamedBufferedInputStream> migration ) throws IOException {
+		final File cached = getFile( sha256 );
+		final Path temp = File.createTempFile( sha256, ".tmp", folder ).toPath();
+		try {
+			try ( final InputStream migrated = migration.apply( outdated );
+					final OutputStream out = new LZ4BlockOutputStream( Files.newOutputStream( temp ) ) ) {
+				IOUtils.copy( migrated, out );
+			}
+			// Move atomically, so that concurrent loads never see partial results.
+			Files.move( temp, cached.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING );
+		} finally {
+			Files.deleteIfExists( temp );
+		}
+		logger.debug( "Cached migrated file '{}' as '{}'.", outdated.getName(), cached );
+		return open( cached, outdated.getName() );
+	}
+
+	File getFile( final String sha256 ) {
+		return new File( folder, sha256 + "-" + version + FILE_EXTENSION );
+	}
+
+	private static NamedBufferedInputStream open( final File file, final String name ) throws IOException {
+		return new NamedBufferedInputStream( new LZ4BlockInputStream( new FileInputStream( file ) ), name );
+	}
+}
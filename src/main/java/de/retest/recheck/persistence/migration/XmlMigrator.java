@@ -1,13 +1,16 @@
 package de.retest.recheck.persistence.migration;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.persistence.xml.util.XmlVersionCheckResult;
 import de.retest.recheck.util.NamedBufferedInputStream;
 import de.retest.recheck.util.ThreadUtil;
@@ -20,53 +23,57 @@ public class XmlMigrator {
 
 	public static NamedBufferedInputStream tryToMigrate( final XmlVersionCheckResult checkResult,
 			final NamedBufferedInputStream bin ) {
-
 		final XmlMigratorInstances migrator = XmlMigratorInstances.get( checkResult.oldDataType );
-		InputStream finalInputStream = bin;
-
-		if ( migrator != null ) {
-			if ( !ThreadUtil.stackTraceContainsClass( "de.retest.migration.TestMigrator" )
-					&& !ThreadUtil.stackTraceContainsClass( "de.retest.TestMigrator" ) ) {
-				logger.warn( "********************************************************************************" );
-				logger.warn( "ReTest detected an old version of the file '{}'.", bin.getName() );
-				logger.warn(
-						"ReTest migrates the file now, but will discard the results to avoid VCS file conflicts." );
-				logger.warn(
-						"It is very recommended to locally convert the file and commit it to speed up execution!" );
-				logger.warn( "********************************************************************************" );
-			}
+		if ( migrator == null ) {
+			return throwUnableToMigrateException( checkResult );
+		}
+		final String cacheFolder = RecheckProperties.getInstance().migrationCacheFolder();
+		if ( cacheFolder == null || cacheFolder.isEmpty() ) {
+			warnAboutDiscardedResults( bin );
+			return migrate( checkResult, migrator, bin );
+		}
+		try {
+			return new MigrationCache( new File( cacheFolder ) ).migrate( bin,
+					outdated -> migrate( checkResult, migrator, outdated ) );
+		} catch ( final IOException e ) {
+			throw new UncheckedIOException( "Could not migrate file '" + bin.getName() + "' using the cache.", e );
+		}
+	}
 
-			logger.info( "Migrating file '{}' from version {} to version {}. This may take a while.", bin.getName(),
-					checkResult.oldVersion, checkResult.newDataTypeInstance.version() );
-			final List<XmlTransformer> transformers = new ArrayList<>();
+	private static void warnAboutDiscardedResults( final NamedBufferedInputStream bin ) {
+		if ( !ThreadUtil.stackTraceContainsClass( "de.retest.migration.TestMigrator" )
+				&& !ThreadUtil.stackTraceContainsClass( "de.retest.TestMigrator" )
+				&& !ThreadUtil.stackTraceContainsClass( "de.retest.recheck.persistence.xml.GoldenMasterMigrator" ) ) {
+			logger.warn( "********************************************************************************" );
+			logger.warn( "ReTest detected an old version of the file '{}'.", bin.getName() );
+			logger.warn( "ReTest migrates the file now, but will discard the results to avoid VCS file conflicts." );
+			logger.warn(
+					"It is very recommended to locally convert the file and commit it to speed up execution!" );
+			logger.warn( "Alternatively, set '{}' to keep the results of migrations.",
+					RecheckProperties.MIGRATION_CACHE_FOLDER_PROPERTY_KEY );
+			logger.warn( "********************************************************************************" );
+		}
+	}
 
-			// TODO: See RET-797 This is not optimal! When transforming XML, the attribute dataTypeVersion should reflect the specific version instead of the final one.
-			transformers.addAll( createRemoveDatatypeAndVersionTransformer( checkResult.oldDataType,
-					Integer.toString( checkResult.newDataTypeInstance.version() ) ) );
-			transformers.addAll( migrator.getXmlTransformersFor( checkResult.oldVersion ) );
+	private static NamedBufferedInputStream migrate( final XmlVersionCheckResult checkResult,
+			final XmlMigratorInstances migrator, final NamedBufferedInputStream bin ) {
+		logger.info( "Migrating file '{}' from version {} to version {}. This may take a while.", bin.getName(),
+				checkResult.oldVersion, checkResult.newDataTypeInstance.version() );
+		final List<XmlTransformer> transformers = new ArrayList<>();
 
-			for ( int i = 0; i < transformers.size(); i++ ) {
-				final boolean notFinalInputStream = i < transformers.size() - 1;
-				final InputStream previousInputStream = finalInputStream;
-				finalInputStream = transformers.get( i ).transform( finalInputStream );
+		// TODO: See RET-797 This is not optimal! When transforming XML, the attribute dataTypeVersion should reflect the specific version instead of the final one.
+		transformers.addAll( createRemoveDatatypeAndVersionTransformer( checkResult.oldDataType,
+				Integer.toString( checkResult.newDataTypeInstance.version() ) ) );
+		transformers.addAll( migrator.getXmlTransformersFor( checkResult.oldVersion ) );
 
-				if ( notFinalInputStream ) {
-					try {
-						previousInputStream.close();
-					} catch ( final IOException e ) {
-						logger.error( "Error closing previous input stream during migration.", e );
-					}
-				}
-			}
+		final InputStream migrated = XmlTransformer.transform( bin, transformers );
 
-			logger.info( "Migrated file '{}' from version {} to version {}.", bin.getName(), checkResult.oldVersion,
-					checkResult.newDataTypeInstance.version() );
-			//			if debug is enabled, we still don't want an OutOfMemoryError...
-			//			inputStream = writeMigrationResultToLogfile( inputStream );
+		logger.info( "Migrated file '{}' from version {} to version {}.", bin.getName(), checkResult.oldVersion,
+				checkResult.newDataTypeInstance.version() );
+		//			if debug is enabled, we still don't want an OutOfMemoryError...
+		//			inputStream = writeMigrationResultToLogfile( inputStream );
 
-			return new NamedBufferedInputStream( finalInputStream, bin.getName() );
-		}
-		return throwUnableToMigrateException( checkResult );
+		return new NamedBufferedInputStream( migrated, bin.getName() );
 	}
 
 	protected static List<XmlTransformer> createRemoveDatatypeAndVersionTransformer( final String dataType,
@@ -8,8 +8,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 
+import javax.xml.namespace.NamespaceContext;
 import javax.xml.namespace.QName;
 import javax.xml.stream.FactoryConfigurationError;
 import javax.xml.stream.XMLEventFactory;
@@ -37,6 +40,20 @@ public abstract class XmlTransformer {
 	protected final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
 
 	public final InputStream transform( final InputStream inputStream ) {
+		return transform( inputStream, Collections.singletonList( this ) );
+	}
+
+	/**
+	 * Applies the given transformers in a single pass, i.e. the XML is parsed and written only once, with each
+	 * transformer converting the events written by the previous one.
+	 *
+	 * @param inputStream
+	 *            the XML to transform
+	 * @param transformers
+	 *            the transformers to apply in the given order
+	 * @return the transformed XML
+	 */
+	public static InputStream transform( final InputStream inputStream, final List<XmlTransformer> transformers ) {
 		try {
 			// Since these files can become pretty big, storing them in memory might lead to OutOfMemoryErrors.
 			final File tmpFile = File.createTempFile( "retest-migration-", ".xml.lz4" );
@@ -44,17 +61,16 @@ public abstract class XmlTransformer {
 			logger.debug( "Creating temporary file '{}' for XML migration. File will be deleted upon exit.",
 					canonicalPathQuietly( tmpFile ) );
 
-			convertAndWriteToFile( inputStream, tmpFile );
+			convertAndWriteToFile( inputStream, transformers, tmpFile );
 			return new LZ4BlockInputStream( new DeleteOnCloseFileInputStream( tmpFile ) );
 		} catch ( final IOException e ) {
 			throw new RuntimeException( e );
 		}
 	}
 
-	private void convertAndWriteToFile( final InputStream inputStream, final File tmpFile ) throws IOException {
+	private static void convertAndWriteToFile( final InputStream inputStream, final List<XmlTransformer> transformers,
+			final File tmpFile ) throws IOException {
 		try ( final LZ4BlockOutputStream out = new LZ4BlockOutputStream( new FileOutputStream( tmpFile ) ) ) {
-			reset();
-
 			final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
 			inputFactory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE );
 			final XMLEventReader eventReader =
@@ -62,9 +78,20 @@ public abstract class XmlTransformer {
 			final XMLEventWriter eventWriter =
 					XMLOutputFactory.newInstance().createXMLEventWriter( out, StandardCharsets.UTF_8.name() );
 
+			// Chain backwards, so that each transformer writes to the next one and the last one to the file.
+			XMLEventWriter chainWriter = eventWriter;
+			for ( int i = transformers.size() - 1; i > 0; i-- ) {
+				chainWriter = new TransformingEventWriter( transformers.get( i ), chainWriter );
+			}
+			transformers.forEach( XmlTransformer::reset );
+
 			while ( eventReader.hasNext() ) {
 				final XMLEvent nextEvent = eventReader.nextEvent();
-				convert( nextEvent, eventWriter );
+				if ( transformers.isEmpty() ) {
+					eventWriter.add( nextEvent );
+				} else {
+					transformers.get( 0 ).convert( nextEvent, chainWriter );
+				}
 			}
 			eventReader.close();
 			eventWriter.flush();
@@ -119,4 +146,76 @@ public abstract class XmlTransformer {
 	protected Characters characters( final String contents ) {
 		return eventFactory.createCharacters( contents );
 	}
+
+	/**
+	 * Passes the events written by a transformer on to the next transformer, which writes to the given writer.
+	 */
+	private static final class TransformingEventWriter implements XMLEventWriter {
+
+		private final XmlTransformer transformer;
+		private final XMLEventWriter next;
+
+		private int depth;
+
+		TransformingEventWriter( final XmlTransformer transformer, final XMLEventWriter next ) {
+			this.transformer = transformer;
+			this.next = next;
+		}
+
+		@Override
+		public void add( final XMLEvent event ) throws XMLStreamException {
+			// Like a parser reading the written XML, skip whitespace outside of the root element.
+			if ( depth == 0 && event.isCharacters() && event.asCharacters().isWhiteSpace() ) {
+				return;
+			}
+			if ( event.isStartElement() ) {
+				depth++;
+			} else if ( event.isEndElement() ) {
+				depth--;
+			}
+			transformer.convert( event, next );
+		}
+
+		@Override
+		public void add( final XMLEventReader reader ) throws XMLStreamException {
+			while ( reader.hasNext() ) {
+				add( reader.nextEvent() );
+			}
+		}
+
+		@Override
+		public void flush() throws XMLStreamException {
+			next.flush();
+		}
+
+		@Override
+		public void close() throws XMLStreamException {
+			next.close();
+		}
+
+		@Override
+		public String getPrefix( final String uri ) throws XMLStreamException {
+			return next.getPrefix( uri );
+		}
+
+		@Override
+		public void setPrefix( final String prefix, final String uri ) throws XMLStreamException {
+			next.setPrefix( prefix, uri );
+		}
+
+		@Override
+		public void setDefaultNamespace( final String uri ) throws XMLStreamException {
+			next.setDefaultNamespace( uri );
+		}
+
+		@Override
+		public void setNamespaceContext( final NamespaceContext context ) throws XMLStreamException {
+			next.setNamespaceContext( context );
+		}
+
+		@Override
+		public NamespaceContext getNamespaceContext() {
+			return next.getNamespaceContext();
+		}
+	}
 }
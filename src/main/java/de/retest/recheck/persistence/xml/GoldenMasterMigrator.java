@@ -0,0 +1,86 @@
+package de.retest.recheck.persistence.xml;
+
+import static de.retest.recheck.RecheckProperties.DEFAULT_XML_FILE_NAME;
+import static de.retest.recheck.RecheckProperties.GOLDEN_MASTER_FILE_EXTENSION;
+import static de.retest.recheck.util.FileUtil.readFromFile;
+import static de.retest.recheck.util.FileUtil.readFromZipFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.retest.recheck.persistence.Persistable;
+import de.retest.recheck.persistence.Persistence;
+import de.retest.recheck.persistence.xml.util.XmlVersionCheckResult;
+
+/**
+ * Migrates outdated Golden Masters in place, so that they no longer need to be migrated on each load. Both Golden
+ * Masters in folders and in ZIP files are migrated; the migrated files should be committed afterwards.
+ */
+public class GoldenMasterMigrator {
+
+	private static final Logger logger = LoggerFactory.getLogger( GoldenMasterMigrator.class );
+
+	private final XmlTransformer xml;
+
+	public GoldenMasterMigrator( final XmlTransformer xml ) {
+		this.xml = xml;
+	}
+
+	/**
+	 * Migrates all outdated Golden Masters below the given folder, e.g. {@code src/test/resources/retest/recheck}.
+	 *
+	 * @param root
+	 *            the folder containing the Golden Masters
+	 * @return the migrated Golden Masters
+	 * @throws IOException
+	 *             if a Golden Master cannot be read or written
+	 */
+	public List<File> migrateInPlace( final File root ) throws IOException {
+		final List<Path> candidates;
+		try ( final Stream<Path> files = Files.walk( root.toPath() ) ) {
+			candidates = files.filter( Files::isRegularFile ) //
+					.filter( file -> DEFAULT_XML_FILE_NAME.equals( file.getFileName().toString() )
+							|| file.getFileName().toString().endsWith( GOLDEN_MASTER_FILE_EXTENSION ) ) //
+					.collect( Collectors.toList() );
+		}
+		final List<File> migrated = new ArrayList<>();
+		for ( final Path candidate : candidates ) {
+			final boolean zip = !DEFAULT_XML_FILE_NAME.equals( candidate.getFileName().toString() );
+			final File goldenMaster = zip ? candidate.toFile() : candidate.getParent().toFile();
+			if ( migrateInPlace( goldenMaster, zip ) ) {
+				migrated.add( goldenMaster );
+			}
+		}
+		logger.info( "Migrated {} of {} Golden Masters below '{}'.", migrated.size(), candidates.size(), root );
+		return migrated;
+	}
+
+	private boolean migrateInPlace( final File goldenMaster, final boolean zip ) throws IOException {
+		final XmlVersionCheckResult checkResult = zip //
+				? readFromZipFile( goldenMaster, zipFile -> XmlVersionCheckResult
+						.create( new XmlZipPersistence<>( xml ).getReTestXmlInStream( zipFile ) ) ) //
+				: readFromFile( new File( goldenMaster, DEFAULT_XML_FILE_NAME ), XmlVersionCheckResult::create );
+		if ( checkResult == null || checkResult.isCompatible() ) {
+			return false;
+		}
+		if ( checkResult.newDataTypeInstance == null ) {
+			logger.warn( "Ignoring '{}' of unexpected data type {}.", goldenMaster, checkResult.oldDataType );
+			return false;
+		}
+		logger.info( "Migrating Golden Master '{}' from version {}.", goldenMaster, checkResult.oldVersion );
+		final Persistence<Persistable> persistence =
+				zip ? new XmlZipPersistence<>( xml ) : new XmlFolderPersistence<>( xml );
+		final Persistable migrated = persistence.load( goldenMaster.toURI() );
+		persistence.save( goldenMaster.toURI(), migrated );
+		return true;
+	}
+}
@@ -39,12 +39,16 @@ public class ReTestXmlDataContainer<T extends Persistable> implements Serializab
 	}
 
 	public ReTestXmlDataContainer( final T data ) {
+		this( VersionProvider.RECHECK_VERSION, data );
+	}
+
+	ReTestXmlDataContainer( final String reTestVersion, final T data ) {
 		this.data = data;
 
 		dataType = data.getClass().getCanonicalName();
 		dataTypeVersion = data.version();
 
-		reTestVersion = VersionProvider.RECHECK_VERSION;
+		this.reTestVersion = reTestVersion;
 	}
 
 	public T data() {
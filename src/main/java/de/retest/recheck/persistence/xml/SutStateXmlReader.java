@@ -0,0 +1,532 @@
+package de.retest.recheck.persistence.xml;
+
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+import java.awt.Rectangle;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import de.retest.recheck.ui.Path;
+import de.retest.recheck.ui.PathElement;
+import de.retest.recheck.ui.descriptors.Attribute;
+import de.retest.recheck.ui.descriptors.Attributes;
+import de.retest.recheck.ui.descriptors.CodeLocAttribute;
+import de.retest.recheck.ui.descriptors.ContextAttribute;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.MutableAttributes;
+import de.retest.recheck.ui.descriptors.OutlineAttribute;
+import de.retest.recheck.ui.descriptors.PathAttribute;
+import de.retest.recheck.ui.descriptors.RootElement;
+import de.retest.recheck.ui.descriptors.StringAttribute;
+import de.retest.recheck.ui.descriptors.SuffixAttribute;
+import de.retest.recheck.ui.descriptors.SutState;
+import de.retest.recheck.ui.descriptors.TextAttribute;
+import de.retest.recheck.ui.descriptors.WeightedTextAttribute;
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.BinaryDataLoader;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
+import de.retest.recheck.util.ReflectionUtilities;
+import de.retest.recheck.util.RetestIdUtil;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+
+/**
+ * Reads a {@link SutState} written by {@link XmlTransformer} with a streaming parser, creating the elements directly
+ * instead of via the reflective JAXB bindings. Repeated strings and screenshots are shared and the paths of contained
+ * elements are derived from the path of their parent.
+ *
+ * Content that this reader does not know, e.g. attributes of adapter specific types or values of other types than
+ * strings, integers and booleans, is unmarshalled by JAXB from the very same stream. The given listener is notified
+ * about screenshots and their parents just like by JAXB, so that the screenshot persistences work unchanged.
+ */
+final class SutStateXmlReader {
+
+	private static final XMLInputFactory FACTORY = createFactory();
+
+	private static final String XSI_NAMESPACE = XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI;
+	private static final String XSD_NAMESPACE = XMLConstants.W3C_XML_SCHEMA_NS_URI;
+
+	// Resolved eagerly, so that renaming the field fails when loading this class instead of when reading.
+	private static final Field PARENT_FIELD = ReflectionUtilities.getField( Element.class, "parent" );
+
+	// Like screenshots created by JAXB, the data is provided by the unmarshal listener.
+	private static final BinaryDataLoader NO_DATA = () -> null;
+
+	private final XmlTransformer xml;
+	private final Unmarshaller.Listener listener;
+
+	private final Map<String, String> strings = new HashMap<>();
+	private final Map<String, Screenshot> screenshots = new HashMap<>();
+	private final Map<Element, Element> containedElements = new HashMap<>();
+
+	private XMLStreamReader reader;
+	private Unmarshaller unmarshaller;
+	// JAXB leaves the reader at the event following the element it has read.
+	private boolean advancedByJaxb;
+
+	SutStateXmlReader( final XmlTransformer xml, final Unmarshaller.Listener listener ) {
+		this.xml = xml;
+		this.listener = listener;
+	}
+
+	private static XMLInputFactory createFactory() {
+		final XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
+		return factory;
+	}
+
+	ReTestXmlDataContainer<SutState> read( final InputStream in ) throws IOException {
+		try {
+			reader = FACTORY.createXMLStreamReader( in );
+			try {
+				return readContainer();
+			} finally {
+				reader.close();
+			}
+		} catch ( final XMLStreamException | JAXBException | IllegalArgumentException e ) {
+			throw new IOException( "Could not read SUT state.", e );
+		}
+	}
+
+	private ReTestXmlDataContainer<SutState> readContainer() throws XMLStreamException, JAXBException {
+		reader.nextTag();
+		final String reTestVersion = reader.getAttributeValue( null, "reTestVersion" );
+		SutState state = null;
+		while ( nextTag() == START_ELEMENT ) {
+			if ( "data".equals( reader.getLocalName() ) ) {
+				state = readState();
+			} else {
+				throw unexpectedElement();
+			}
+		}
+		if ( state == null ) {
+			throw new XMLStreamException( "Missing SUT state.", reader.getLocation() );
+		}
+		final ReTestXmlDataContainer<SutState> container = new ReTestXmlDataContainer<>( reTestVersion, state );
+		afterUnmarshal( state, container );
+		afterUnmarshal( container, null );
+		return container;
+	}
+
+	private SutState readState() throws XMLStreamException, JAXBException {
+		final List<RootElement> rootElements = new ArrayList<>();
+		final Map<String, String> metadata = new HashMap<>();
+		while ( nextTag() == START_ELEMENT ) {
+			switch ( reader.getLocalName() ) {
+				case "descriptors":
+					rootElements.add( (RootElement) readElement( null ) );
+					break;
+				case "metadata":
+					readMetadata( metadata );
+					break;
+				default:
+					throw unexpectedElement();
+			}
+		}
+		return new SutState( rootElements, () -> metadata );
+	}
+
+	private void readMetadata( final Map<String, String> metadata ) throws XMLStreamException {
+		while ( nextTag() == START_ELEMENT ) {
+			if ( !"entry".equals( reader.getLocalName() ) ) {
+				throw unexpectedElement();
+			}
+			String key = null;
+			String value = null;
+			while ( nextTag() == START_ELEMENT ) {
+				switch ( reader.getLocalName() ) {
+					case "key":
+						key = readText();
+						break;
+					case "value":
+						value = readText();
+						break;
+					default:
+						throw unexpectedElement();
+				}
+			}
+			metadata.put( key, value );
+		}
+	}
+
+	private Element readElement( final Element parent ) throws XMLStreamException, JAXBException {
+		final String retestId = reader.getAttributeValue( null, "retestId" );
+		if ( !RetestIdUtil.isValid( retestId ) ) {
+			// Only JAXB creates elements with retest IDs that are no longer valid.
+			return unmarshalElement( parent );
+		}
+		final String screen = reader.getAttributeValue( null, "screen" );
+		final String screenId = reader.getAttributeValue( null, "screenId" );
+		final String title = reader.getAttributeValue( null, "title" );
+
+		IdentifyingAttributes identifyingAttributes = null;
+		Attributes attributes = new Attributes();
+		Screenshot screenshot = null;
+		Element element = null;
+		final List<Element> children = new ArrayList<>();
+		while ( nextTag() == START_ELEMENT ) {
+			switch ( reader.getLocalName() ) {
+				case "identifyingAttributes":
+					identifyingAttributes = readIdentifyingAttributes( parent );
+					break;
+				case "attributes":
+					attributes = readAttributes();
+					break;
+				case "containedElements":
+					if ( element == null ) {
+						element = createElement( parent, retestId, identifyingAttributes, attributes, screen,
+								screenId, title );
+					}
+					children.add( readContainedElement( element ) );
+					break;
+				case "screenshot":
+					screenshot = readScreenshot();
+					break;
+				default:
+					throw unexpectedElement();
+			}
+		}
+		if ( element == null ) {
+			element =
+					createElement( parent, retestId, identifyingAttributes, attributes, screen, screenId, title );
+		}
+		if ( screenshot != null ) {
+			element.setScreenshot( screenshot );
+			afterUnmarshal( screenshot, element );
+		}
+		element.addChildren( children );
+		afterUnmarshal( element, parent );
+		return element;
+	}
+
+	private Element createElement( final Element parent, final String retestId,
+			final IdentifyingAttributes identifyingAttributes, final Attributes attributes, final String screen,
+			final String screenId, final String title ) throws XMLStreamException {
+		if ( identifyingAttributes == null ) {
+			throw new XMLStreamException( "Missing identifying attributes of " + retestId + ".",
+					reader.getLocation() );
+		}
+		final Element element = parent == null //
+				? new RootElement( retestId, identifyingAttributes, attributes, null, screen,
+						screenId == null ? 0 : Integer.parseInt( screenId.trim() ), title )
+				: Element.create( retestId, parent, identifyingAttributes, attributes );
+		afterUnmarshal( identifyingAttributes, element );
+		afterUnmarshal( attributes, element );
+		return element;
+	}
+
+	private Element readContainedElement( final Element parent ) throws XMLStreamException, JAXBException {
+		final Element element = readElement( parent );
+		// Like the RenderContainedElementsAdapter used by JAXB, equal contained elements are shared.
+		final Element existing = containedElements.putIfAbsent( element, element );
+		return existing == null ? element : existing;
+	}
+
+	private Element unmarshalElement( final Element parent ) throws JAXBException {
+		if ( parent == null ) {
+			return unmarshal( RootElement.class );
+		}
+		final Element element = unmarshal( Element.class );
+		setParent( element, parent );
+		return element;
+	}
+
+	private static void setParent( final Element element, final Element parent ) {
+		// JAXB only sets the parent of elements contained in the unmarshalled one.
+		try {
+			PARENT_FIELD.set( element, parent );
+		} catch ( final IllegalAccessException e ) {
+			throw new IllegalStateException( "Could not set parent of " + element + ".", e );
+		}
+	}
+
+	private IdentifyingAttributes readIdentifyingAttributes( final Element parent )
+			throws XMLStreamException, JAXBException {
+		final String type = getXsiType();
+		if ( type != null && !"identifyingAttributes".equals( type ) ) {
+			// E.g. a subclass of an adapter.
+			return unmarshal( IdentifyingAttributes.class );
+		}
+		final Path parentPath = getPath( parent );
+		final List<Attribute> attributes = new ArrayList<>();
+		while ( nextTag() == START_ELEMENT ) {
+			if ( !"attributes".equals( reader.getLocalName() ) ) {
+				throw unexpectedElement();
+			}
+			while ( nextTag() == START_ELEMENT ) {
+				if ( "attribute".equals( reader.getLocalName() ) ) {
+					attributes.add( readAttribute( parentPath ) );
+				} else {
+					throw unexpectedElement();
+				}
+			}
+		}
+		return new IdentifyingAttributes( attributes );
+	}
+
+	private static Path getPath( final Element element ) {
+		if ( element == null ) {
+			return null;
+		}
+		final Attribute path = element.getIdentifyingAttributes().getAttribute( PathAttribute.PATH_KEY );
+		return path instanceof PathAttribute ? ((PathAttribute) path).getValue() : null;
+	}
+
+	@SuppressWarnings( "deprecation" )
+	private Attribute readAttribute( final Path parentPath ) throws XMLStreamException, JAXBException {
+		final String type = getXsiType();
+		final String key = intern( reader.getAttributeValue( null, "key" ) );
+		final String variableName = intern( reader.getAttributeValue( null, "variableName" ) );
+		if ( type != null ) {
+			switch ( type ) {
+				case "stringAttribute":
+					return new StringAttribute( key, readText(), variableName );
+				case "textAttribute":
+					return new TextAttribute( key, readText(), variableName );
+				case "weightedTextAttribute":
+					return new WeightedTextAttribute( key, readText(), variableName );
+				case "suffixAttribute":
+					return new SuffixAttribute( readText(), variableName );
+				case "contextAttribute":
+					return new ContextAttribute( readText(), variableName );
+				case "codeLocAttribute":
+					return new CodeLocAttribute( readText(), variableName );
+				case "pathAttribute":
+					if ( PathAttribute.PATH_KEY.equals( key ) ) {
+						return new PathAttribute( toPath( reader.getElementText(), parentPath ), variableName );
+					}
+					break;
+				case "outlineAttribute":
+					if ( OutlineAttribute.RELATIVE_OUTLINE.equals( key )
+							|| OutlineAttribute.ABSOLUTE_OUTLINE.equals( key ) ) {
+						return readOutlineAttribute( key );
+					}
+					break;
+				default:
+					break;
+			}
+		}
+		return unmarshal( Attribute.class );
+	}
+
+	private static Path toPath( final String path, final Path parentPath ) {
+		if ( parentPath != null ) {
+			// Most paths extend the path of the parent by one element, which needs to be parsed only.
+			final String prefix = parentPath.toString();
+			final int start = prefix.length() + 1;
+			if ( path.length() > start && path.startsWith( prefix ) && path.charAt( prefix.length() ) == '/'
+					&& path.indexOf( '/', start ) < 0 ) {
+				return Path.path( parentPath, PathElement.fromString( path.substring( start ) ) );
+			}
+		}
+		return Path.fromString( path );
+	}
+
+	private Attribute readOutlineAttribute( final String key ) throws XMLStreamException {
+		int x = -1;
+		int y = -1;
+		int height = -1;
+		int width = -1;
+		while ( nextTag() == START_ELEMENT ) {
+			switch ( reader.getLocalName() ) {
+				case "x":
+					x = readInt();
+					break;
+				case "y":
+					y = readInt();
+					break;
+				case "height":
+					height = readInt();
+					break;
+				case "width":
+					width = readInt();
+					break;
+				default:
+					throw unexpectedElement();
+			}
+		}
+		final Rectangle outline =
+				x == -1 && y == -1 && height == -1 && width == -1 ? null : new Rectangle( x, y, width, height );
+		return OutlineAttribute.ABSOLUTE_OUTLINE.equals( key ) //
+				? OutlineAttribute.createAbsolute( outline ) //
+				: OutlineAttribute.create( outline );
+	}
+
+	private Attributes readAttributes() throws XMLStreamException, JAXBException {
+		final MutableAttributes attributes = new MutableAttributes();
+		Screenshot screenshot = null;
+		while ( nextTag() == START_ELEMENT ) {
+			switch ( reader.getLocalName() ) {
+				case "attributes":
+					readAttributeEntries( attributes );
+					break;
+				case "screenshot":
+					screenshot = readScreenshot();
+					break;
+				default:
+					throw unexpectedElement();
+			}
+		}
+		if ( screenshot != null ) {
+			attributes.put( screenshot );
+		}
+		final Attributes result = attributes.immutable();
+		if ( screenshot != null ) {
+			afterUnmarshal( screenshot, result );
+		}
+		return result;
+	}
+
+	private void readAttributeEntries( final MutableAttributes attributes ) throws XMLStreamException, JAXBException {
+		while ( nextTag() == START_ELEMENT ) {
+			if ( !"entry".equals( reader.getLocalName() ) ) {
+				throw unexpectedElement();
+			}
+			String key = null;
+			Object value = null;
+			while ( nextTag() == START_ELEMENT ) {
+				switch ( reader.getLocalName() ) {
+					case "key":
+						key = readText();
+						break;
+					case "value":
+						value = readValue();
+						break;
+					default:
+						throw unexpectedElement();
+				}
+			}
+			// The screenshot is only referenced by its persistence ID, which is set along with the screenshot.
+			if ( !Attributes.SCREENSHOT.equals( key ) ) {
+				attributes.put( key, (Serializable) value );
+			}
+		}
+	}
+
+	private Object readValue() throws XMLStreamException, JAXBException {
+		final String type = getXsdType();
+		if ( type != null ) {
+			switch ( type ) {
+				case "string":
+					return readText();
+				case "int":
+					return readInt();
+				case "boolean":
+					final String value = reader.getElementText().trim();
+					return "true".equals( value ) || "1".equals( value );
+				default:
+					break;
+			}
+		}
+		return unmarshal( Object.class );
+	}
+
+	private Screenshot readScreenshot() throws XMLStreamException {
+		String persistenceId = null;
+		ImageType type = null;
+		String sha256 = null;
+		while ( nextTag() == START_ELEMENT ) {
+			switch ( reader.getLocalName() ) {
+				case "persistenceId":
+					persistenceId = reader.getElementText();
+					break;
+				case "type":
+					type = ImageType.valueOf( reader.getElementText().trim() );
+					break;
+				case "sha256":
+					sha256 = reader.getElementText();
+					break;
+				default:
+					throw unexpectedElement();
+			}
+		}
+		if ( persistenceId == null || type == null ) {
+			throw new XMLStreamException( "Incomplete screenshot.", reader.getLocation() );
+		}
+		// Elements and their attributes usually reference the same screenshot.
+		final String id = persistenceId;
+		final ImageType imageType = type;
+		final String hash = sha256;
+		return screenshots.computeIfAbsent( id + "/" + imageType + "/" + hash,
+				key -> new Screenshot( id, imageType, hash, NO_DATA ) );
+	}
+
+	private String getXsiType() {
+		return reader.getAttributeValue( XSI_NAMESPACE, "type" );
+	}
+
+	/**
+	 * @return the name of the XML schema type of the current element, {@code null} if it is of another type
+	 */
+	private String getXsdType() {
+		final String type = getXsiType();
+		if ( type == null ) {
+			return null;
+		}
+		final int separator = type.indexOf( ':' );
+		if ( separator < 0 || !XSD_NAMESPACE.equals( reader.getNamespaceURI( type.substring( 0, separator ) ) ) ) {
+			return null;
+		}
+		return type.substring( separator + 1 );
+	}
+
+	private String readText() throws XMLStreamException {
+		return intern( reader.getElementText() );
+	}
+
+	private int readInt() throws XMLStreamException {
+		return Integer.parseInt( reader.getElementText().trim() );
+	}
+
+	private String intern( final String string ) {
+		if ( string == null ) {
+			return null;
+		}
+		final String existing = strings.putIfAbsent( string, string );
+		return existing == null ? string : existing;
+	}
+
+	private <T> T unmarshal( final Class<T> type ) throws JAXBException {
+		if ( unmarshaller == null ) {
+			unmarshaller = xml.createUnmarshaller( listener );
+		}
+		final T result = unmarshaller.unmarshal( reader, type ).getValue();
+		advancedByJaxb = true;
+		return result;
+	}
+
+	private void afterUnmarshal( final Object target, final Object parent ) {
+		if ( listener != null ) {
+			listener.afterUnmarshal( target, parent );
+		}
+	}
+
+	private int nextTag() throws XMLStreamException {
+		if ( advancedByJaxb ) {
+			advancedByJaxb = false;
+			final int event = reader.getEventType();
+			if ( event == START_ELEMENT || event == END_ELEMENT ) {
+				return event;
+			}
+		}
+		return reader.nextTag();
+	}
+
+	private XMLStreamException unexpectedElement() {
+		// Like JAXB, which reports unknown elements as an error.
+		return new XMLStreamException( "Unexpected element " + reader.getLocalName() + ".", reader.getLocation() );
+	}
+}
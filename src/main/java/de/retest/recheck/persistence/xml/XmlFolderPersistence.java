@@ -6,6 +6,7 @@ import static de.retest.recheck.util.FileUtil.writeToFile;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.persistence.Persistable;
 import de.retest.recheck.persistence.Persistence;
+import de.retest.recheck.persistence.ProjectLayout;
 import de.retest.recheck.persistence.xml.util.ScreenshotFolderPersistence;
 
 public class XmlFolderPersistence<T extends Persistable> implements Persistence<T> {
@@ -21,15 +23,28 @@ public class XmlFolderPersistence<T extends Persistable> implements Persistence<
 
 	private final XmlTransformer xmlTransformer;
 	private final String xmlFileName;
+	private final ProjectLayout projectLayout;
 
 	public XmlFolderPersistence( final XmlTransformer xmlTransformer ) {
+		this( xmlTransformer, (ProjectLayout) null );
+	}
+
+	/**
+	 * @param xmlTransformer
+	 *            the transformer of the XML
+	 * @param projectLayout
+	 *            the layout locating the screenshot store, {@code null} to use the detected layout
+	 */
+	public XmlFolderPersistence( final XmlTransformer xmlTransformer, final ProjectLayout projectLayout ) {
 		this.xmlTransformer = xmlTransformer;
 		xmlFileName = RecheckProperties.DEFAULT_XML_FILE_NAME;
+		this.projectLayout = projectLayout;
 	}
 
 	public XmlFolderPersistence( final XmlTransformer xmlTransformer, final String xmlFileName ) {
 		this.xmlTransformer = xmlTransformer;
 		this.xmlFileName = xmlFileName;
+		projectLayout = null;
 	}
 
 	@Override
@@ -42,19 +57,27 @@ public class XmlFolderPersistence<T extends Persistable> implements Persistence<
 			baseFolder.mkdirs();
 		}
 
-		final ScreenshotFolderPersistence screenshotPersistence = new ScreenshotFolderPersistence( baseFolder );
+		final ScreenshotFolderPersistence screenshotPersistence =
+				new ScreenshotFolderPersistence( baseFolder, projectLayout );
 
 		final File xmlFile = new File( baseFolder, xmlFileName );
 		writeToFile( xmlFile,
 				out -> xmlTransformer.toXML( container, out, screenshotPersistence.getMarshallListener() ) );
 
+		// Otherwise, the outdated binary file would be loaded if the output format is changed back.
+		final File binaryFile = new File( baseFolder, RecheckProperties.DEFAULT_BINARY_FILE_NAME );
+		if ( RecheckProperties.DEFAULT_XML_FILE_NAME.equals( xmlFileName )
+				&& Files.deleteIfExists( binaryFile.toPath() ) ) {
+			logger.debug( "Deleted outdated '{}'.", binaryFile );
+		}
 	}
 
 	@Override
 	public T load( final URI identifier ) throws IOException {
 		final File baseFolder = new File( identifier );
 
-		final ScreenshotFolderPersistence screenshotPersistence = new ScreenshotFolderPersistence( baseFolder );
+		final ScreenshotFolderPersistence screenshotPersistence =
+				new ScreenshotFolderPersistence( baseFolder, projectLayout );
 
 		final File xmlFile = new File( baseFolder, xmlFileName );
 
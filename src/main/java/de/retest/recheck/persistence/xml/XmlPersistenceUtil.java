@@ -2,9 +2,11 @@ package de.retest.recheck.persistence.xml;
 
 import java.io.IOException;
 
+import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.persistence.Persistable;
 import de.retest.recheck.persistence.migration.XmlMigrator;
 import de.retest.recheck.persistence.xml.util.XmlVersionCheckResult;
+import de.retest.recheck.ui.descriptors.SutState;
 import de.retest.recheck.util.NamedBufferedInputStream;
 import jakarta.xml.bind.Unmarshaller.Listener;
 
@@ -29,7 +31,17 @@ public class XmlPersistenceUtil {
 			}
 		}
 
+		if ( checkResult.newDataTypeInstance.getClass() == SutState.class
+				&& RecheckProperties.getInstance().xmlStreamingEnabled() ) {
+			return readSutState( xml, bin, unmarshallListener );
+		}
 		return xml.fromXML( bin, unmarshallListener );
 	}
 
+	@SuppressWarnings( { "unchecked", "rawtypes" } )
+	private static <T extends Persistable> ReTestXmlDataContainer<T> readSutState( final XmlTransformer xml,
+			final NamedBufferedInputStream inputStream, final Listener unmarshallListener ) throws IOException {
+		return (ReTestXmlDataContainer) new SutStateXmlReader( xml, unmarshallListener ).read( inputStream );
+	}
+
 }
@@ -4,9 +4,17 @@ import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.namespace.QName;
+import javax.xml.transform.stream.StreamSource;
 
 import org.eclipse.persistence.internal.oxm.record.namespaces.MapNamespacePrefixMapper;
 import org.eclipse.persistence.jaxb.JAXBContextFactory;
@@ -18,7 +26,9 @@ import com.google.common.collect.ImmutableMap;
 import de.retest.recheck.persistence.xml.util.SessionLogDelegate;
 import de.retest.recheck.persistence.xml.util.StdXmlClassesProvider;
 import de.retest.recheck.persistence.xml.util.XmlUtil;
+import de.retest.recheck.ui.descriptors.RenderContainedElementsAdapter;
 import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBElement;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Marshaller;
 import jakarta.xml.bind.Unmarshaller;
@@ -31,9 +41,17 @@ public class XmlTransformer {
 	private static final ImmutableMap<String, String> NAMESPACE_MAPPINGS = ImmutableMap
 			.of( "http://www.w3.org/2001/XMLSchema", "xsd", "http://www.w3.org/2001/XMLSchema-instance", "xsi" );
 
+	private static final QName FRAGMENT_NAME = new QName( "value" );
+
 	// TODO Try if this is possible with a marshaller delegate instead?
 	private static final Set<Marshaller> lightweightMarshallerSet = new HashSet<>();
 
+	/**
+	 * Contexts are expensive to create, but thread-safe. Hence they are shared by all instances, keyed by the classes
+	 * they are bound to.
+	 */
+	private static final ConcurrentMap<Set<Class<?>>, JAXBContext> contexts = new ConcurrentHashMap<>();
+
 	public static boolean isLightweightMarshaller( final Marshaller m ) {
 		return lightweightMarshallerSet.contains( m );
 	}
@@ -60,10 +78,7 @@ public class XmlTransformer {
 
 	public <T> T fromXML( final InputStream in, final Unmarshaller.Listener listener ) {
 		try {
-			final JAXBContext jc = createJAXBContext( additionalClazzes );
-			final Unmarshaller unmarshaller = jc.createUnmarshaller();
-			unmarshaller.setEventHandler( new DefaultValidationEventHandler() );
-			unmarshaller.setListener( listener );
+			final Unmarshaller unmarshaller = createUnmarshaller( listener );
 
 			@SuppressWarnings( "unchecked" )
 			final T result = (T) unmarshaller.unmarshal( in );
@@ -74,10 +89,20 @@ public class XmlTransformer {
 		}
 	}
 
+	Unmarshaller createUnmarshaller( final Unmarshaller.Listener listener ) throws JAXBException {
+		final JAXBContext jc = getJAXBContext( additionalClazzes );
+		final Unmarshaller unmarshaller = jc.createUnmarshaller();
+		// The adapter keeps track of unmarshalled elements, so it must not be shared by multiple unmarshallers.
+		unmarshaller.setAdapter( new RenderContainedElementsAdapter() );
+		unmarshaller.setEventHandler( new DefaultValidationEventHandler() );
+		unmarshaller.setListener( listener );
+		return unmarshaller;
+	}
+
 	public void toXML( final Object obj, final OutputStream out, final Marshaller.Listener listener ) {
 		Marshaller marshaller = null;
 		try {
-			final JAXBContext jc = createJAXBContext( additionalClazzes );
+			final JAXBContext jc = getJAXBContext( additionalClazzes );
 			marshaller = jc.createMarshaller();
 			marshaller.setProperty( Marshaller.JAXB_FORMATTED_OUTPUT, true );
 			marshaller.setProperty( MarshallerProperties.NAMESPACE_PREFIX_MAPPER,
@@ -127,17 +152,59 @@ public class XmlTransformer {
 	}
 
 	/**
-	 * Use a well-defined JAXB class context, so we don't interfere with some SUT-configured context. Although a context
-	 * <a href=https://stackoverflow.com/a/7400735>"should only be created once and reused"</a>, this fails the
-	 * corresponding test for this class.
+	 * Marshals the given value as a standalone XML fragment, e.g. to embed it into another format. Other than Java
+	 * serialization, only types bound to the JAXB context can be read again with {@link #fromXmlFragment}.
+	 *
+	 * @param value
+	 *            The value to marshal.
+	 * @param declaredType
+	 *            The type the value is read as, the actual type is kept as {@code xsi:type} if it differs.
+	 * @return The XML fragment.
+	 * @throws JAXBException
+	 *             If the value cannot be marshalled.
+	 */
+	public <T> String toXmlFragment( final T value, final Class<T> declaredType ) throws JAXBException {
+		final Marshaller marshaller = getJAXBContext( additionalClazzes ).createMarshaller();
+		marshaller.setProperty( Marshaller.JAXB_FRAGMENT, true );
+		marshaller.setEventHandler( new DefaultValidationEventHandler() );
+		final StringWriter out = new StringWriter();
+		marshaller.marshal( new JAXBElement<>( FRAGMENT_NAME, declaredType, value ), out );
+		return out.toString();
+	}
+
+	/**
+	 * Unmarshals an XML fragment created by {@link #toXmlFragment}.
+	 *
+	 * @param fragment
+	 *            The XML fragment.
+	 * @param declaredType
+	 *            The type the value was marshalled as.
+	 * @return The unmarshalled value.
+	 * @throws JAXBException
+	 *             If the fragment is invalid or refers to a type that is not bound to the JAXB context.
+	 */
+	public <T> T fromXmlFragment( final String fragment, final Class<T> declaredType ) throws JAXBException {
+		final Unmarshaller unmarshaller = createUnmarshaller( null );
+		return unmarshaller.unmarshal( new StreamSource( new StringReader( fragment ) ), declaredType ).getValue();
+	}
+
+	/**
+	 * Use a well-defined JAXB class context, so we don't interfere with some SUT-configured context. As a context
+	 * <a href=https://stackoverflow.com/a/7400735>"should only be created once and reused"</a>, it is cached for the
+	 * given classes. Stateful adapters must therefore be set per (un)marshaller.
 	 *
 	 * @param additionalClazzes
 	 *            Classes to be bound.
-	 * @return A sparkling fresh {@code JAXBContext}.
+	 * @return A {@code JAXBContext} bound to the given classes.
 	 */
-	private JAXBContext createJAXBContext( final Class<?>... additionalClazzes ) {
+	private static JAXBContext getJAXBContext( final Class<?>... additionalClazzes ) {
+		final Class<?>[] contextClasses = StdXmlClassesProvider.getXmlDataClasses( additionalClazzes );
+		return contexts.computeIfAbsent( new HashSet<>( Arrays.asList( contextClasses ) ),
+				classes -> createJAXBContext( contextClasses ) );
+	}
+
+	private static JAXBContext createJAXBContext( final Class<?>[] contextClasses ) {
 		try {
-			final Class<?>[] contextClasses = StdXmlClassesProvider.getXmlDataClasses( additionalClazzes );
 			return JAXBContextFactory.createContext( contextClasses, Collections.emptyMap() );
 		} catch ( final JAXBException e ) {
 			throw new RuntimeException( e );
@@ -7,6 +7,9 @@ import static de.retest.recheck.util.FileUtil.writeToFile;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
@@ -18,7 +21,9 @@ import org.slf4j.LoggerFactory;
 import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.persistence.Persistable;
 import de.retest.recheck.persistence.Persistence;
+import de.retest.recheck.persistence.ProjectLayout;
 import de.retest.recheck.persistence.xml.util.LazyScreenshotZipPersistence;
+import de.retest.recheck.persistence.xml.util.ScreenshotStore;
 import de.retest.recheck.util.FileUtil;
 import de.retest.recheck.util.NamedBufferedInputStream;
 
@@ -26,12 +31,47 @@ public class XmlZipPersistence<T extends Persistable> implements Persistence<T>
 
 	private static final Logger logger = LoggerFactory.getLogger( XmlZipPersistence.class );
 
-	private static final int COMPRESSION_LEVEL = 9;
-
 	private final XmlTransformer xml;
+	private final int compressionLevel;
+	private final boolean storeScreenshots;
+	private final ProjectLayout projectLayout;
 
 	public XmlZipPersistence( final XmlTransformer xml ) {
+		this( xml, null );
+	}
+
+	/**
+	 * @param xml
+	 *            the transformer of the XML
+	 * @param projectLayout
+	 *            the layout locating the screenshot store, {@code null} to use the detected layout
+	 */
+	public XmlZipPersistence( final XmlTransformer xml, final ProjectLayout projectLayout ) {
+		this( xml, RecheckProperties.getInstance().zipCompressionLevel(),
+				RecheckProperties.getInstance().zipStoreScreenshots(), projectLayout );
+	}
+
+	/**
+	 * @param xml
+	 *            the transformer of the XML
+	 * @param compressionLevel
+	 *            the deflate level of the XML, from 0 to 9, or -1 for the default level
+	 * @param storeScreenshots
+	 *            {@code true} if screenshots should be stored without compression
+	 */
+	public XmlZipPersistence( final XmlTransformer xml, final int compressionLevel, final boolean storeScreenshots ) {
+		this( xml, compressionLevel, storeScreenshots, null );
+	}
+
+	private XmlZipPersistence( final XmlTransformer xml, final int compressionLevel, final boolean storeScreenshots,
+			final ProjectLayout projectLayout ) {
+		if ( compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION ) {
+			throw new IllegalArgumentException( "Invalid compression level " + compressionLevel + "." );
+		}
 		this.xml = xml;
+		this.compressionLevel = compressionLevel;
+		this.storeScreenshots = storeScreenshots;
+		this.projectLayout = projectLayout;
 	}
 
 	@Override
@@ -39,31 +79,35 @@ public class XmlZipPersistence<T extends Persistable> implements Persistence<T>
 		final File file = new File( identifier );
 		final ReTestXmlDataContainer<T> container = new ReTestXmlDataContainer<>( element );
 
-		final LazyScreenshotZipPersistence screenshotPersistence = new LazyScreenshotZipPersistence();
+		final LazyScreenshotZipPersistence screenshotPersistence = createScreenshotPersistence( file );
 
-		if ( file.isDirectory() ) {
-			// this happens if output format was changed from plain to zip
-			FileUtils.deleteDirectory( file );
-		}
 		FileUtil.ensureFolder( file );
 
-		writeToFile( file, out -> {
+		// Screenshots of a loaded Golden Master are read lazily, possibly from the file that is overwritten.
+		final File tempFile = new File( file.getParentFile(), file.getName() + ".tmp" );
+		writeToFile( tempFile, out -> {
 			final ZipOutputStream zout = new ZipOutputStream( out );
-			zout.setLevel( COMPRESSION_LEVEL );
+			zout.setLevel( compressionLevel );
 			zout.putNextEntry( new ZipEntry( RecheckProperties.DEFAULT_XML_FILE_NAME ) );
 			xml.toXML( container, zout, screenshotPersistence.getMarshallListener() );
 			logger.debug( "XML saved, now saving screenshots..." );
-			screenshotPersistence.saveScreenshotsNow( zout );
-			logger.debug( "Save to '{}' completed.", identifier );
+			screenshotPersistence.saveScreenshotsNow( zout, storeScreenshots );
 			zout.close();
 		} );
+
+		if ( file.isDirectory() ) {
+			// this happens if output format was changed from plain to zip
+			FileUtils.deleteDirectory( file );
+		}
+		Files.move( tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+		logger.debug( "Save to '{}' completed.", identifier );
 	}
 
 	@Override
 	public T load( final URI identifier ) throws IOException {
 		final File file = new File( identifier );
 
-		final LazyScreenshotZipPersistence screenshotPersistence = new LazyScreenshotZipPersistence();
+		final LazyScreenshotZipPersistence screenshotPersistence = createScreenshotPersistence( file );
 
 		final ReTestXmlDataContainer<T> container = readFromZipFile( file, zipFile -> {
 
@@ -82,6 +126,11 @@ public class XmlZipPersistence<T extends Persistable> implements Persistence<T>
 		return container.data();
 	}
 
+	private LazyScreenshotZipPersistence createScreenshotPersistence( final File file ) {
+		return new LazyScreenshotZipPersistence( ScreenshotStore.forGoldenMaster( file, projectLayout ),
+				RecheckProperties.getInstance().screenshotStoreEnabled() );
+	}
+
 	NamedBufferedInputStream getReTestXmlInStream( final ZipFile zipFile ) throws IOException {
 		final ZipEntry entry = zipFile.getEntry( DEFAULT_XML_FILE_NAME );
 		if ( entry == null ) {
@@ -6,9 +6,11 @@ import static de.retest.recheck.RecheckProperties.ZIP_FOLDER_SEPARATOR;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
@@ -21,6 +23,7 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 
 import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.BinaryDataLoader;
 import de.retest.recheck.util.ReflectionUtilities;
 import jakarta.xml.bind.Marshaller;
 import jakarta.xml.bind.Unmarshaller;
@@ -33,6 +36,24 @@ public class LazyScreenshotZipPersistence {
 	final List<Screenshot> screenshots = new CopyOnWriteArrayList<>();
 	final Multimap<Screenshot, Object> screenshotParentMap = ArrayListMultimap.create();
 
+	private final ScreenshotStore store;
+	private final boolean saveToStore;
+
+	public LazyScreenshotZipPersistence() {
+		this( null, false );
+	}
+
+	/**
+	 * @param store
+	 *            the store to load screenshots from, if present there, may be {@code null}
+	 * @param saveToStore
+	 *            {@code true} if screenshots should be saved to the store instead of the ZIP file
+	 */
+	public LazyScreenshotZipPersistence( final ScreenshotStore store, final boolean saveToStore ) {
+		this.store = store;
+		this.saveToStore = store != null && saveToStore;
+	}
+
 	public Marshaller.Listener getMarshallListener() {
 		return new Marshaller.Listener() {
 			@Override
@@ -45,22 +66,43 @@ public class LazyScreenshotZipPersistence {
 	}
 
 	public void saveScreenshotsNow( final ZipOutputStream zout ) {
-		final List<String> beforePersistedIds = new ArrayList<>();
+		saveScreenshotsNow( zout, false );
+	}
+
+	/**
+	 * @param zout
+	 *            the ZIP file to save the screenshots to
+	 * @param stored
+	 *            {@code true} if the screenshots should be saved without compression, which is much faster and hardly
+	 *            enlarges PNG images, as they are compressed already
+	 */
+	public void saveScreenshotsNow( final ZipOutputStream zout, final boolean stored ) {
+		final Set<String> beforePersistedIds = new HashSet<>();
 		for ( final Screenshot screenshot : screenshots ) {
-			if ( beforePersistedIds.contains( screenshot.getPersistenceId() ) ) {
+			if ( !beforePersistedIds.add( screenshot.getPersistenceId() ) ) {
 				logger.debug( "Image already persisted (duplicate): {}", screenshot.getPersistenceId() );
+			} else if ( saveToStore ) {
+				saveScreenshotToStore( screenshot );
 			} else {
-				saveScreenshot( zout, screenshot );
-				beforePersistedIds.add( screenshot.getPersistenceId() );
+				saveScreenshot( zout, screenshot, stored );
 			}
 		}
 	}
 
-	private void saveScreenshot( final ZipOutputStream zout, final Screenshot screenshot ) {
-		if ( screenshot.getBinaryData() != null ) {
+	private void saveScreenshotToStore( final Screenshot screenshot ) {
+		try {
+			store.save( screenshot );
+		} catch ( final IOException e ) {
+			logger.error( "Error writing {} to screenshot store: {}", screenshot, e.getMessage() );
+		}
+	}
+
+	private void saveScreenshot( final ZipOutputStream zout, final Screenshot screenshot, final boolean stored ) {
+		final byte[] binaryData = screenshot.getBinaryData();
+		if ( binaryData != null ) {
 			try {
-				zout.putNextEntry( new ZipEntry( createFilePath( screenshot ) ) );
-				zout.write( screenshot.getBinaryData() );
+				zout.putNextEntry( createEntry( createFilePath( screenshot ), binaryData, stored ) );
+				zout.write( binaryData );
 			} catch ( final IOException e ) {
 				logger.error( "Error writing entry {} to zip file: {}.", screenshot, e.getMessage() );
 			}
@@ -69,6 +111,20 @@ public class LazyScreenshotZipPersistence {
 		}
 	}
 
+	private static ZipEntry createEntry( final String path, final byte[] binaryData, final boolean stored ) {
+		final ZipEntry entry = new ZipEntry( path );
+		if ( stored ) {
+			// Stored entries must be described up front, as there is no data descriptor.
+			final CRC32 crc = new CRC32();
+			crc.update( binaryData );
+			entry.setMethod( ZipEntry.STORED );
+			entry.setSize( binaryData.length );
+			entry.setCompressedSize( binaryData.length );
+			entry.setCrc( crc.getValue() );
+		}
+		return entry;
+	}
+
 	public Unmarshaller.Listener getUnmarshallListener() {
 		return new Unmarshaller.Listener() {
 			@Override
@@ -81,14 +137,26 @@ public class LazyScreenshotZipPersistence {
 		};
 	}
 
+	/**
+	 * Registers the data of all unmarshalled screenshots, which is only read from the store or the ZIP file when it is
+	 * needed. Screenshots without data are removed.
+	 *
+	 * @param zipFile
+	 *            the ZIP file the screenshots were unmarshalled from
+	 * @throws IOException
+	 *             if the ZIP file cannot be read
+	 */
 	public void loadScreenshotsNow( final ZipFile zipFile ) throws IOException {
+		final File file = new File( zipFile.getName() );
 		for ( final Screenshot screenshot : screenshots ) {
 			final String path = createFilePath( screenshot );
-			try {
-				final ZipEntry entry = zipFile.getEntry( path );
-				final InputStream in = zipFile.getInputStream( entry );
-				screenshot.setBinaryData( IOUtils.toByteArray( in ) );
-			} catch ( final Exception exc ) {
+			final BinaryDataLoader storeLoader = store == null ? null
+					: store.getBinaryDataLoader( screenshot.getKnownSha256(), screenshot.getType() );
+			if ( storeLoader != null ) {
+				screenshot.setBinaryDataLoader( storeLoader );
+			} else if ( zipFile.getEntry( path ) != null ) {
+				screenshot.setBinaryDataLoader( () -> loadScreenshot( file, path ) );
+			} else {
 				logger.warn( "Could not load screenshot '{}' from {}.", path, zipFile.getName() );
 				for ( final Object parent : screenshotParentMap.get( screenshot ) ) {
 					ReflectionUtilities.setChildInParentToNull( parent, screenshot );
@@ -97,6 +165,18 @@ public class LazyScreenshotZipPersistence {
 		}
 	}
 
+	private static byte[] loadScreenshot( final File file, final String path ) throws IOException {
+		try ( final ZipFile zipFile = new ZipFile( file ) ) {
+			final ZipEntry entry = zipFile.getEntry( path );
+			if ( entry == null ) {
+				throw new IOException( "Missing entry '" + path + "' in " + file + "." );
+			}
+			try ( final InputStream in = zipFile.getInputStream( entry ) ) {
+				return IOUtils.toByteArray( in );
+			}
+		}
+	}
+
 	protected static String createFilePath( final Screenshot screenshot ) {
 		return SCREENSHOT_FOLDER_NAME + ZIP_FOLDER_SEPARATOR + new File( screenshot.getPersistenceId() ).getName() + "."
 				+ screenshot.getType().getFileExtension();
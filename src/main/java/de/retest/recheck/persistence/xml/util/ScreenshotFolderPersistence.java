@@ -1,7 +1,7 @@
 package de.retest.recheck.persistence.xml.util;
 
 import static de.retest.recheck.RecheckProperties.SCREENSHOT_FOLDER_NAME;
-import static de.retest.recheck.util.FileUtil.tryReadFromFile;
+import static de.retest.recheck.util.FileUtil.canonicalPathQuietly;
 import static de.retest.recheck.util.FileUtil.tryWriteToFile;
 
 import java.io.File;
@@ -9,24 +9,58 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import de.retest.recheck.RecheckProperties;
+import de.retest.recheck.persistence.ProjectLayout;
 import de.retest.recheck.ui.image.Screenshot;
-import de.retest.recheck.util.FileUtil.Reader;
-import de.retest.recheck.util.NamedBufferedInputStream;
+import de.retest.recheck.ui.image.Screenshot.BinaryDataLoader;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
 import de.retest.recheck.util.ReflectionUtilities;
 import jakarta.xml.bind.Marshaller;
 import jakarta.xml.bind.Unmarshaller;
 
 public class ScreenshotFolderPersistence {
 
+	private static final Logger logger = LoggerFactory.getLogger( ScreenshotFolderPersistence.class );
+
 	private final File screenshotFolder;
+	private final ScreenshotStore store;
+	private final boolean saveToStore;
 	boolean prepared;
 
 	private final Map<Object, Screenshot> parentsWithIncorrectScreenshots = new HashMap<>();
 
 	public ScreenshotFolderPersistence( final File baseFolder ) {
+		this( baseFolder, null );
+	}
+
+	/**
+	 * @param baseFolder
+	 *            the folder of the Golden Master
+	 * @param layout
+	 *            the layout locating the store, {@code null} to use the detected layout
+	 */
+	public ScreenshotFolderPersistence( final File baseFolder, final ProjectLayout layout ) {
+		this( baseFolder, ScreenshotStore.forGoldenMaster( baseFolder, layout ),
+				RecheckProperties.getInstance().screenshotStoreEnabled() );
+	}
+
+	/**
+	 * @param baseFolder
+	 *            the folder of the Golden Master
+	 * @param store
+	 *            the store to load screenshots from, if present there
+	 * @param saveToStore
+	 *            {@code true} if screenshots should be saved to the store instead of the Golden Master
+	 */
+	public ScreenshotFolderPersistence( final File baseFolder, final ScreenshotStore store,
+			final boolean saveToStore ) {
 		screenshotFolder = new File( baseFolder, SCREENSHOT_FOLDER_NAME );
+		this.store = store;
+		this.saveToStore = saveToStore;
 		prepared = false;
 	}
 
@@ -38,7 +72,11 @@ public class ScreenshotFolderPersistence {
 	}
 
 	protected static String createFileName( final Screenshot screenshot ) {
-		return new File( screenshot.getPersistenceId() ).getName() + "." + screenshot.getType().getFileExtension();
+		return createFileName( screenshot.getPersistenceId(), screenshot.getType() );
+	}
+
+	private static String createFileName( final String persistenceId, final ImageType type ) {
+		return new File( persistenceId ).getName() + "." + type.getFileExtension();
 	}
 
 	public Marshaller.Listener getMarshallListener() {
@@ -46,19 +84,29 @@ public class ScreenshotFolderPersistence {
 			@Override
 			public void afterMarshal( final Object source ) {
 				if ( source instanceof Screenshot ) {
-					if ( !prepared ) {
-						prepare();
-					}
 					saveScreenshot( (Screenshot) source );
 				}
 			}
 		};
 	}
 
-	private void saveScreenshot( final Screenshot screenshot ) {
+	public void saveScreenshot( final Screenshot screenshot ) {
+		if ( saveToStore ) {
+			try {
+				store.save( screenshot );
+			} catch ( final IOException e ) {
+				logger.error( "Error writing {} to screenshot store: {}", screenshot, e.getMessage() );
+			}
+			return;
+		}
+		if ( !prepared ) {
+			prepare();
+		}
 		final File file = new File( screenshotFolder, createFileName( screenshot ) );
+		// Load the data first, as it might be read lazily from the very same file.
+		final byte[] binaryData = screenshot.getBinaryData();
 
-		tryWriteToFile( file, out -> out.write( screenshot.getBinaryData() ) );
+		tryWriteToFile( file, out -> out.write( binaryData ) );
 	}
 
 	public Unmarshaller.Listener getUnmarshallListener() {
@@ -76,19 +124,42 @@ public class ScreenshotFolderPersistence {
 		};
 	}
 
-	private static final class ToByteArrayReader implements Reader<byte[]> {
-		@Override
-		public byte[] read( final NamedBufferedInputStream in ) throws IOException {
-			return IOUtils.toByteArray( in );
+	private boolean loadScreenshot( final Screenshot screenshot ) {
+		final BinaryDataLoader loader =
+				getBinaryDataLoader( screenshot.getPersistenceId(), screenshot.getType(), screenshot.getKnownSha256() );
+		if ( loader == null ) {
+			return false;
 		}
+		screenshot.setBinaryDataLoader( loader );
+		return true;
 	}
 
-	private boolean loadScreenshot( final Screenshot screenshot ) {
-		final File file = new File( screenshotFolder, createFileName( screenshot ) );
-
-		final byte[] binaryData = tryReadFromFile( file, new ToByteArrayReader() );
+	/**
+	 * @param persistenceId
+	 *            the persistence ID of the screenshot to load
+	 * @param type
+	 *            the type of the screenshot to load
+	 * @param sha256
+	 *            the persisted SHA-256 hash of the screenshot, {@code null} if unknown
+	 * @return the screenshot, whose data is loaded on demand, or {@code null} if there is no data
+	 */
+	public Screenshot loadScreenshot( final String persistenceId, final ImageType type, final String sha256 ) {
+		final BinaryDataLoader loader = getBinaryDataLoader( persistenceId, type, sha256 );
+		return loader == null ? null : new Screenshot( persistenceId, type, sha256, loader );
+	}
 
-		screenshot.setBinaryData( binaryData );
-		return binaryData != null;
+	private BinaryDataLoader getBinaryDataLoader( final String persistenceId, final ImageType type,
+			final String sha256 ) {
+		// The store is preferred, as its data is guaranteed to match the hash.
+		final BinaryDataLoader storeLoader = store.getBinaryDataLoader( sha256, type );
+		if ( storeLoader != null ) {
+			return storeLoader;
+		}
+		final File file = new File( screenshotFolder, createFileName( persistenceId, type ) );
+		if ( !file.isFile() ) {
+			logger.warn( "Could not find screenshot '{}', ignoring it.", canonicalPathQuietly( file ) );
+			return null;
+		}
+		return () -> FileUtils.readFileToByteArray( file );
 	}
 }
@@ -0,0 +1,256 @@
+package de.retest.recheck.persistence.xml.util;
+
+import static de.retest.recheck.RecheckProperties.DEFAULT_BINARY_FILE_NAME;
+import static de.retest.recheck.RecheckProperties.DEFAULT_XML_FILE_NAME;
+import static de.retest.recheck.RecheckProperties.GOLDEN_MASTER_FILE_EXTENSION;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.retest.recheck.persistence.ProjectLayout;
+import de.retest.recheck.persistence.ProjectLayouts;
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.BinaryDataLoader;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
+
+/**
+ * Stores the data of screenshots once per content, named by its SHA-256 hash, so that Golden Masters can share
+ * identical screenshots. Golden Masters reference the data by the hash persisted along with each screenshot.
+ *
+ * <pre>
+ * ${GOLDEN_MASTER_ROOT}
+ * +- .screenshots
+ *    +- 81
+ *       +- 810ff2fb...1f50.png
+ * +- com.example.Test
+ *    +- check.recheck
+ * </pre>
+ *
+ * Data that is no longer referenced by any Golden Master can be removed via {@link #collectGarbage()}.
+ */
+public class ScreenshotStore {
+
+	private static final Logger logger = LoggerFactory.getLogger( ScreenshotStore.class );
+
+	public static final String STORE_FOLDER_NAME = ".screenshots";
+
+	private static final Pattern SHA256 = Pattern.compile( "[0-9a-f]{64}" );
+
+	private final File root;
+	private final File folder;
+
+	/**
+	 * @param root
+	 *            the folder containing all Golden Masters that share this store
+	 */
+	public ScreenshotStore( final File root ) {
+		this.root = root;
+		folder = new File( root, STORE_FOLDER_NAME );
+	}
+
+	/**
+	 * @param goldenMaster
+	 *            the Golden Master, either a folder or a ZIP file
+	 * @return the store of the detected {@link ProjectLayout}, see {@link #forGoldenMaster(File, ProjectLayout)}
+	 */
+	public static ScreenshotStore forGoldenMaster( final File goldenMaster ) {
+		return forGoldenMaster( goldenMaster, null );
+	}
+
+	/**
+	 * @param goldenMaster
+	 *            the Golden Master, either a folder or a ZIP file
+	 * @param layout
+	 *            the layout the Golden Master was created with, {@code null} to use the detected layout
+	 * @return the store in the parent of the suite folders of the given layout, if the Golden Master lies in one of
+	 *         them, or otherwise the store of the parent folder of the Golden Master
+	 */
+	public static ScreenshotStore forGoldenMaster( final File goldenMaster, final ProjectLayout layout ) {
+		final File parent = goldenMaster.getAbsoluteFile().getParentFile();
+		final ProjectLayout projectLayout = layout != null ? layout : DetectedProjectLayout.INSTANCE;
+		if ( projectLayout != null && parent != null ) {
+			final Path suiteFolder = projectLayout.getSuiteFolder( parent.getName() ).toAbsolutePath().normalize();
+			if ( suiteFolder.equals( parent.toPath().normalize() ) && suiteFolder.getParent() != null ) {
+				return new ScreenshotStore( suiteFolder.getParent().toFile() );
+			}
+		}
+		return new ScreenshotStore( parent );
+	}
+
+	/**
+	 * Detects the layout only once and only if no layout is given, as detection searches the file system.
+	 */
+	private static class DetectedProjectLayout {
+
+		private static final ProjectLayout INSTANCE = detect();
+
+		private static ProjectLayout detect() {
+			try {
+				return ProjectLayouts.detect();
+			} catch ( final IllegalStateException e ) {
+				logger.debug( "No project layout detected, using the folder of the Golden Master.", e );
+				return null;
+			}
+		}
+	}
+
+	File getFile( final String sha256, final ImageType type ) {
+		return new File( new File( folder, sha256.substring( 0, 2 ) ), sha256 + "." + type.getFileExtension() );
+	}
+
+	/**
+	 * @param sha256
+	 *            the SHA-256 hash of the data, may be {@code null}
+	 * @param type
+	 *            the type of the screenshot
+	 * @return a loader for the stored data or {@code null} if the data is not stored
+	 */
+	public BinaryDataLoader getBinaryDataLoader( final String sha256, final ImageType type ) {
+		if ( !isValid( sha256 ) ) {
+			return null;
+		}
+		final File file = getFile( sha256, type );
+		if ( !file.isFile() ) {
+			return null;
+		}
+		return () -> FileUtils.readFileToByteArray( file );
+	}
+
+	/**
+	 * Stores the data of the given screenshot, unless data with the same content is stored already.
+	 *
+	 * @param screenshot
+	 *            the screenshot to store
+	 * @throws IOException
+	 *             if the data cannot be written
+	 */
+	public void save( final Screenshot screenshot ) throws IOException {
+		final String sha256 = screenshot.getSha256();
+		if ( !isValid( sha256 ) ) {
+			logger.warn( "Found screenshot without data! {}", screenshot );
+			return;
+		}
+		final File file = getFile( sha256, screenshot.getType() );
+		if ( file.isFile() ) {
+			logger.debug( "Screenshot data already stored: {}", file );
+			return;
+		}
+		final File parent = file.getParentFile();
+		parent.mkdirs();
+		// Write to a temporary file first, so that concurrent readers never see partial data.
+		final Path temp = Files.createTempFile( parent.toPath(), sha256, ".tmp" );
+		try {
+			Files.write( temp, screenshot.getBinaryData() );
+			Files.move( temp, file.toPath(), StandardCopyOption.ATOMIC_MOVE );
+		} catch ( final FileAlreadyExistsException e ) {
+			logger.debug( "Screenshot data concurrently stored: {}", file );
+		} finally {
+			Files.deleteIfExists( temp );
+		}
+	}
+
+	/**
+	 * Removes the data that is not referenced by any Golden Master below the root of this store. Must not be called
+	 * while Golden Masters are saved.
+	 *
+	 * @return the number of removed files
+	 * @throws IOException
+	 *             if the Golden Masters cannot be read
+	 */
+	public int collectGarbage() throws IOException {
+		return collectGarbage( findReferencedSha256s() );
+	}
+
+	/**
+	 * @param referencedSha256s
+	 *            the SHA-256 hashes of the data to keep
+	 * @return the number of removed files
+	 * @throws IOException
+	 *             if the store cannot be read
+	 */
+	public int collectGarbage( final Set<String> referencedSha256s ) throws IOException {
+		if ( !folder.isDirectory() ) {
+			return 0;
+		}
+		final List<Path> unreferenced;
+		try ( final Stream<Path> files = Files.walk( folder.toPath() ) ) {
+			unreferenced = files.filter( Files::isRegularFile ) //
+					.filter( file -> !referencedSha256s.contains( getSha256( file ) ) ) //
+					.collect( Collectors.toList() );
+		}
+		for ( final Path file : unreferenced ) {
+			logger.debug( "Removing unreferenced screenshot data {}.", file );
+			Files.delete( file );
+		}
+		return unreferenced.size();
+	}
+
+	private static String getSha256( final Path file ) {
+		final String name = file.getFileName().toString();
+		final int extension = name.indexOf( '.' );
+		return extension < 0 ? name : name.substring( 0, extension );
+	}
+
+	/**
+	 * Finds the hashes referenced by the Golden Masters below the root of this store. Any SHA-256 hash that occurs in a
+	 * Golden Master file counts as a reference, which may keep some data longer than needed, but never removes data
+	 * that is still needed.
+	 */
+	Set<String> findReferencedSha256s() throws IOException {
+		final Set<String> result = new HashSet<>();
+		try ( final Stream<Path> files = Files.walk( root.toPath() ) ) {
+			for ( final Path file : (Iterable<Path>) files.filter( Files::isRegularFile )::iterator ) {
+				final String name = file.getFileName().toString();
+				if ( name.equals( DEFAULT_XML_FILE_NAME ) || name.equals( DEFAULT_BINARY_FILE_NAME ) ) {
+					addSha256s( Files.readAllBytes( file ), result );
+				} else if ( name.endsWith( GOLDEN_MASTER_FILE_EXTENSION ) ) {
+					addSha256sOfZip( file.toFile(), result );
+				}
+			}
+		}
+		return result;
+	}
+
+	private static void addSha256sOfZip( final File file, final Set<String> result ) throws IOException {
+		try ( final ZipFile zipFile = new ZipFile( file ) ) {
+			final ZipEntry entry = zipFile.getEntry( DEFAULT_XML_FILE_NAME );
+			if ( entry != null ) {
+				try ( final InputStream in = zipFile.getInputStream( entry ) ) {
+					addSha256s( IOUtils.toByteArray( in ), result );
+				}
+			}
+		}
+	}
+
+	private static void addSha256s( final byte[] content, final Set<String> result ) {
+		// Hashes are plain ASCII, both in XML and in the string table of the binary format.
+		final Matcher matcher = SHA256.matcher( new String( content, StandardCharsets.ISO_8859_1 ) );
+		while ( matcher.find() ) {
+			result.add( matcher.group() );
+		}
+	}
+
+	private static boolean isValid( final String sha256 ) {
+		return sha256 != null && SHA256.matcher( sha256 ).matches();
+	}
+}
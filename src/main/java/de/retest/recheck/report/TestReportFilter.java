@@ -6,6 +6,8 @@ import static java.util.stream.Collectors.toList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 import de.retest.recheck.NoGoldenMasterActionReplayResult;
 import de.retest.recheck.ignore.Filter;
@@ -22,20 +24,38 @@ import de.retest.recheck.ui.diff.RootElementDifference;
 import de.retest.recheck.ui.diff.StateDifference;
 import de.retest.recheck.ui.diff.meta.MetadataDifference;
 import de.retest.recheck.util.OptionalUtil;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
-@RequiredArgsConstructor
+@Slf4j
 public class TestReportFilter {
 
 	private final MetadataDifferenceFilter metadataDiffFilter = new MetadataDifferenceFilter();
 
 	private final Filter filter;
+	private final boolean parallel;
+
+	public TestReportFilter( final Filter filter ) {
+		this( filter, false );
+	}
+
+	/**
+	 * @param filter
+	 *            the filter to apply
+	 * @param parallel
+	 *            if suites, tests and actions should be filtered in parallel (keeping their order), which requires the
+	 *            filter to be thread-safe (see {@link Filter#isThreadSafe()})
+	 */
+	public TestReportFilter( final Filter filter, final boolean parallel ) {
+		this.filter = filter;
+		this.parallel = parallel && filter.isThreadSafe();
+		if ( parallel && !this.parallel ) {
+			log.warn( "Filtering sequentially, since filter '{}' is not thread-safe.", filter );
+		}
+	}
 
 	public TestReport filter( final TestReport report ) {
 		final TestReport newTestReport = new TestReport();
-		for ( final SuiteReplayResult suiteReplayResult : report.getSuiteReplayResults() ) {
-			newTestReport.addSuite( filter( suiteReplayResult ) );
-		}
+		map( report.getSuiteReplayResults(), this::filter ).forEach( newTestReport::addSuite );
 		return newTestReport;
 	}
 
@@ -46,21 +66,23 @@ public class TestReportFilter {
 				suiteReplayResult.getTestSourceRoot().orElse( null ), suiteReplayResult.getSuiteNr(),
 				suiteReplayResult.getExecSuiteSutVersion(), suiteReplayResult.getSuiteUuid(),
 				suiteReplayResult.getReplaySutVersion() );
-		for ( final TestReplayResult testReplayResult : suiteReplayResult.getTestReplayResults() ) {
-			newSuiteReplayResult.addTest( filter( testReplayResult ) );
-		}
+		map( suiteReplayResult.getTestReplayResults(), this::filter ).forEach( newSuiteReplayResult::addTest );
 		return newSuiteReplayResult;
 	}
 
 	public TestReplayResult filter( final TestReplayResult testReplayResult ) {
 		final TestReplayResult newTestReplayResult =
 				new TestReplayResult( testReplayResult.getName(), testReplayResult.getTestNr() );
-		for ( final ActionReplayResult actionReplayResult : testReplayResult.getActionReplayResults() ) {
-			newTestReplayResult.addAction( filter( actionReplayResult ) );
-		}
+		map( testReplayResult.getActionReplayResults(), this::filter ).forEach( newTestReplayResult::addAction );
 		return newTestReplayResult;
 	}
 
+	private <T> List<T> map( final List<T> results, final UnaryOperator<T> filter ) {
+		final Stream<T> stream = parallel ? results.parallelStream() : results.stream();
+		// Collecting keeps the order of the results, even if filtered in parallel.
+		return stream.map( filter ).collect( toList() );
+	}
+
 	public ActionReplayResult filter( final ActionReplayResult actionReplayResult ) {
 		if ( actionReplayResult instanceof NoGoldenMasterActionReplayResult ) {
 			return actionReplayResult;
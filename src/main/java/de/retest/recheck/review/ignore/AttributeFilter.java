@@ -16,10 +16,12 @@ import de.retest.recheck.review.ignore.io.InheritanceLoader;
 import de.retest.recheck.review.ignore.io.Loader;
 import de.retest.recheck.review.ignore.io.RegexLoader;
 import de.retest.recheck.ui.descriptors.Element;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 public class AttributeFilter implements Filter {
 
+	@Getter
 	private final String attribute;
 
 	public AttributeFilter( final String attribute ) {
@@ -36,6 +38,11 @@ public class AttributeFilter implements Filter {
 		return attributeKey.equals( attribute );
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		return String.format( AttributeFilterLoader.FORMAT, attribute );
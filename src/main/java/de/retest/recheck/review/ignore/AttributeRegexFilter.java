@@ -28,6 +28,11 @@ public class AttributeRegexFilter implements Filter {
 		return attributePattern.matcher( attributeKey ).matches();
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		return String.format( AttributeRegexFilterLoader.FORMAT, attributePattern.toString() );
@@ -53,6 +53,11 @@ public class ColorDiffFilter implements Filter {
 		return distance < colorDiff;
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	/**
 	 * Return the color distance as a value in the range of [0.0, 1.0]. Note this is about perception: any one of the
 	 * rgba values is reviewed in isolation, as a change from e.g. white to red or green to yellow already constitutes a
@@ -44,6 +44,11 @@ public class ExcludeFilter implements Filter {
 		return !filter.matches( element, attributeDifference );
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return filter.isThreadSafe();
+	}
+
 	@Override
 	public String toString() {
 		return String.format( FilterLoader.FORMAT, filter );
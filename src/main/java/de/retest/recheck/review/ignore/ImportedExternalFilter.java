@@ -35,6 +35,11 @@ public class ImportedExternalFilter implements Filter {
 		return loaded.matches( element, attributeDifference );
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return loaded.isThreadSafe();
+	}
+
 	@Override
 	public String toString() {
 		return String.format( ImportExternalFilterLoader.FORMAT, reference );
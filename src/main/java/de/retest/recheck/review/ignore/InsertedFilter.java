@@ -28,6 +28,11 @@ public class InsertedFilter implements Filter {
 		return false;
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		return InsertedFilterLoader.KEY;
@@ -25,9 +25,11 @@ import de.retest.recheck.review.ignore.io.Loaders;
 import de.retest.recheck.review.ignore.io.RegexLoader;
 import de.retest.recheck.review.ignore.matcher.Matcher;
 import de.retest.recheck.ui.descriptors.Element;
+import lombok.Getter;
 
 public class MatcherFilter implements Filter {
 
+	@Getter
 	private final Matcher<Element> matcher;
 
 	public MatcherFilter( final Matcher<Element> matcher ) {
@@ -43,6 +45,11 @@ public class MatcherFilter implements Filter {
 		return parent != null && matches( parent );
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		return MatcherFilterLoader.MATCHER + matcher.toString();
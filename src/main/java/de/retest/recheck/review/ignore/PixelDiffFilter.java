@@ -65,6 +65,11 @@ public class PixelDiffFilter implements Filter {
 		return false;
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	private boolean checkRectangle( final Rectangle expected, final Rectangle actual ) {
 		final boolean filterX = Math.abs( expected.x - actual.x ) <= pixelDiff;
 		final boolean filterY = Math.abs( expected.y - actual.y ) <= pixelDiff;
@@ -39,6 +39,11 @@ public class ValueRegexFilter implements Filter {
 		return matcher.matches();
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		return String.format( ValueRegexFilterLoader.FORMAT, pattern );
@@ -10,11 +10,13 @@ import java.util.stream.Collectors;
 
 import de.retest.recheck.review.ignore.io.RegexLoader;
 import de.retest.recheck.ui.descriptors.Element;
+import lombok.Getter;
 
 public class ElementClassMatcher implements Matcher<Element> {
 
 	public static final String CLASS_KEY = "class";
 
+	@Getter
 	private final List<String> classes;
 
 	public ElementClassMatcher( final Element element ) {
@@ -6,9 +6,11 @@ import java.util.regex.Pattern;
 
 import de.retest.recheck.review.ignore.io.RegexLoader;
 import de.retest.recheck.ui.descriptors.Element;
+import lombok.Getter;
 
 public class ElementTypeMatcher implements Matcher<Element> {
 
+	@Getter
 	private final String type;
 
 	public ElementTypeMatcher( final Element element ) {
@@ -20,4 +20,16 @@ public interface DefaultValueFinder {
 	 */
 	boolean isDefaultValue( final IdentifyingAttributes identifyingAttributes, final String attributeKey,
 			Serializable attributeValue );
+
+	/**
+	 * Returns {@code true} if this finder may be used by multiple threads at the same time, e.g. to find the
+	 * differences of multiple root elements concurrently (see
+	 * {@link de.retest.recheck.RecheckProperties#ROOT_ELEMENT_PARALLEL_PROPERTY_KEY}). Finders are not considered
+	 * thread-safe unless they declare so.
+	 *
+	 * @return {@code true} if this finder is thread-safe
+	 */
+	default boolean isThreadSafe() {
+		return false;
+	}
 }
@@ -296,6 +296,35 @@ public class Element implements Serializable, Comparable<Element> {
 		return hashCodeCache;
 	}
 
+	/**
+	 * Checks if this element and all of its contained elements are equal to the given element, including the
+	 * screenshots referenced by their attributes. As {@link #hashCode()} is cached and covers all contained elements,
+	 * changed elements are usually detected without traversing them.
+	 *
+	 * @param other
+	 *            the element to compare with
+	 * @return {@code true} if there cannot be any difference between both elements
+	 */
+	public boolean hasSameContent( final Element other ) {
+		if ( this == other ) {
+			return true;
+		}
+		return equals( other ) && haveSameScreenshots( this, other );
+	}
+
+	private static boolean haveSameScreenshots( final Element element, final Element other ) {
+		if ( !Objects.equals( element.attributes.get( Attributes.SCREENSHOT ),
+				other.attributes.get( Attributes.SCREENSHOT ) ) ) {
+			return false;
+		}
+		for ( int i = 0; i < element.containedElements.size(); i++ ) {
+			if ( !haveSameScreenshots( element.containedElements.get( i ), other.containedElements.get( i ) ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public String toString() {
 		return retestId;
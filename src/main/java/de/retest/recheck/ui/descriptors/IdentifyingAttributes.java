@@ -7,7 +7,6 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -15,7 +14,6 @@ import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 
-import de.retest.recheck.ignore.GloballyIgnoredAttributes;
 import de.retest.recheck.ui.Path;
 import de.retest.recheck.ui.PathElement;
 import de.retest.recheck.ui.diff.AttributeDifference;
@@ -53,6 +51,8 @@ public class IdentifyingAttributes implements Serializable, Comparable<Identifyi
 
 	private transient String parentPathCache;
 
+	private transient volatile IdentifyingAttributesFingerprint fingerprint;
+
 	protected IdentifyingAttributes() {
 		// Only for JAXB
 	}
@@ -155,28 +155,16 @@ public class IdentifyingAttributes implements Serializable, Comparable<Identifyi
 	}
 
 	public double match( final IdentifyingAttributes other ) {
-		double result = 0.0;
-		double unifyingFactor = 0.0;
-		final Set<Attribute> otherAttributes = new HashSet<>( other.attributes.values() );
-		for ( final Attribute attribute : attributes.values() ) {
-			final Attribute otherAttribute = other.getAttribute( attribute.getKey() );
-			otherAttributes.remove( otherAttribute );
-			if ( GloballyIgnoredAttributes.getInstance().shouldIgnoreAttribute( attribute.getKey() ) ) {
-				continue;
-			}
-			unifyingFactor += attribute.getWeight();
-			if ( otherAttribute != null ) {
-				result += attribute.getWeight() * attribute.match( otherAttribute );
-			}
-		}
-		for ( final Attribute attribute : otherAttributes ) {
-			unifyingFactor += attribute.getWeight();
-		}
-		if ( unifyingFactor == 0.0 ) {
-			throw new ArithmeticException( "Cannot divide with a unifying factor of 0.0" );
+		return getFingerprint().match( other.getFingerprint() );
+	}
+
+	private IdentifyingAttributesFingerprint getFingerprint() {
+		IdentifyingAttributesFingerprint result = fingerprint;
+		if ( result == null ) {
+			// Racy but safe, as the fingerprint is immutable and the same for every thread.
+			result = new IdentifyingAttributesFingerprint( attributes.values() );
+			fingerprint = result;
 		}
-		result = result / unifyingFactor;
-		assert result >= 0.0 && result <= 1.0 : "Match result " + result + " should be in [0,1].";
 		return result;
 	}
 
@@ -0,0 +1,235 @@
+package de.retest.recheck.ui.descriptors;
+
+import java.awt.Rectangle;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.retest.recheck.ignore.GloballyIgnoredAttributes;
+import de.retest.recheck.ui.Path;
+import de.retest.recheck.util.StringSimilarity;
+import de.retest.recheck.util.TextProfile;
+
+/**
+ * Immutable, precomputed form of {@link IdentifyingAttributes} that allows to compute
+ * {@link IdentifyingAttributes#match(IdentifyingAttributes)} without allocations and, for the attribute types known
+ * here, without virtual {@link Attribute#match(Attribute)} calls. Attributes are stored as parallel arrays sorted by key,
+ * so that two fingerprints can be matched by merging them.
+ *
+ * The result is exactly the same as matching the attributes directly. Attributes of unknown types (i.e. subclasses that
+ * may override {@link Attribute#match(Attribute)}) are matched by delegating to them.
+ */
+final class IdentifyingAttributesFingerprint {
+
+	private static final ConcurrentMap<String, Integer> keyIdsByKey = new ConcurrentHashMap<>();
+	private static final AtomicInteger nextKeyId = new AtomicInteger();
+
+	private static final byte GENERIC = 0;
+	private static final byte PATH = 1;
+	private static final byte STRING = 2;
+	private static final byte TEXT = 3;
+	private static final byte OUTLINE = 4;
+
+	private static final byte IS_PATH = 1;
+	private static final byte IS_STRING = 1 << 1;
+	private static final byte IS_TEXT = 1 << 2;
+	private static final byte IS_OUTLINE = 1 << 3;
+
+	private final int size;
+	private final int[] keyIds;
+	private final String[] keys;
+	private final double[] weights;
+	/**
+	 * How the attribute itself matches others, i.e. which {@link Attribute#match(Attribute)} implementation is used.
+	 */
+	private final byte[] kinds;
+	/**
+	 * Which types the attribute is an instance of, as needed when other attributes match it.
+	 */
+	private final byte[] types;
+	private final Attribute[] attributes;
+	/**
+	 * The string value or, for paths, the parent path.
+	 */
+	private final String[] values;
+	private final int[] valueHashes;
+	/**
+	 * Parent paths without brackets.
+	 */
+	private final String[] cleanPaths;
+	private final TextProfile[] textProfiles;
+	/**
+	 * Four values (x, y, width, height) per attribute.
+	 */
+	private final int[] outlines;
+
+	IdentifyingAttributesFingerprint( final Collection<Attribute> sortedAttributes ) {
+		size = sortedAttributes.size();
+		keyIds = new int[size];
+		keys = new String[size];
+		weights = new double[size];
+		kinds = new byte[size];
+		types = new byte[size];
+		attributes = new Attribute[size];
+		values = new String[size];
+		valueHashes = new int[size];
+		cleanPaths = new String[size];
+		textProfiles = new TextProfile[size];
+		outlines = new int[size * 4];
+		int index = 0;
+		for ( final Attribute attribute : sortedAttributes ) {
+			keyIds[index] = keyIdsByKey.computeIfAbsent( attribute.getKey(), key -> nextKeyId.getAndIncrement() );
+			keys[index] = attribute.getKey();
+			weights[index] = attribute.getWeight();
+			kinds[index] = kindOf( attribute );
+			types[index] = typesOf( attribute );
+			attributes[index] = attribute;
+			if ( attribute instanceof PathAttribute ) {
+				final Path parentPath = ((PathAttribute) attribute).getValue().getParentPath();
+				values[index] = parentPath == null ? "" : parentPath.toString();
+				cleanPaths[index] = StringSimilarity.removeBrackets( values[index] );
+			} else if ( attribute instanceof StringAttribute ) {
+				values[index] = ((StringAttribute) attribute).getValue();
+				if ( attribute instanceof TextAttribute ) {
+					textProfiles[index] = ((TextAttribute) attribute).getTextProfile();
+				}
+			} else if ( attribute instanceof OutlineAttribute ) {
+				final Rectangle outline = ((OutlineAttribute) attribute).getValue();
+				outlines[index * 4] = outline == null ? -1 : outline.x;
+				outlines[index * 4 + 1] = outline == null ? -1 : outline.y;
+				outlines[index * 4 + 2] = outline == null ? -1 : outline.width;
+				outlines[index * 4 + 3] = outline == null ? -1 : outline.height;
+			}
+			valueHashes[index] = Objects.hashCode( values[index] );
+			index++;
+		}
+	}
+
+	private static byte kindOf( final Attribute attribute ) {
+		final Class<?> type = attribute.getClass();
+		if ( type == PathAttribute.class ) {
+			return PATH;
+		}
+		if ( type == StringAttribute.class || type == SuffixAttribute.class || type == ContextAttribute.class ) {
+			return STRING;
+		}
+		if ( type == TextAttribute.class || type == WeightedTextAttribute.class || type == CodeLocAttribute.class ) {
+			return TEXT;
+		}
+		if ( type == OutlineAttribute.class ) {
+			return OUTLINE;
+		}
+		return GENERIC;
+	}
+
+	private static byte typesOf( final Attribute attribute ) {
+		byte result = 0;
+		if ( attribute instanceof PathAttribute ) {
+			result |= IS_PATH;
+		}
+		if ( attribute instanceof StringAttribute ) {
+			result |= IS_STRING;
+		}
+		if ( attribute instanceof TextAttribute ) {
+			result |= IS_TEXT;
+		}
+		if ( attribute instanceof OutlineAttribute ) {
+			result |= IS_OUTLINE;
+		}
+		return result;
+	}
+
+	/**
+	 * @see IdentifyingAttributes#match(IdentifyingAttributes)
+	 */
+	double match( final IdentifyingAttributesFingerprint other ) {
+		final GloballyIgnoredAttributes globallyIgnoredAttributes = GloballyIgnoredAttributes.getInstance();
+		double result = 0.0;
+		double unifyingFactor = 0.0;
+		double otherOnlyFactor = 0.0;
+		int index = 0;
+		int otherIndex = 0;
+		while ( index < size || otherIndex < other.size ) {
+			final int order = compareKeys( index, other, otherIndex );
+			if ( order > 0 ) {
+				// Attributes only present in other are never ignored.
+				otherOnlyFactor += other.weights[otherIndex++];
+				continue;
+			}
+			if ( !globallyIgnoredAttributes.shouldIgnoreAttribute( keys[index] ) ) {
+				unifyingFactor += weights[index];
+				if ( order == 0 ) {
+					result += weights[index] * match( index, other, otherIndex );
+				}
+			}
+			index++;
+			if ( order == 0 ) {
+				otherIndex++;
+			}
+		}
+		unifyingFactor += otherOnlyFactor;
+		if ( unifyingFactor == 0.0 ) {
+			throw new ArithmeticException( "Cannot divide with a unifying factor of 0.0" );
+		}
+		result = result / unifyingFactor;
+		assert result >= 0.0 && result <= 1.0 : "Match result " + result + " should be in [0,1].";
+		return result;
+	}
+
+	private int compareKeys( final int index, final IdentifyingAttributesFingerprint other, final int otherIndex ) {
+		if ( index == size ) {
+			return 1;
+		}
+		if ( otherIndex == other.size ) {
+			return -1;
+		}
+		if ( keyIds[index] == other.keyIds[otherIndex] ) {
+			return 0;
+		}
+		return keys[index].compareTo( other.keys[otherIndex] );
+	}
+
+	private double match( final int index, final IdentifyingAttributesFingerprint other, final int otherIndex ) {
+		final byte otherTypes = other.types[otherIndex];
+		switch ( kinds[index] ) {
+			case PATH:
+				if ( (otherTypes & IS_PATH) == 0 ) {
+					return Attribute.NO_MATCH;
+				}
+				if ( isEqualValue( index, other, otherIndex ) ) {
+					return Attribute.FULL_MATCH;
+				}
+				return StringSimilarity.cleanPathSimilarity( cleanPaths[index], other.cleanPaths[otherIndex] );
+			case STRING:
+				if ( (otherTypes & IS_STRING) == 0 ) {
+					return Attribute.NO_MATCH;
+				}
+				return isEqualValue( index, other, otherIndex ) ? Attribute.FULL_MATCH : Attribute.NO_MATCH;
+			case TEXT:
+				if ( (otherTypes & IS_TEXT) == 0 ) {
+					return Attribute.NO_MATCH;
+				}
+				if ( isEqualValue( index, other, otherIndex ) ) {
+					return Attribute.FULL_MATCH;
+				}
+				return StringSimilarity.textSimilarity( textProfiles[index], other.textProfiles[otherIndex] );
+			case OUTLINE:
+				if ( (otherTypes & IS_OUTLINE) == 0 ) {
+					return Attribute.NO_MATCH;
+				}
+				return OutlineAttribute.match( outlines[index * 4], outlines[index * 4 + 1], outlines[index * 4 + 2],
+						outlines[index * 4 + 3], other.outlines[otherIndex * 4], other.outlines[otherIndex * 4 + 1],
+						other.outlines[otherIndex * 4 + 2], other.outlines[otherIndex * 4 + 3] );
+			default:
+				return attributes[index].match( other.attributes[otherIndex] );
+		}
+	}
+
+	private boolean isEqualValue( final int index, final IdentifyingAttributesFingerprint other,
+			final int otherIndex ) {
+		return valueHashes[index] == other.valueHashes[otherIndex]
+				&& Objects.equals( values[index], other.values[otherIndex] );
+	}
+}
@@ -1,5 +1,6 @@
 package de.retest.recheck.ui.descriptors;
 
+import java.io.Serializable;
 import java.util.TreeMap;
 
 import de.retest.recheck.ui.image.Screenshot;
@@ -31,6 +32,10 @@ public class MutableAttributes {
 		attributes.put( name, criterion );
 	}
 
+	public void put( final String name, final Serializable criterion ) {
+		attributes.put( name, criterion );
+	}
+
 	public Object get( final String name ) {
 		return attributes.get( name );
 	}
@@ -83,17 +83,22 @@ public class OutlineAttribute extends Attribute {
 			return NO_MATCH;
 		}
 		final OutlineAttribute outline = (OutlineAttribute) other;
+		return match( x, y, width, height, outline.x, outline.y, outline.width, outline.height );
+	}
+
+	static double match( final int x, final int y, final int width, final int height, final int otherX,
+			final int otherY, final int otherWidth, final int otherHeight ) {
 		double result = 0.0;
-		result += match( x, outline.x, MAX_WIDHT ) / 4;
-		result += match( y, outline.y, MAX_HEIGHT ) / 4;
-		result += match( width, outline.width, MAX_WIDHT ) / 4;
-		result += match( height, outline.height, MAX_HEIGHT ) / 4;
+		result += match( x, otherX, MAX_WIDHT ) / 4;
+		result += match( y, otherY, MAX_HEIGHT ) / 4;
+		result += match( width, otherWidth, MAX_WIDHT ) / 4;
+		result += match( height, otherHeight, MAX_HEIGHT ) / 4;
 		assert result >= 0.0;
 		assert result <= 1.0;
 		return result;
 	}
 
-	private double match( final int value1, final int value2, final int maxDiff ) {
+	private static double match( final int value1, final int value2, final int maxDiff ) {
 		if ( value1 == value2 ) {
 			return FULL_MATCH;
 		}
@@ -20,7 +20,7 @@ import jakarta.xml.bind.annotation.XmlRootElement;
 public class SutState extends Persistable {
 
 	private static final long serialVersionUID = 1L;
-	private static final int PERSISTENCE_VERSION = 4;
+	public static final int PERSISTENCE_VERSION = 4;
 
 	@XmlElement
 	private final List<RootElement> descriptors;
@@ -3,6 +3,7 @@ package de.retest.recheck.ui.descriptors;
 import java.io.Serializable;
 
 import de.retest.recheck.util.StringSimilarity;
+import de.retest.recheck.util.TextProfile;
 import jakarta.xml.bind.annotation.XmlRootElement;
 
 @XmlRootElement
@@ -10,6 +11,8 @@ public class TextAttribute extends StringAttribute {
 
 	private static final long serialVersionUID = 1L;
 
+	private transient volatile TextProfile textProfile;
+
 	// Used by JaxB
 	protected TextAttribute() {}
 
@@ -27,7 +30,19 @@ public class TextAttribute extends StringAttribute {
 			return NO_MATCH;
 		}
 		assert other.getKey().equals( getKey() );
-		return StringSimilarity.textSimilarity( getValue(), ((StringAttribute) other).getValue() );
+		return StringSimilarity.textSimilarity( getTextProfile(), ((TextAttribute) other).getTextProfile() );
+	}
+
+	/**
+	 * @return the lazily created profile of the value, which makes repeated comparisons of the same text cheap
+	 */
+	TextProfile getTextProfile() {
+		TextProfile result = textProfile;
+		if ( result == null ) {
+			result = TextProfile.of( getValue() );
+			textProfile = result;
+		}
+		return result;
 	}
 
 	@Override
@@ -1,19 +1,25 @@
 package de.retest.recheck.ui.diff;
 
+import static de.retest.recheck.ui.descriptors.ElementUtil.flattenAllElements;
+import static de.retest.recheck.ui.descriptors.ElementUtil.flattenChildElements;
 import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.NavigableSet;
-import java.util.TreeSet;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.ui.descriptors.Element;
@@ -23,6 +29,12 @@ import lombok.extern.slf4j.Slf4j;
 public final class Alignment {
 
 	static final double ELEMENT_MATCH_THRESHOLD = RecheckProperties.getInstance().elementMatchThreshold();
+	static final boolean PARALLEL = RecheckProperties.getInstance().alignmentParallel();
+
+	/**
+	 * Below this number of expected elements, computing the similarities in parallel does not pay off.
+	 */
+	static final int MIN_PARALLEL_ELEMENTS = 64;
 
 	/**
 	 * A mapping from each child element (key) to its parent (value), based on the <em>expected</em> elements.
@@ -33,37 +45,159 @@ public final class Alignment {
 	 */
 	private final Map<Element, Element> actualChildParentMapping = new HashMap<>();
 
-	private final Map<Element, Element> alignment;
+	private final Map<Element, Element> alignment = new HashMap<>();
+
+	private final boolean parallel;
+
+	/**
+	 * The number of parent chains aligned by {@link #addParentAlignment()}, package visible only for test.
+	 */
+	int alignedParentChains;
 
 	AlignmentPseudoElementHack pseudoElementHack = new AlignmentPseudoElementHack();
 
 	public static Alignment createAlignment( final Element expected, final Element actual ) {
-		return new Alignment( expected, actual );
+		return createAlignment( expected, actual, AlignmentStrategy.GLOBAL );
 	}
 
-	private Alignment( final Element expected, final Element actual ) {
+	public static Alignment createAlignment( final Element expected, final Element actual,
+			final AlignmentStrategy strategy ) {
+		return new Alignment( expected, actual, strategy, PARALLEL );
+	}
+
+	static Alignment createAlignment( final Element expected, final Element actual, final boolean parallel ) {
+		return new Alignment( expected, actual, AlignmentStrategy.GLOBAL, parallel );
+	}
+
+	private Alignment( final Element expected, final Element actual, final AlignmentStrategy strategy,
+			final boolean parallel ) {
+		this.parallel = parallel;
+		if ( strategy == AlignmentStrategy.HIERARCHICAL ) {
+			alignHierarchically( expected, actual );
+		} else {
+			alignGlobally( expected, actual );
+		}
+	}
+
+	private void alignGlobally( final Element expected, final Element actual ) {
+		final Map<Element, Element> unchangedSubtrees = findUnchangedSubtrees( expected, actual );
+		final Set<Element> unchangedActuals = newIdentitySet();
+		unchangedActuals.addAll( unchangedSubtrees.values() );
 		final List<Element> expectedElements = flattenLeafElements( expected, expectedChildParentMapping,
-				pseudoElementHack.expectedPseudoElementsMapping );
-		final List<Element> actualElements =
-				flattenLeafElements( actual, actualChildParentMapping, pseudoElementHack.actualPseudoElementsMapping );
+				pseudoElementHack.expectedPseudoElementsMapping, unchangedSubtrees::containsKey );
+		final List<Element> actualElements = flattenLeafElements( actual, actualChildParentMapping,
+				pseudoElementHack.actualPseudoElementsMapping, unchangedActuals::contains );
 		log.debug(
 				"Creating assignment of old to new elements, trying to find differences. We are comparing {} with {} elements.",
 				expectedElements.size(), actualElements.size() );
-		alignment = createAlignment( expectedElements, toIdentityMapping( actualElements ) );
+		alignment.putAll( createAlignment( expectedElements, toIdentityMapping( actualElements ) ) );
 		addParentAlignment();
+		alignUnchangedSubtrees( unchangedSubtrees );
 		pseudoElementHack.alignPseudoElements( alignment );
 	}
 
+	/**
+	 * Aligns the children of the given containers with each other and descends into the aligned pairs. All elements
+	 * that could not be aligned within their container are aligned globally afterwards, so that moved elements are
+	 * still found.
+	 */
+	private void alignHierarchically( final Element expected, final Element actual ) {
+		final List<Element> unalignedExpected = new ArrayList<>();
+		final List<Element> unalignedActual = new ArrayList<>();
+		alignment.put( expected, actual );
+		alignContainer( expected, actual, unalignedExpected, unalignedActual );
+		final List<Element> remainingExpected = flattenAllElements( unalignedExpected );
+		final List<Element> remainingActual = flattenAllElements( unalignedActual );
+		log.debug( "Aligned containers, {} expected and {} actual elements remain to be aligned globally.",
+				remainingExpected.size(), remainingActual.size() );
+		alignment.putAll( createAlignment( remainingExpected, toIdentityMapping( remainingActual ) ) );
+	}
+
+	private void alignContainer( final Element expected, final Element actual, final List<Element> unalignedExpected,
+			final List<Element> unalignedActual ) {
+		if ( expected.hasSameContent( actual ) ) {
+			alignContainedElements( expected, actual );
+			return;
+		}
+		final Map<Element, Element> childAlignment = createAlignment( expected.getContainedElements(),
+				toIdentityMapping( actual.getContainedElements() ) );
+		final Set<Element> alignedActualChildren = newIdentitySet();
+		for ( final Element expectedChild : expected.getContainedElements() ) {
+			final Element actualChild = childAlignment.get( expectedChild );
+			if ( actualChild == null ) {
+				unalignedExpected.add( expectedChild );
+				continue;
+			}
+			alignment.put( expectedChild, actualChild );
+			alignedActualChildren.add( actualChild );
+			alignContainer( expectedChild, actualChild, unalignedExpected, unalignedActual );
+		}
+		for ( final Element actualChild : actual.getContainedElements() ) {
+			if ( !alignedActualChildren.contains( actualChild ) ) {
+				unalignedActual.add( actualChild );
+			}
+		}
+	}
+
+	/**
+	 * Finds the topmost expected elements that have an actual element with the same content, including all contained
+	 * elements. These subtrees are aligned as a whole, instead of aligning all of their leaves.
+	 *
+	 * @return a mapping from each unchanged expected subtree (key) to the actual subtree (value)
+	 */
+	private static Map<Element, Element> findUnchangedSubtrees( final Element expected, final Element actual ) {
+		final Map<Element, Element> actualsByContent = new HashMap<>();
+		for ( final Element element : flattenChildElements( actual ) ) {
+			actualsByContent.putIfAbsent( element, element );
+		}
+		final Map<Element, Element> unchangedSubtrees = new IdentityHashMap<>();
+		addUnchangedSubtrees( expected, actualsByContent, unchangedSubtrees );
+		return unchangedSubtrees;
+	}
+
+	private static void addUnchangedSubtrees( final Element expected, final Map<Element, Element> actualsByContent,
+			final Map<Element, Element> unchangedSubtrees ) {
+		for ( final Element child : expected.getContainedElements() ) {
+			// The cached hash code covers the whole subtree, so usually only unchanged elements need to be compared.
+			final Element actual = actualsByContent.remove( child );
+			if ( actual != null && child.hasSameContent( actual ) ) {
+				unchangedSubtrees.put( child, actual );
+			} else {
+				addUnchangedSubtrees( child, actualsByContent, unchangedSubtrees );
+			}
+		}
+	}
+
+	private void alignUnchangedSubtrees( final Map<Element, Element> unchangedSubtrees ) {
+		unchangedSubtrees.forEach( ( expected, actual ) -> {
+			if ( alignment.get( expected ) == actual ) {
+				alignContainedElements( expected, actual );
+			}
+		} );
+	}
+
+	private void alignContainedElements( final Element expected, final Element actual ) {
+		final List<Element> expectedChildren = expected.getContainedElements();
+		final List<Element> actualChildren = actual.getContainedElements();
+		for ( int i = 0; i < expectedChildren.size(); i++ ) {
+			alignment.put( expectedChildren.get( i ), actualChildren.get( i ) );
+			alignContainedElements( expectedChildren.get( i ), actualChildren.get( i ) );
+		}
+	}
+
 	private static List<Element> flattenLeafElements( final Element element,
-			final Map<Element, Element> childParentMapping, final Map<Element, Element> pseudoElementsMapping ) {
+			final Map<Element, Element> childParentMapping, final Map<Element, Element> pseudoElementsMapping,
+			final Predicate<Element> isUnchanged ) {
 		final List<Element> flattened = new ArrayList<>();
 
 		for ( final Element childElement : element.getContainedElements() ) {
 			childParentMapping.put( childElement, element );
-			if ( AlignmentPseudoElementHack.isLeafAndPrepareMapping( childElement, pseudoElementsMapping ) ) {
+			if ( isUnchanged.test( childElement )
+					|| AlignmentPseudoElementHack.isLeafAndPrepareMapping( childElement, pseudoElementsMapping ) ) {
 				flattened.add( childElement );
 			} else {
-				flattened.addAll( flattenLeafElements( childElement, childParentMapping, pseudoElementsMapping ) );
+				flattened.addAll( flattenLeafElements( childElement, childParentMapping, pseudoElementsMapping,
+						isUnchanged ) );
 			}
 		}
 
@@ -75,34 +209,26 @@ public final class Alignment {
 		final Deque<Element> elementsToAlign = toReverseDeque( expectedElements );
 		final Map<Element, Match> matches = new HashMap<>();
 		final Map<Element, Element> alignment = new HashMap<>();
+		final AlignmentCandidateIndex candidateIndex = AlignmentCandidateIndex.isWorthwhile( actualElements.size() )
+				? new AlignmentCandidateIndex( actualElements.keySet() ) : null;
+
+		final Map<Element, BestMatches> precomputedMatches =
+				parallel && expectedElements.size() >= MIN_PARALLEL_ELEMENTS
+						? computeBestMatchesInParallel( expectedElements, actualElements, candidateIndex )
+						: Collections.emptyMap();
 
 		while ( !elementsToAlign.isEmpty() ) {
 			// Align elements from expected with best match.
 			final Element expected = elementsToAlign.pollLast();
-			final NavigableSet<Match> bestMatches = getBestMatches( expected, actualElements );
-			Match bestMatch = bestMatches.pollFirst();
-
-			while ( bestMatch != null ) {
-				// If a best match has multiple alignments, delete all but overall best.
-				if ( matches.containsKey( bestMatch.element ) ) {
-					final Match previousMatch = matches.get( bestMatch.element );
-					if ( bestMatch.similarity <= previousMatch.similarity ) {
-						// FIXME this assert is triggered by some pseudo elements
-						//assert bestMatch.similarity != 1.0 : "bestMatch and previousMatch have a match of 100%? At least paths should differ! "
-						//		+ bestMatch.element.getIdentifyingAttributes().toFullString() + " == "
-						//		+ previousMatch.element.getIdentifyingAttributes().toFullString();
-						// Case: bestMatch is already taken for other element.
-						bestMatch = bestMatches.pollFirst();
-					} else {
-						// Case: bestMatch takes this element.
-						alignment.remove( previousMatch.element );
-						elementsToAlign.add( previousMatch.element );
-						break;
-					}
-				} else {
-					break;
-				}
-
+			final BestMatches precomputed = precomputedMatches.get( expected );
+			// Copy precomputed matches, because an element may be aligned again after its best match was taken.
+			final BestMatches bestMatches = precomputed != null ? precomputed.copy()
+					: getBestMatches( expected, actualElements, getCandidates( expected, actualElements, candidateIndex ) );
+			Match bestMatch = pollBestAvailableMatch( bestMatches, matches );
+			if ( candidateIndex != null && (bestMatch == null || bestMatch.similarity < ELEMENT_MATCH_THRESHOLD) ) {
+				// Fall back to all actual elements, if the index yields no good enough candidate.
+				bestMatch = pollBestAvailableMatch(
+						getBestMatches( expected, actualElements, actualElements.keySet() ), matches );
 			}
 
 			if ( bestMatch == null ) {
@@ -110,6 +236,14 @@ public final class Alignment {
 				continue;
 			}
 
+			// If a best match has multiple alignments, delete all but overall best.
+			final Match previousMatch = matches.get( bestMatch.element );
+			if ( previousMatch != null ) {
+				// Case: bestMatch takes this element.
+				alignment.remove( previousMatch.element );
+				elementsToAlign.add( previousMatch.element );
+			}
+
 			if ( bestMatch.similarity < ELEMENT_MATCH_THRESHOLD ) {
 				log.debug( "Best match {} is below threshold with {} similarity.", bestMatch.element,
 						bestMatch.similarity );
@@ -123,6 +257,53 @@ public final class Alignment {
 		return alignment;
 	}
 
+	/**
+	 * Computes the best matches of all expected elements concurrently, as they do not depend on each other. The
+	 * conflict resolution in {@link #createAlignment(List, Map)} stays sequential, so the result is the same as without
+	 * parallel computation.
+	 */
+	private static Map<Element, BestMatches> computeBestMatchesInParallel( final List<Element> expectedElements,
+			final Map<Element, Element> actualElements, final AlignmentCandidateIndex candidateIndex ) {
+		final List<BestMatches> bestMatches = IntStream.range( 0, expectedElements.size() ) //
+				.parallel() //
+				.mapToObj( expectedElements::get ) //
+				.map( expected -> getBestMatches( expected, actualElements,
+						getCandidates( expected, actualElements, candidateIndex ) ) ) //
+				.collect( toList() );
+		final Map<Element, BestMatches> result = new IdentityHashMap<>( expectedElements.size() );
+		for ( int i = 0; i < expectedElements.size(); i++ ) {
+			result.put( expectedElements.get( i ), bestMatches.get( i ) );
+		}
+		return result;
+	}
+
+	private static Collection<Element> getCandidates( final Element expected, final Map<Element, Element> actualElements,
+			final AlignmentCandidateIndex candidateIndex ) {
+		return candidateIndex != null ? candidateIndex.getCandidates( expected ) : actualElements.keySet();
+	}
+
+	/**
+	 * Polls the best match that is either not yet taken by another element or better than the match of the element
+	 * that took it.
+	 */
+	private static Match pollBestAvailableMatch( final BestMatches bestMatches,
+			final Map<Element, Match> matches ) {
+		Match bestMatch = bestMatches.pollFirst();
+		while ( bestMatch != null ) {
+			final Match previousMatch = matches.get( bestMatch.element );
+			if ( previousMatch == null || bestMatch.similarity > previousMatch.similarity ) {
+				return bestMatch;
+			}
+			// FIXME this assert is triggered by some pseudo elements
+			//assert bestMatch.similarity != 1.0 : "bestMatch and previousMatch have a match of 100%? At least paths should differ! "
+			//		+ bestMatch.element.getIdentifyingAttributes().toFullString() + " == "
+			//		+ previousMatch.element.getIdentifyingAttributes().toFullString();
+			// Case: bestMatch is already taken for other element.
+			bestMatch = bestMatches.pollFirst();
+		}
+		return null;
+	}
+
 	static Deque<Element> toReverseDeque( final List<Element> expectedElements ) {
 		return expectedElements.stream().collect( collectingAndThen( toCollection( LinkedList::new ), deque -> {
 			Collections.reverse( deque );
@@ -130,32 +311,30 @@ public final class Alignment {
 		} ) );
 	}
 
-	private static NavigableSet<Match> getBestMatches( final Element expected,
-			final Map<Element, Element> actualElements ) {
+	private static BestMatches getBestMatches( final Element expected, final Map<Element, Element> actualElements,
+			final Collection<Element> candidates ) {
 		// Try to first get the same element from actuals. This should be the standard case and, thus, cheapest.
 		if ( actualElements.containsKey( expected ) ) {
-			final Element identityResult = actualElements.get( expected );
-			final Match bestMatch = Match.ofEqual( identityResult );
-			return new TreeSet<>( Collections.singleton( bestMatch ) );
-		}
-
-		final NavigableSet<Match> bestMatches = new TreeSet<>();
-
-		for ( final Element actual : actualElements.keySet() ) {
-			final double similarity = match( expected, actual );
-			if ( similarity == 1.0 ) {
-				bestMatches.add( Match.ofEqual( actual ) );
-				return bestMatches;
-			}
-			bestMatches.add( Match.of( similarity, actual ) );
+			return BestMatches.ofEqual( actualElements.get( expected ) );
 		}
-
-		return bestMatches;
+		return BestMatches.of( expected, candidates );
 	}
 
+	/**
+	 * Aligns the parents of all aligned elements. Since the parent chains only depend on the direct parents, each
+	 * distinct pair of expected and actual parent is only aligned once: aligning the same chains again would not change
+	 * the result, as an existing parent alignment is only replaced by a better one.
+	 */
 	private void addParentAlignment() {
 		final Map<Element, Element> alignmentCopy = new HashMap<>( alignment );
+		final Map<Element, Set<Element>> alignedParents = new IdentityHashMap<>();
 		for ( final Map.Entry<Element, Element> alignmentPair : alignmentCopy.entrySet() ) {
+			final Element expectedParent = expectedChildParentMapping.get( alignmentPair.getKey() );
+			final Element actualParent = actualChildParentMapping.get( alignmentPair.getValue() );
+			if ( !alignedParents.computeIfAbsent( expectedParent, parent -> newIdentitySet() ).add( actualParent ) ) {
+				continue;
+			}
+			alignedParentChains++;
 
 			final List<Element> expectedParents = getParents( alignmentPair.getKey(), expectedChildParentMapping );
 			final List<Element> actualParents = getParents( alignmentPair.getValue(), actualChildParentMapping );
@@ -191,6 +370,10 @@ public final class Alignment {
 		return parents;
 	}
 
+	private static Set<Element> newIdentitySet() {
+		return Collections.newSetFromMap( new IdentityHashMap<>() );
+	}
+
 	static Map<Element, Element> toIdentityMapping( final List<Element> actualElements ) {
 		return actualElements.stream().collect( toMap( Function.identity(), Function.identity() ) );
 	}
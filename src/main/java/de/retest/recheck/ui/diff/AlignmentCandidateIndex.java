@@ -0,0 +1,132 @@
+package de.retest.recheck.ui.diff;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import de.retest.recheck.ui.Path;
+import de.retest.recheck.ui.descriptors.Attribute;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.OutlineAttribute;
+import de.retest.recheck.ui.descriptors.PathAttribute;
+import de.retest.recheck.ui.descriptors.StringAttribute;
+import de.retest.recheck.ui.descriptors.SuffixAttribute;
+import de.retest.recheck.ui.descriptors.TextAttribute;
+
+/**
+ * Groups the actual elements of an {@link Alignment} into buckets of cheap keys (path, type within parent, suffix,
+ * identifying values, text words and outline grid cell), so that an expected element only needs to be scored against
+ * plausible candidates instead of against every actual element.
+ *
+ * Buckets that grow larger than {@link #MAX_BUCKET_SIZE} are not selective and hence ignored when collecting
+ * candidates. If no candidate is good enough, the {@link Alignment} falls back to scoring all actual elements.
+ */
+class AlignmentCandidateIndex {
+
+	/**
+	 * Below this number of actual elements, scoring all elements is cheap enough and the index is not used.
+	 */
+	static final int MIN_INDEXED_ELEMENTS = 64;
+
+	static final int MAX_BUCKET_SIZE = 256;
+
+	private static final int OUTLINE_GRID_SIZE = 64;
+	private static final int MIN_WORD_LENGTH = 3;
+
+	private final List<Element> elements;
+	private final Map<String, List<Integer>> buckets = new HashMap<>();
+
+	AlignmentCandidateIndex( final Collection<Element> elements ) {
+		this.elements = new ArrayList<>( elements );
+		for ( int position = 0; position < this.elements.size(); position++ ) {
+			for ( final String key : keys( this.elements.get( position ), false ) ) {
+				buckets.computeIfAbsent( key, k -> new ArrayList<>() ).add( position );
+			}
+		}
+	}
+
+	static boolean isWorthwhile( final int numberOfElements ) {
+		return numberOfElements >= MIN_INDEXED_ELEMENTS;
+	}
+
+	/**
+	 * @param expected
+	 *            the element to find candidates for
+	 * @return the actual elements sharing at least one selective key with the given expected element, in the order
+	 *         they were given to the index
+	 */
+	List<Element> getCandidates( final Element expected ) {
+		final BitSet positions = new BitSet( elements.size() );
+		for ( final String key : keys( expected, true ) ) {
+			final List<Integer> bucket = buckets.get( key );
+			if ( bucket != null && bucket.size() <= MAX_BUCKET_SIZE ) {
+				bucket.forEach( positions::set );
+			}
+		}
+		final List<Element> candidates = new ArrayList<>( positions.cardinality() );
+		for ( int position = positions.nextSetBit( 0 ); position >= 0; position = positions.nextSetBit( position + 1 ) ) {
+			candidates.add( elements.get( position ) );
+		}
+		return candidates;
+	}
+
+	private static Set<String> keys( final Element element, final boolean includeNeighbourCells ) {
+		final IdentifyingAttributes identifyingAttributes = element.getIdentifyingAttributes();
+		final String type = identifyingAttributes.getType();
+		final Set<String> keys = new LinkedHashSet<>();
+		for ( final Attribute attribute : identifyingAttributes.getAttributes() ) {
+			if ( attribute instanceof PathAttribute ) {
+				final Path path = ((PathAttribute) attribute).getValue();
+				keys.add( "path:" + path );
+				keys.add( "parent:" + type + ":" + identifyingAttributes.getParentPath() );
+			} else if ( attribute instanceof SuffixAttribute ) {
+				keys.add( "suffix:" + type + ":" + ((SuffixAttribute) attribute).getValue() );
+			} else if ( attribute instanceof TextAttribute ) {
+				addTextKeys( keys, (TextAttribute) attribute );
+			} else if ( attribute instanceof StringAttribute ) {
+				if ( !IdentifyingAttributes.TYPE_ATTRIBUTE_KEY.equals( attribute.getKey() ) ) {
+					keys.add( "value:" + attribute.getKey() + ":" + attribute.getValue() );
+				}
+			} else if ( attribute instanceof OutlineAttribute
+					&& OutlineAttribute.RELATIVE_OUTLINE.equals( attribute.getKey() ) ) {
+				addOutlineKeys( keys, type, (OutlineAttribute) attribute, includeNeighbourCells );
+			}
+		}
+		return keys;
+	}
+
+	private static void addTextKeys( final Set<String> keys, final TextAttribute attribute ) {
+		final String text = attribute.getValue();
+		if ( text == null ) {
+			return;
+		}
+		keys.add( "text:" + attribute.getKey() + ":" + text );
+		for ( final String word : text.toLowerCase( Locale.ROOT ).split( "\\W+" ) ) {
+			if ( word.length() >= MIN_WORD_LENGTH ) {
+				keys.add( "word:" + attribute.getKey() + ":" + word );
+			}
+		}
+	}
+
+	private static void addOutlineKeys( final Set<String> keys, final String type, final OutlineAttribute attribute,
+			final boolean includeNeighbourCells ) {
+		if ( attribute.getValue() == null ) {
+			return;
+		}
+		final int column = Math.floorDiv( attribute.getValue().x, OUTLINE_GRID_SIZE );
+		final int row = Math.floorDiv( attribute.getValue().y, OUTLINE_GRID_SIZE );
+		final int range = includeNeighbourCells ? 1 : 0;
+		for ( int x = column - range; x <= column + range; x++ ) {
+			for ( int y = row - range; y <= row + range; y++ ) {
+				keys.add( "outline:" + type + ":" + x + "," + y );
+			}
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package de.retest.recheck.ui.diff;
+
+/**
+ * Determines how an {@link Alignment} pairs the expected with the actual elements.
+ */
+public enum AlignmentStrategy {
+
+	/**
+	 * Aligns all leaf elements with each other, regardless of the container they are in, and derives the alignment of
+	 * the containers from the alignment of their leaves. This is the default.
+	 */
+	GLOBAL,
+
+	/**
+	 * Aligns elements top-down, only comparing the children of aligned containers with each other. Elements that cannot
+	 * be aligned within their container (e.g. because they were moved to another container) are aligned globally
+	 * afterwards. This is considerably faster for large, deep trees, but may yield different results if containers
+	 * changed substantially.
+	 */
+	HIERARCHICAL
+
+}
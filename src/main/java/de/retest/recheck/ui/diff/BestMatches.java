@@ -0,0 +1,124 @@
+package de.retest.recheck.ui.diff;
+
+import java.util.Collection;
+
+import de.retest.recheck.ui.descriptors.Element;
+
+/**
+ * The best matches of an expected element within a collection of candidates, ordered by descending similarity.
+ *
+ * Instead of sorting all candidates, only the best {@link #SIZE} matches are kept. Only if all of them are polled
+ * (which is rare, as they are only polled if already taken by other elements), the candidates are scored again to get
+ * the next best matches. The order is the same as if all matches were kept in a {@code TreeSet<Match>}, i.e. matches
+ * with the same similarity are ordered by descending position within the candidates.
+ */
+class BestMatches {
+
+	static final int SIZE = 8;
+
+	private final Element expected;
+	/**
+	 * Must be iterated in the same order every time.
+	 */
+	private final Collection<Element> candidates;
+
+	private Match[] matches;
+	private int[] positions;
+	private int size;
+	private int next;
+	private boolean complete;
+
+	private BestMatches( final Element expected, final Collection<Element> candidates, final Match[] matches,
+			final int[] positions, final int size, final boolean complete ) {
+		this.expected = expected;
+		this.candidates = candidates;
+		this.matches = matches;
+		this.positions = positions;
+		this.size = size;
+		this.complete = complete;
+	}
+
+	static BestMatches ofEqual( final Element actual ) {
+		return new BestMatches( null, null, new Match[] { Match.ofEqual( actual ) }, new int[] { 0 }, 1, true );
+	}
+
+	/**
+	 * Scores the given candidates. Just as when searching for the best match, scoring stops at the first candidate that
+	 * is equal to the expected element.
+	 */
+	static BestMatches of( final Element expected, final Collection<Element> candidates ) {
+		final BestMatches bestMatches =
+				new BestMatches( expected, candidates, new Match[SIZE], new int[SIZE], 0, false );
+		bestMatches.score( Double.POSITIVE_INFINITY, Integer.MAX_VALUE );
+		return bestMatches;
+	}
+
+	/**
+	 * @return a copy that polls independently of this instance, starting where this instance currently is
+	 */
+	BestMatches copy() {
+		final BestMatches copy = new BestMatches( expected, candidates, matches, positions, size, complete );
+		copy.next = next;
+		return copy;
+	}
+
+	Match pollFirst() {
+		if ( next == size ) {
+			if ( complete || size == 0 ) {
+				return null;
+			}
+			score( matches[size - 1].similarity, positions[size - 1] );
+			if ( size == 0 ) {
+				return null;
+			}
+		}
+		return matches[next++];
+	}
+
+	/**
+	 * Keeps the best matches that are worse than the given bound, i.e. have a lower similarity or the same similarity
+	 * and a lower position.
+	 */
+	private void score( final double boundSimilarity, final int boundPosition ) {
+		// Always fresh arrays, as they may be shared with copies.
+		final Match[] newMatches = new Match[SIZE];
+		final int[] newPositions = new int[SIZE];
+		int newSize = 0;
+		int worse = 0;
+		int position = -1;
+		for ( final Element actual : candidates ) {
+			position++;
+			final double similarity = Alignment.match( expected, actual );
+			if ( similarity < boundSimilarity || similarity == boundSimilarity && position < boundPosition ) {
+				worse++;
+				newSize = insert( newMatches, newPositions, newSize, similarity, position, actual );
+			}
+			if ( similarity == 1.0 ) {
+				break;
+			}
+		}
+		matches = newMatches;
+		positions = newPositions;
+		size = newSize;
+		next = 0;
+		complete = worse <= SIZE;
+	}
+
+	private static int insert( final Match[] matches, final int[] positions, final int size, final double similarity,
+			final int position, final Element actual ) {
+		// Later positions come first for the same similarity, hence go before all that are not better.
+		int index = size;
+		while ( index > 0 && matches[index - 1].similarity <= similarity ) {
+			index--;
+		}
+		if ( index >= SIZE ) {
+			return size;
+		}
+		final int newSize = Math.min( size + 1, SIZE );
+		System.arraycopy( matches, index, matches, index + 1, newSize - index - 1 );
+		System.arraycopy( positions, index, positions, index + 1, newSize - index - 1 );
+		matches[index] = Match.of( similarity, actual );
+		positions[index] = position;
+		return newSize;
+	}
+}
@@ -0,0 +1,127 @@
+package de.retest.recheck.ui.diff;
+
+import static de.retest.recheck.ui.descriptors.ElementUtil.flattenChildElements;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import de.retest.recheck.ui.descriptors.Element;
+
+/**
+ * Bounds the number of child differences that {@link RootElementDifferenceFinder} counts when comparing the contained
+ * components of two root elements, without aligning them. This number is the sum of the immediate differences of the
+ * direct children of the expected root element (at most two each, for identifying attributes and attributes) plus one
+ * for each actual element that is not aligned, i.e. inserted. Since each expected element accounts for at most one
+ * aligned actual element, at least {@code actualElements - expectedElements} elements are inserted.
+ *
+ * These bounds only decide windows of considerably different size. For windows of similar size, e.g. with a changed
+ * title, the number is additionally estimated from the subtrees that have an actual subtree with the same content,
+ * just like {@link Alignment} aligns unchanged subtrees as a whole. Such subtrees have no differences and contain no
+ * inserted elements. The estimate is only inexact if elements with the same identifying attributes but different
+ * content compete for the same actual element, hence it only decides if it is below the threshold by more than
+ * {@link #ESTIMATE_TOLERANCE}.
+ *
+ * If neither decides, the exact number needs to be computed.
+ */
+final class ContainedComponentsBounds {
+
+	/**
+	 * The tolerance of the estimated child differences per contained component.
+	 */
+	static final double ESTIMATE_TOLERANCE = 0.1;
+
+	private ContainedComponentsBounds() {}
+
+	/**
+	 * @param expected
+	 *            the expected root element
+	 * @param actual
+	 *            the actual root element
+	 * @param expectedElements
+	 *            the number of elements contained in the expected root element
+	 * @param actualElements
+	 *            the number of elements contained in the actual root element
+	 * @param threshold
+	 *            the threshold of child differences per contained component
+	 * @return if the child differences per contained component reach the threshold, or empty if this can only be
+	 *         decided by the exact number of child differences
+	 */
+	static Optional<Boolean> reachesThreshold( final Element expected, final Element actual,
+			final int expectedElements, final int actualElements, final double threshold ) {
+		final double numberOfChildComponents = Math.max( expectedElements, actualElements ) + 1.0;
+		if ( lowerBound( expectedElements, actualElements ) / numberOfChildComponents >= threshold ) {
+			return Optional.of( true );
+		}
+		if ( upperBound( expected, actualElements ) / numberOfChildComponents < threshold ) {
+			return Optional.of( false );
+		}
+		if ( estimate( expected, actual, actualElements ) / numberOfChildComponents < threshold
+				- ESTIMATE_TOLERANCE ) {
+			return Optional.of( false );
+		}
+		return Optional.empty();
+	}
+
+	static int lowerBound( final int expectedElements, final int actualElements ) {
+		return Math.max( 0, actualElements - expectedElements );
+	}
+
+	static int upperBound( final Element expected, final int actualElements ) {
+		return 2 * expected.getContainedElements().size() + actualElements;
+	}
+
+	/**
+	 * Like {@link #upperBound(Element, int)}, but without the direct children and actual elements of unchanged
+	 * subtrees.
+	 */
+	static int estimate( final Element expected, final Element actual, final int actualElements ) {
+		final Map<Element, List<Element>> actualsByContent = new HashMap<>();
+		for ( final Element element : flattenChildElements( actual ) ) {
+			actualsByContent.computeIfAbsent( element, key -> new ArrayList<>() ).add( element );
+		}
+		int changedChildren = 0;
+		int unchangedActuals = 0;
+		for ( final Element child : expected.getContainedElements() ) {
+			if ( removeSameContent( child, actualsByContent ) ) {
+				unchangedActuals += 1 + flattenChildElements( child ).size();
+			} else {
+				changedChildren++;
+				unchangedActuals += countUnchangedElements( child, actualsByContent );
+			}
+		}
+		return 2 * changedChildren + Math.max( 0, actualElements - unchangedActuals );
+	}
+
+	private static int countUnchangedElements( final Element expected,
+			final Map<Element, List<Element>> actualsByContent ) {
+		int unchanged = 0;
+		for ( final Element child : expected.getContainedElements() ) {
+			if ( removeSameContent( child, actualsByContent ) ) {
+				unchanged += 1 + flattenChildElements( child ).size();
+			} else {
+				unchanged += countUnchangedElements( child, actualsByContent );
+			}
+		}
+		return unchanged;
+	}
+
+	private static boolean removeSameContent( final Element expected,
+			final Map<Element, List<Element>> actualsByContent ) {
+		// The cached hash code covers the whole subtree, so usually only unchanged elements need to be compared.
+		final List<Element> actuals = actualsByContent.get( expected );
+		if ( actuals == null ) {
+			return false;
+		}
+		for ( final Iterator<Element> iterator = actuals.iterator(); iterator.hasNext(); ) {
+			if ( expected.hasSameContent( iterator.next() ) ) {
+				iterator.remove();
+				return true;
+			}
+		}
+		return false;
+	}
+}
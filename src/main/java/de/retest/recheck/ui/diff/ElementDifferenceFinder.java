@@ -4,7 +4,10 @@ import static de.retest.recheck.ui.descriptors.ElementUtil.flattenChildElements;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import de.retest.recheck.ui.DefaultValueFinder;
 import de.retest.recheck.ui.descriptors.Element;
@@ -13,23 +16,36 @@ public class ElementDifferenceFinder {
 
 	private final IdentifyingAttributesDifferenceFinder identAttrDiffFinder;
 	private final AttributesDifferenceFinder attributesDifferenceFinder;
+	private final AlignmentStrategy alignmentStrategy;
 
 	public ElementDifferenceFinder( final DefaultValueFinder defaultValueFinder ) {
+		this( defaultValueFinder, AlignmentStrategy.GLOBAL );
+	}
+
+	public ElementDifferenceFinder( final DefaultValueFinder defaultValueFinder,
+			final AlignmentStrategy alignmentStrategy ) {
 		identAttrDiffFinder = new IdentifyingAttributesDifferenceFinder();
 		attributesDifferenceFinder = new AttributesDifferenceFinder( defaultValueFinder );
+		this.alignmentStrategy = alignmentStrategy;
 	}
 
-	// TODO We can have more performance optimization: a cell can only life in a row, a row only in a table etc.
+	// AlignmentStrategy.HIERARCHICAL aligns cells only within their rows, rows only within their tables etc.
 	public Collection<ElementDifference> findChildDifferences( final Element expectedComponent,
 			final Element actualComponent ) {
-		final Alignment alignment = Alignment.createAlignment( expectedComponent, actualComponent );
+		if ( expectedComponent.hasSameContent( actualComponent ) ) {
+			return new ArrayList<>();
+		}
+		final Alignment alignment = Alignment.createAlignment( expectedComponent, actualComponent, alignmentStrategy );
 		// Recreate original structure for difference, so we can skip if there are too many child differences per comp.
-		final List<Element> remainingActual = new ArrayList<>( flattenChildElements( actualComponent ) );
+		final Set<Element> alignedActual = Collections.newSetFromMap( new IdentityHashMap<>() );
 		final Collection<ElementDifference> result =
-				createHierarchicalStructure( expectedComponent.getContainedElements(), remainingActual, alignment );
+				createHierarchicalStructure( expectedComponent.getContainedElements(), alignedActual, alignment );
 		// Add components in actual that are missing in expected.
-		for ( final Element element : remainingActual ) {
-			final ElementDifference difference = differenceFor( null, element, remainingActual, alignment );
+		for ( final Element element : flattenChildElements( actualComponent ) ) {
+			if ( alignedActual.contains( element ) ) {
+				continue;
+			}
+			final ElementDifference difference = differenceFor( null, element, alignedActual, alignment );
 			if ( difference != null ) {
 				result.add( difference );
 			}
@@ -38,21 +54,23 @@ public class ElementDifferenceFinder {
 	}
 
 	private Collection<ElementDifference> createHierarchicalStructure( final List<Element> expected,
-			final List<Element> remainingActual, final Alignment alignment ) {
+			final Set<Element> alignedActual, final Alignment alignment ) {
 		final Collection<ElementDifference> result = new ArrayList<>();
 		for ( final Element childComp : expected ) {
 			final Element actualChild = alignment.getActual( childComp );
-			final ElementDifference difference = differenceFor( childComp, actualChild, remainingActual, alignment );
+			final ElementDifference difference = differenceFor( childComp, actualChild, alignedActual, alignment );
 			if ( difference != null ) {
 				result.add( difference );
 			}
-			remainingActual.remove( actualChild );
+			if ( actualChild != null ) {
+				alignedActual.add( actualChild );
+			}
 		}
 		return result;
 	}
 
 	private ElementDifference differenceFor( final Element expected, final Element actual,
-			final List<Element> remainingActual, final Alignment alignment ) {
+			final Set<Element> alignedActual, final Alignment alignment ) {
 		AttributesDifference attributesDifference = null;
 		LeafDifference identifyingAttributesDifference = null;
 		final Collection<ElementDifference> childDifferences = new ArrayList<>();
@@ -62,13 +80,17 @@ public class ElementDifferenceFinder {
 		} else {
 			if ( actual == null ) {
 				identifyingAttributesDifference = InsertedDeletedElementDifference.differenceFor( expected, null );
+			} else if ( expected.hasSameContent( actual ) ) {
+				// Unchanged subtree, which is aligned as a whole.
+				alignedActual.addAll( flattenChildElements( actual ) );
+				return null;
 			} else {
 				identifyingAttributesDifference = identAttrDiffFinder
 						.differenceFor( expected.getIdentifyingAttributes(), actual.getIdentifyingAttributes() );
 				attributesDifference = attributesDifferenceFinder.differenceFor( expected, actual );
 			}
 			childDifferences.addAll(
-					createHierarchicalStructure( expected.getContainedElements(), remainingActual, alignment ) );
+					createHierarchicalStructure( expected.getContainedElements(), alignedActual, alignment ) );
 		}
 		if ( identifyingAttributesDifference == null && attributesDifference == null && childDifferences.isEmpty() ) {
 			return null;
@@ -87,6 +109,8 @@ public class ElementDifferenceFinder {
 			identifyingAttributesDifference = InsertedDeletedElementDifference.differenceFor( null, actual );
 		} else if ( actual == null ) {
 			identifyingAttributesDifference = InsertedDeletedElementDifference.differenceFor( expected, null );
+		} else if ( expected.hasSameContent( actual ) ) {
+			return null;
 		} else {
 			identifyingAttributesDifference = identAttrDiffFinder.differenceFor( expected.getIdentifyingAttributes(),
 					actual.getIdentifyingAttributes() );
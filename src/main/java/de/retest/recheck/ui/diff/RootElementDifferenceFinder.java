@@ -1,11 +1,17 @@
 package de.retest.recheck.ui.diff;
 
+import static java.util.stream.Collectors.toList;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.ui.DefaultValueFinder;
+import de.retest.recheck.ui.descriptors.Element;
 import de.retest.recheck.ui.descriptors.ElementUtil;
 import de.retest.recheck.ui.descriptors.RootElement;
 
@@ -18,28 +24,57 @@ public class RootElementDifferenceFinder {
 			RecheckProperties.getInstance().rootElementMatchThreshold();
 	private static final double ROOT_ELEMENT_CONTAINED_CHILDREN_MATCH_THRESHOLD =
 			RecheckProperties.getInstance().rootElementContainedChildrenMatchThreshold();
+	private static final boolean PARALLEL = RecheckProperties.getInstance().rootElementParallel();
 
 	private final ElementDifferenceFinder elementDifferenceFinder;
+	private final boolean parallel;
 
 	public RootElementDifferenceFinder( final DefaultValueFinder defaultValueFinder ) {
-		elementDifferenceFinder = new ElementDifferenceFinder( defaultValueFinder );
+		this( defaultValueFinder, AlignmentStrategy.GLOBAL );
+	}
+
+	public RootElementDifferenceFinder( final DefaultValueFinder defaultValueFinder,
+			final AlignmentStrategy alignmentStrategy ) {
+		this( defaultValueFinder, alignmentStrategy, PARALLEL );
+	}
+
+	RootElementDifferenceFinder( final DefaultValueFinder defaultValueFinder,
+			final AlignmentStrategy alignmentStrategy, final boolean parallel ) {
+		elementDifferenceFinder = new ElementDifferenceFinder( defaultValueFinder, alignmentStrategy );
+		this.parallel = parallel && defaultValueFinder.isThreadSafe();
+		if ( parallel && !this.parallel ) {
+			logger.warn( "Finding differences sequentially, since default value finder '{}' is not thread-safe.",
+					defaultValueFinder );
+		}
+	}
+
+	/**
+	 * Finds the differences sequentially with the given finder, package visible only for test.
+	 */
+	RootElementDifferenceFinder( final ElementDifferenceFinder elementDifferenceFinder ) {
+		this.elementDifferenceFinder = elementDifferenceFinder;
+		parallel = false;
 	}
 
 	public List<RootElementDifference> findDifferences( final List<RootElement> expecteds,
 			final List<RootElement> actuals ) {
-		final List<RootElementDifference> differences = new ArrayList<>();
+		// Assign the root elements first, so that the differences of the pairs can be computed independently.
+		final List<RootElement> pairedExpecteds = new ArrayList<>();
+		final List<RootElement> pairedActuals = new ArrayList<>();
 		final List<RootElement> copyOfActuals = new ArrayList<>( actuals );
 		for ( final RootElement expected : expecteds ) {
-			final RootElementDifference difference =
-					findDifference( expected, findAndRemove( expected, copyOfActuals ) );
-			if ( difference != null ) {
-				differences.add( difference );
-			}
+			pairedExpecteds.add( expected );
+			pairedActuals.add( findAndRemove( expected, copyOfActuals ) );
 		}
 		for ( final RootElement actual : copyOfActuals ) {
-			differences.add( findDifference( null, actual ) );
+			pairedExpecteds.add( null );
+			pairedActuals.add( actual );
 		}
-		return differences;
+		final IntStream pairs = IntStream.range( 0, pairedExpecteds.size() );
+		return (parallel ? pairs.parallel() : pairs) //
+				.mapToObj( i -> findDifference( pairedExpecteds.get( i ), pairedActuals.get( i ) ) ) //
+				.filter( Objects::nonNull ) //
+				.collect( toList() );
 	}
 
 	private RootElement findAndRemove( final RootElement expected, final List<RootElement> actuals ) {
@@ -67,17 +102,32 @@ public class RootElementDifferenceFinder {
 		}
 		logger.info( "Best match of window {} did not exceed MATCH_THRESHOLD with {}: {}",
 				expected.getIdentifyingAttributes(), bestMatch, bestWindow );
-		final double containedComponentsMatch = compareContainedComponents( expected, bestWindow );
+		return matchesContainedComponents( expected, bestWindow ) ? bestWindow : null;
+	}
+
+	private boolean matchesContainedComponents( final RootElement expected, final RootElement bestWindow ) {
+		final List<Element> expectedElements = ElementUtil.flattenChildElements( expected );
+		final List<Element> bestWindowElements = ElementUtil.flattenChildElements( bestWindow );
+		final Optional<Boolean> bounded = ContainedComponentsBounds.reachesThreshold( expected, bestWindow,
+				expectedElements.size(), bestWindowElements.size(), ROOT_ELEMENT_CONTAINED_CHILDREN_MATCH_THRESHOLD );
+		if ( bounded.isPresent() ) {
+			logger.debug( "Bounds of child differences for window {} and best match {} decide a match of {}.",
+					expected, bestWindow, bounded.get() );
+			return bounded.get();
+		}
+		final double containedComponentsMatch = compareContainedComponents( expected, bestWindow,
+				expectedElements.size(), bestWindowElements.size() );
 		if ( containedComponentsMatch >= ROOT_ELEMENT_CONTAINED_CHILDREN_MATCH_THRESHOLD ) {
 			logger.info( "Best match of window has a match of contained components of {}.", containedComponentsMatch );
-			return bestWindow;
+			return true;
 		}
-		return null;
+		return false;
 	}
 
-	private double compareContainedComponents( final RootElement expected, final RootElement bestWindow ) {
+	private double compareContainedComponents( final RootElement expected, final RootElement bestWindow,
+			final int expectedChildCount, final int bestWindowChildCount ) {
 		return getNumberOfChildDifferences( expected, bestWindow )
-				/ (getNumberOfChildComponents( expected, bestWindow ) + 1.0);
+				/ (getNumberOfChildComponents( expected, bestWindow, expectedChildCount, bestWindowChildCount ) + 1.0);
 	}
 
 	private int getNumberOfChildDifferences( final RootElement expected, final RootElement bestWindow ) {
@@ -91,9 +141,8 @@ public class RootElementDifferenceFinder {
 		return count;
 	}
 
-	private int getNumberOfChildComponents( final RootElement expected, final RootElement bestWindow ) {
-		final int expectedChildCount = ElementUtil.flattenChildElements( expected ).size();
-		final int bestWindowChildCount = ElementUtil.flattenChildElements( bestWindow ).size();
+	private int getNumberOfChildComponents( final RootElement expected, final RootElement bestWindow,
+			final int expectedChildCount, final int bestWindowChildCount ) {
 		logger.debug( "Window {} contained {} components, and and best match {} contained {} components.", expected,
 				expectedChildCount, bestWindow, bestWindowChildCount );
 		return Math.max( expectedChildCount, bestWindowChildCount );
@@ -1,5 +1,7 @@
 package de.retest.recheck.ui.image;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
 import de.retest.recheck.util.ChecksumCalculator;
@@ -8,12 +10,14 @@ import jakarta.xml.bind.annotation.XmlAccessorType;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlRootElement;
 import jakarta.xml.bind.annotation.XmlTransient;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * We use this class that simply wraps a byte array instead of the Java internal format
  * {@link java.awt.image.BufferedImage}, because a screenshot is a small PNG of a few KB size, but a huuuuge
  * BufferedImage that very quickly fills up our working memory...
  */
+@Slf4j
 @XmlRootElement
 @XmlAccessorType( XmlAccessType.FIELD )
 public class Screenshot implements Serializable {
@@ -28,6 +32,14 @@ public class Screenshot implements Serializable {
 		}
 	}
 
+	/**
+	 * Loads the data of a screenshot that is persisted elsewhere, e.g. within a Golden Master.
+	 */
+	@FunctionalInterface
+	public interface BinaryDataLoader {
+		byte[] load() throws IOException;
+	}
+
 	@XmlElement
 	private final String persistenceId;
 
@@ -35,7 +47,14 @@ public class Screenshot implements Serializable {
 	private byte[] binaryData;
 
 	@XmlTransient
-	private transient String sha256;
+	private transient volatile BinaryDataLoader binaryDataLoader;
+
+	/**
+	 * The SHA-256 hash of the binary data, which is persisted so that screenshots can be compared without their data.
+	 * Computed on demand if unknown.
+	 */
+	@XmlTransient
+	private transient volatile String sha256;
 
 	@XmlElement
 	private final ImageType type;
@@ -58,17 +77,118 @@ public class Screenshot implements Serializable {
 		this.binaryData = binaryData;
 		this.type = type;
 		this.persistenceId = persistenceId;
-		ensureSha();
+	}
+
+	/**
+	 * Creates a screenshot whose data is loaded on demand, see {@link #setBinaryDataLoader(BinaryDataLoader)}.
+	 *
+	 * @param persistenceId
+	 *            the persistence ID
+	 * @param type
+	 *            the image type
+	 * @param sha256
+	 *            the SHA-256 hash of the data as persisted, {@code null} if unknown
+	 * @param binaryDataLoader
+	 *            loads the data on the first call of {@link #getBinaryData()}
+	 */
+	public Screenshot( final String persistenceId, final ImageType type, final String sha256,
+			final BinaryDataLoader binaryDataLoader ) {
+		if ( type == null ) {
+			throw new NullPointerException( "type must not be null." );
+		}
+		if ( binaryDataLoader == null ) {
+			throw new NullPointerException( "binaryDataLoader must not be null." );
+		}
+		this.persistenceId = persistenceId;
+		this.type = type;
+		this.sha256 = sha256;
+		this.binaryDataLoader = binaryDataLoader;
 	}
 
 	public byte[] getBinaryData() {
+		if ( binaryDataLoader != null ) {
+			loadBinaryData();
+		}
 		return binaryData;
 	}
 
 	public void setBinaryData( final byte[] binaryData ) {
+		binaryDataLoader = null;
 		this.binaryData = binaryData;
 		sha256 = null;
-		ensureSha();
+	}
+
+	/**
+	 * Defers loading the data of this screenshot until it is actually needed, which is rarely the case for screenshots
+	 * of a Golden Master. If loading fails, the screenshot has no data.
+	 *
+	 * A SHA-256 hash that was persisted along with this screenshot is kept, as the loader is expected to provide the
+	 * persisted data. It is verified once the data is loaded.
+	 *
+	 * @param binaryDataLoader
+	 *            loads the data on the first call of {@link #getBinaryData()}
+	 */
+	public void setBinaryDataLoader( final BinaryDataLoader binaryDataLoader ) {
+		binaryData = null;
+		this.binaryDataLoader = binaryDataLoader;
+	}
+
+	private synchronized void loadBinaryData() {
+		final BinaryDataLoader loader = binaryDataLoader;
+		if ( loader == null ) {
+			return;
+		}
+		try {
+			binaryData = loader.load();
+		} catch ( final IOException e ) {
+			log.warn( "Could not load data of {}: {}", this, e.getMessage() );
+			binaryData = null;
+		}
+		binaryDataLoader = null;
+		verifySha256();
+	}
+
+	private void verifySha256() {
+		final String persisted = sha256;
+		if ( persisted != null && !persisted.equals( computeSha256( binaryData ) ) ) {
+			// Keep the persisted hash, as it might have been used already, e.g. by a hash set.
+			log.warn( "Data of {} does not match its persisted SHA-256 hash, the file seems to be modified.", this );
+		}
+	}
+
+	/**
+	 * @return the SHA-256 hash of the binary data, which is only computed if it was not persisted
+	 */
+	public String getSha256() {
+		String result = sha256;
+		if ( result == null ) {
+			result = computeSha256( getBinaryData() );
+			sha256 = result;
+		}
+		return result;
+	}
+
+	/**
+	 * @return the SHA-256 hash of the binary data if it was persisted or already computed, {@code null} otherwise
+	 */
+	public String getKnownSha256() {
+		return sha256;
+	}
+
+	private static String computeSha256( final byte[] data ) {
+		return data == null ? "" : ChecksumCalculator.getInstance().sha256( data );
+	}
+
+	// Used by JAXB, to persist the hash without making the field non-transient for other serializations.
+	@XmlElement( name = "sha256" )
+	@SuppressWarnings( "unused" )
+	private String getPersistedSha256() {
+		return getSha256();
+	}
+
+	@SuppressWarnings( "unused" )
+	private void setPersistedSha256( final String sha256 ) {
+		this.sha256 = sha256;
 	}
 
 	public ImageType getType() {
@@ -81,8 +201,7 @@ public class Screenshot implements Serializable {
 
 	@Override
 	public int hashCode() {
-		ensureSha();
-		return type.hashCode() + (persistenceId.hashCode() * 31 + sha256.hashCode()) * 31;
+		return type.hashCode() + (persistenceId.hashCode() * 31 + getSha256().hashCode()) * 31;
 	}
 
 	@Override
@@ -99,17 +218,12 @@ public class Screenshot implements Serializable {
 		}
 
 		// most expensive, should be last
-		ensureSha();
-		other.ensureSha();
-		return sha256.equals( other.sha256 );
+		return getSha256().equals( other.getSha256() );
 	}
 
-	private void ensureSha() {
-		if ( binaryData != null ) {
-			sha256 = ChecksumCalculator.getInstance().sha256( binaryData );
-		} else {
-			sha256 = "";
-		}
+	private void writeObject( final ObjectOutputStream out ) throws IOException {
+		getBinaryData();
+		out.defaultWriteObject();
 	}
 
 	@Override
@@ -8,6 +8,17 @@ public class ChecksumCalculator {
 
 	public static final int LENGTH_OF_SHA256 = 64;
 
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	// MessageDigest is not thread-safe, but looking it up for each hash is comparatively expensive.
+	private static final ThreadLocal<MessageDigest> sha256Digest = ThreadLocal.withInitial( () -> {
+		try {
+			return MessageDigest.getInstance( "SHA-256" );
+		} catch ( final NoSuchAlgorithmException e ) {
+			throw new RuntimeException( e );
+		}
+	} );
+
 	private static ChecksumCalculator instance;
 
 	public static ChecksumCalculator getInstance() {
@@ -18,11 +29,13 @@ public class ChecksumCalculator {
 	}
 
 	public String sha256( final String input ) {
-		return getDigest( "SHA-256", input.getBytes( StandardCharsets.UTF_8 ) );
+		return sha256( input.getBytes( StandardCharsets.UTF_8 ) );
 	}
 
 	public String sha256( final byte[] input ) {
-		return getDigest( "SHA-256", input );
+		final MessageDigest digest = sha256Digest.get();
+		digest.reset();
+		return bytesToHex( digest.digest( input ) );
 	}
 
 	/**
@@ -57,12 +70,13 @@ public class ChecksumCalculator {
 		}
 	}
 
-	private String bytesToHex( final byte[] bytes ) {
-		final StringBuilder result = new StringBuilder();
-		for ( final byte b : bytes ) {
-			result.append( Integer.toString( (b & 0xff) + 0x100, 16 ).substring( 1 ) );
+	private static String bytesToHex( final byte[] bytes ) {
+		final char[] result = new char[bytes.length * 2];
+		for ( int i = 0; i < bytes.length; i++ ) {
+			result[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+			result[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xf];
 		}
-		return result.toString();
+		return new String( result );
 	}
 
 }
@@ -249,7 +249,7 @@ public class FileUtil {
 
 	public static <T> T readFromFile( final File file, final Reader<T> reader ) throws IOException {
 		try ( final NamedBufferedInputStream in =
-				new NamedBufferedInputStream( new FileInputStream( file ), file.getName() ) ) {
+				new NamedBufferedInputStream( file, file.getName() ) ) {
 			return reader.read( in );
 		} catch ( final Exception e ) {
 			throw new ReTestLoadException( file.toURI(), e );
@@ -258,7 +258,7 @@ public class FileUtil {
 
 	public static <T> T tryReadFromFile( final File file, final Reader<T> reader ) {
 		try ( final NamedBufferedInputStream in =
-				new NamedBufferedInputStream( new FileInputStream( file ), file.getName() ) ) {
+				new NamedBufferedInputStream( file, file.getName() ) ) {
 			return reader.read( in );
 		} catch ( final IOException e ) {
 			logger.warn( "Error reading from file '{}', ignoring: {}", canonicalPathQuietly( file ), e.getMessage() );
@@ -345,12 +345,12 @@ public class FileUtil {
 		// relative path
 		result = new File( baseDir, input ).getCanonicalFile();
 		if ( result.exists() ) {
-			return new NamedBufferedInputStream( new FileInputStream( result ), input );
+			return new NamedBufferedInputStream( result, input );
 		}
 		// absolute path
 		result = new File( input );
 		if ( result.exists() ) {
-			return new NamedBufferedInputStream( new FileInputStream( result ), input );
+			return new NamedBufferedInputStream( result, input );
 		}
 		throw new IOException( "Could not open file or URL with " + input );
 	}
@@ -9,21 +9,35 @@ import java.io.InputStream;
 public class NamedBufferedInputStream extends BufferedInputStream {
 
 	private final String name;
+	private final File file;
 
 	public NamedBufferedInputStream( final InputStream in, final String name ) {
 		super( in );
 		this.name = name;
+		file = null;
 	}
 
 	public NamedBufferedInputStream( final File file ) throws FileNotFoundException {
+		this( file, file.getAbsolutePath() );
+	}
+
+	public NamedBufferedInputStream( final File file, final String name ) throws FileNotFoundException {
 		super( new FileInputStream( file ) );
-		name = file.getAbsolutePath();
+		this.name = name;
+		this.file = file;
 	}
 
 	public String getName() {
 		return name;
 	}
 
+	/**
+	 * @return the file this stream reads, or {@code null} if it does not read a file (e.g. an entry of a ZIP file)
+	 */
+	public File getFile() {
+		return file;
+	}
+
 	@Override
 	public String toString() {
 		return getClass().getName() + "[" + name + "]";
@@ -1,5 +1,7 @@
 package de.retest.recheck.util;
 
+import java.util.regex.Pattern;
+
 import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
 
 public class RetestIdUtil {
@@ -14,6 +16,8 @@ public class RetestIdUtil {
 
 	}
 
+	private static final Pattern VALID_RETEST_ID = Pattern.compile( "[\\w-_]+" );
+
 	private RetestIdUtil() {}
 
 	public static String normalizeAndCut( final String id ) {
@@ -75,7 +79,7 @@ public class RetestIdUtil {
 		if ( retestId.isEmpty() ) {
 			throw new InvalidRetestIdException( "retest ID must not be empty for " + identifyingAttributes );
 		}
-		if ( !retestId.matches( "[\\w-_]+" ) ) {
+		if ( !VALID_RETEST_ID.matcher( retestId ).matches() ) {
 			throw new InvalidRetestIdException(
 					"retest ID must not contain any whitespaces or special characters for " + identifyingAttributes );
 		}
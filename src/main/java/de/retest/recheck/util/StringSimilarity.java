@@ -1,17 +1,11 @@
 package de.retest.recheck.util;
 
-import java.util.Locale;
 import java.util.Objects;
 
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.text.similarity.FuzzyScore;
-
 public class StringSimilarity {
 
 	private StringSimilarity() {}
 
-	private static final FuzzyScore fuzzyScore = new FuzzyScore( Locale.GERMAN );
-
 	public static double textSimilarity( final String text0, final String text1 ) {
 		if ( text0 == null || text1 == null ) {
 			return simpleSimilarity( text0, text1 );
@@ -21,7 +15,23 @@ public class StringSimilarity {
 			return 1.0;
 		}
 
-		final double fuzzyDistance = fuzzyScore.fuzzyScore( text0, text1 );
+		return textSimilarity( TextProfile.of( text0 ), TextProfile.of( text1 ) );
+	}
+
+	/**
+	 * Same as {@link #textSimilarity(String, String)}, but for texts that are already prepared, which allows to compare
+	 * texts that are compared often without repeating the preparation.
+	 */
+	public static double textSimilarity( final TextProfile text0, final TextProfile text1 ) {
+		if ( text0.getText() == null || text1.getText() == null ) {
+			return simpleSimilarity( text0.getText(), text1.getText() );
+		}
+
+		if ( text0.getText().equals( text1.getText() ) ) {
+			return 1.0;
+		}
+
+		final double fuzzyDistance = text0.fuzzyScore( text1 );
 
 		if ( fuzzyDistance == 0.0 ) {
 			return 0.0;
@@ -30,8 +40,8 @@ public class StringSimilarity {
 		final double maxLength = Math.max( text0.length(), text1.length() );
 		final double similarity = fuzzyDistance / (maxLength * 4.0);
 
-		assert similarity >= 0.0 && similarity <= 1.0 : "text0 is: '" + text0 + "' - text1 is: '" + text1
-				+ "', result is:" + similarity;
+		assert similarity >= 0.0 && similarity <= 1.0 : "text0 is: '" + text0.getText() + "' - text1 is: '"
+				+ text1.getText() + "', result is:" + similarity;
 
 		return similarity;
 	}
@@ -45,14 +55,20 @@ public class StringSimilarity {
 			return 1.0;
 		}
 
-		final String cleanPath0 = removeBrackets( path0 );
-		final String cleanPath1 = removeBrackets( path1 );
+		return cleanPathSimilarity( removeBrackets( path0 ), removeBrackets( path1 ) );
+	}
 
+	/**
+	 * Same as {@link #pathSimilarity(String, String)}, but for paths that already went through
+	 * {@link #removeBrackets(String)} and whose original paths are known to differ. This allows to prepare paths that
+	 * are compared often.
+	 */
+	public static double cleanPathSimilarity( final String cleanPath0, final String cleanPath1 ) {
 		if ( cleanPath0.isEmpty() || cleanPath1.isEmpty() ) {
 			return 0.0;
 		}
 
-		final int commonPrefixLength = StringUtils.getCommonPrefix( cleanPath0, cleanPath1 ).length();
+		final int commonPrefixLength = getCommonPrefixLength( cleanPath0, cleanPath1 );
 		final int commonSuffixLength = getCommonSuffixStartingAt( cleanPath0, cleanPath1, commonPrefixLength );
 		final int minLength = Math.min( cleanPath0.length(), cleanPath1.length() );
 		final int maxLength = Math.max( cleanPath0.length(), cleanPath1.length() );
@@ -62,12 +78,22 @@ public class StringSimilarity {
 		double similarity = (maxLength - difference) / (double) maxLength;
 		similarity = similarity * similarity;
 
-		assert similarity >= 0.0 && similarity <= 1.0 : "path0 is: '" + path0 + "' - path1 is: '" + path1
-				+ "', result is:" + similarity;
+		assert similarity >= 0.0 && similarity <= 1.0 : "cleanPath0 is: '" + cleanPath0 + "' - cleanPath1 is: '"
+				+ cleanPath1 + "', result is:" + similarity;
 
 		return similarity;
 	}
 
+	private static int getCommonPrefixLength( final String path0, final String path1 ) {
+		final int minLength = Math.min( path0.length(), path1.length() );
+		for ( int idx = 0; idx < minLength; idx++ ) {
+			if ( path0.charAt( idx ) != path1.charAt( idx ) ) {
+				return idx;
+			}
+		}
+		return minLength;
+	}
+
 	private static int getCommonSuffixStartingAt( final String path0, final String path1, final int start ) {
 		int commonSuffixLength = 0;
 		for ( int idxP0 = path0.length() - 1, idxP1 = path1.length() - 1; idxP0 >= start
@@ -87,8 +113,15 @@ public class StringSimilarity {
 		return Objects.equals( s0, s1 ) ? 1.0 : 0.0;
 	}
 
-	private static String removeBrackets( final String path ) {
-		return path.replaceAll( "[\\[\\]]", "" );
+	public static String removeBrackets( final String path ) {
+		final StringBuilder result = new StringBuilder( path.length() );
+		for ( int idx = 0; idx < path.length(); idx++ ) {
+			final char c = path.charAt( idx );
+			if ( c != '[' && c != ']' ) {
+				result.append( c );
+			}
+		}
+		return result.toString();
 	}
 
 }
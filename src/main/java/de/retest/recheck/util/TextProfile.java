@@ -0,0 +1,80 @@
+package de.retest.recheck.util;
+
+import java.util.Locale;
+
+/**
+ * Precomputed form of a text, so that {@link StringSimilarity#textSimilarity(TextProfile, TextProfile)} can be computed
+ * repeatedly without converting the text to lower case and without allocations. Additionally, it holds a signature of
+ * the contained characters, which allows to detect texts without any similarity in constant time.
+ */
+public final class TextProfile {
+
+	static final Locale LOCALE = Locale.GERMAN;
+
+	private static final TextProfile NULL = new TextProfile( null );
+
+	private final String text;
+	private final char[] lowerCase;
+	/**
+	 * One bit per contained character, modulo 64.
+	 */
+	private final long characters;
+
+	private TextProfile( final String text ) {
+		this.text = text;
+		lowerCase = text == null ? new char[0] : text.toLowerCase( LOCALE ).toCharArray();
+		long characters = 0L;
+		for ( final char character : lowerCase ) {
+			characters |= 1L << character;
+		}
+		this.characters = characters;
+	}
+
+	public static TextProfile of( final String text ) {
+		return text == null ? NULL : new TextProfile( text );
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	int length() {
+		return text.length();
+	}
+
+	/**
+	 * Computes the same score as {@link org.apache.commons.text.similarity.FuzzyScore}, with this profile being the
+	 * term and the given profile being the query: one point per query character found in order within the term, plus
+	 * two bonus points for each match directly following the previous one.
+	 */
+	int fuzzyScore( final TextProfile query ) {
+		if ( query.lowerCase.length == 0 || !mayContain( query.lowerCase[0] ) ) {
+			// If the first character of the query is not found, the whole term is consumed and nothing else matches.
+			return 0;
+		}
+		int score = 0;
+		int termIndex = 0;
+		int previousMatchingCharacterIndex = Integer.MIN_VALUE;
+		for ( final char queryCharacter : query.lowerCase ) {
+			while ( termIndex < lowerCase.length ) {
+				final int currentIndex = termIndex++;
+				if ( lowerCase[currentIndex] == queryCharacter ) {
+					score++;
+					if ( previousMatchingCharacterIndex + 1 == currentIndex ) {
+						score += 2;
+					}
+					previousMatchingCharacterIndex = currentIndex;
+					break;
+				}
+			}
+			if ( termIndex == lowerCase.length ) {
+				break;
+			}
+		}
+		return score;
+	}
+
+	private boolean mayContain( final char character ) {
+		return (characters & 1L << character) != 0L;
+	}
+}
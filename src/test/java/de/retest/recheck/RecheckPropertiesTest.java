@@ -2,6 +2,7 @@ package de.retest.recheck;
 
 import static de.retest.recheck.RecheckProperties.FILE_OUTPUT_FORMAT_PROPERTY_KEY;
 import static de.retest.recheck.RecheckProperties.REHUB_REPORT_UPLOAD_ENABLED_PROPERTY_KEY;
+import static de.retest.recheck.persistence.FileOutputFormat.BINARY;
 import static de.retest.recheck.persistence.FileOutputFormat.CLOUD;
 import static de.retest.recheck.persistence.FileOutputFormat.KRYO;
 import static de.retest.recheck.persistence.FileOutputFormat.PLAIN;
@@ -48,4 +49,11 @@ class RecheckPropertiesTest {
 		assertThat( cut.getStateOutputFormat() ).isEqualTo( PLAIN );
 	}
 
+	@Test
+	@SetSystemProperty( key = FILE_OUTPUT_FORMAT_PROPERTY_KEY, value = "BINARY" )
+	void binary_format_should_only_be_used_for_states() {
+		assertThat( cut.getStateOutputFormat() ).isEqualTo( BINARY );
+		assertThat( cut.getReportOutputFormat() ).isEqualTo( KRYO );
+	}
+
 }
@@ -1,12 +1,26 @@
 package de.retest.recheck.ignore;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 
+import de.retest.recheck.ignore.Filter.ChangeType;
+import de.retest.recheck.ui.Path;
 import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.MutableAttributes;
+import de.retest.recheck.ui.descriptors.RootElement;
 import de.retest.recheck.ui.diff.AttributeDifference;
 
 class CacheFilterTest {
@@ -54,4 +68,136 @@ class CacheFilterTest {
 		verify( base ).matches( element, attributeKey );
 		verifyNoMoreInteractions( base );
 	}
+
+	@Test
+	void matches_change_type_should_be_cached_per_change_type() {
+		final Element element = mock( Element.class );
+		final Filter base = mock( Filter.class );
+		when( base.matches( element, ChangeType.INSERTED ) ).thenReturn( true );
+
+		final CacheFilter cut = new CacheFilter( base );
+
+		assertThat( cut.matches( element, ChangeType.INSERTED ) ).isTrue();
+		assertThat( cut.matches( element, ChangeType.DELETED ) ).isFalse();
+		assertThat( cut.matches( element ) ).isFalse();
+		assertThat( cut.matches( element, ChangeType.INSERTED ) ).isTrue();
+
+		verify( base ).matches( element, ChangeType.INSERTED );
+		verify( base ).matches( element, ChangeType.DELETED );
+		verify( base ).matches( element );
+		verifyNoMoreInteractions( base );
+	}
+
+	@Test
+	void elements_should_be_cached_by_identity() {
+		final Element element = mock( Element.class );
+		final Element other = mock( Element.class );
+		final Filter base = mock( Filter.class );
+
+		final CacheFilter cut = new CacheFilter( base );
+
+		cut.matches( element, "foo" );
+		cut.matches( other, "foo" );
+
+		verify( base ).matches( element, "foo" );
+		verify( base ).matches( other, "foo" );
+	}
+
+	@Test
+	void cache_should_be_bounded() {
+		final Filter base = mock( Filter.class );
+		final Element element = mock( Element.class );
+		final Element other = mock( Element.class );
+
+		final CacheFilter cut = new CacheFilter( base, 1 );
+
+		cut.matches( element, "foo" );
+		cut.matches( element, "bar" );
+		cut.matches( other, "foo" );
+		cut.matches( element, "foo" );
+
+		verify( base, times( 2 ) ).matches( element, "foo" );
+		verify( base ).matches( element, "bar" );
+		assertThat( cut.getStats().evictionCount() ).isEqualTo( 3 );
+	}
+
+	@Test
+	void stats_should_count_hits_and_misses() {
+		final Element element = mock( Element.class );
+
+		final CacheFilter cut = new CacheFilter( mock( Filter.class ) );
+
+		cut.matches( element );
+		cut.matches( element );
+		cut.matches( element, "foo" );
+
+		assertThat( cut.getStats().hitCount() ).isEqualTo( 1 );
+		assertThat( cut.getStats().missCount() ).isEqualTo( 2 );
+	}
+
+	@Test
+	void exceptions_of_base_should_be_rethrown() {
+		final Element element = mock( Element.class );
+		final Filter base = mock( Filter.class );
+		when( base.matches( element ) ).thenThrow( new IllegalArgumentException( "foo" ) );
+
+		final CacheFilter cut = new CacheFilter( base );
+
+		assertThatThrownBy( () -> cut.matches( element ) ).isInstanceOf( IllegalArgumentException.class )
+				.hasMessage( "foo" );
+	}
+
+	@Test
+	void concurrent_matches_should_call_base_once() {
+		final Element element = mock( Element.class );
+		final AtomicInteger calls = new AtomicInteger();
+		final Filter base = mock( Filter.class );
+		when( base.matches( any( Element.class ), any( String.class ) ) ).then( invocation -> {
+			calls.incrementAndGet();
+			return true;
+		} );
+
+		final CacheFilter cut = new CacheFilter( base );
+
+		assertThat( IntStream.range( 0, 1000 ).parallel().allMatch( i -> cut.matches( element, "foo" ) ) ).isTrue();
+		assertThat( calls ).hasValue( 1 );
+	}
+
+	@Test
+	void cached_elements_should_not_be_retained() throws Exception {
+		final CacheFilter cut = new CacheFilter( Filter.NEVER_MATCH );
+		Element element = new RootElement( "html", IdentifyingAttributes.create( Path.fromString( "html[1]" ), "html" ),
+				new MutableAttributes().immutable(), null, "screen", 1, "title" );
+		final WeakReference<Element> reference = new WeakReference<>( element );
+
+		cut.matches( element );
+		cut.matches( element, ChangeType.INSERTED );
+		cut.matches( element, "foo" );
+		cut.matches( element, new AttributeDifference( "foo", "old", "new" ) );
+		element = null;
+
+		for ( int i = 0; i < 100 && reference.get() != null; i++ ) {
+			System.gc();
+			Thread.sleep( 10 );
+		}
+		assertThat( reference.get() ).isNull();
+	}
+
+	@Test
+	void cached_queries_should_not_be_retained_after_their_element() throws Exception {
+		final CacheFilter cut = new CacheFilter( Filter.NEVER_MATCH );
+		AttributeDifference difference = new AttributeDifference( "foo", "old", "new" );
+		final WeakReference<AttributeDifference> reference = new WeakReference<>( difference );
+
+		cut.matches( mock( Element.class ), difference );
+		difference = null;
+
+		for ( int i = 0; i < 100 && reference.get() != null; i++ ) {
+			System.gc();
+			Thread.sleep( 10 );
+			// Collected elements are removed when the cache is written to.
+			cut.matches( mock( Element.class ), new AttributeDifference( "bar", "old", "new" ) );
+		}
+		assertThat( reference.get() ).isNull();
+	}
 }
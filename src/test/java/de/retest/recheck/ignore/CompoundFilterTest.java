@@ -1,14 +1,30 @@
 package de.retest.recheck.ignore;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import de.retest.recheck.ignore.Filter.ChangeType;
 import de.retest.recheck.review.ignore.AttributeFilter;
+import de.retest.recheck.review.ignore.MatcherFilter;
+import de.retest.recheck.review.ignore.matcher.Matcher;
+import de.retest.recheck.ui.Path;
+import de.retest.recheck.ui.descriptors.Attribute;
 import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.MutableAttributes;
+import de.retest.recheck.ui.descriptors.RootElement;
+import de.retest.recheck.ui.descriptors.StringAttribute;
 import de.retest.recheck.ui.diff.AttributeDifference;
 
 class CompoundFilterTest {
@@ -55,4 +71,152 @@ class CompoundFilterTest {
 		when( attributeDifference.getKey() ).thenReturn( "tag" );
 		assertThat( filter.matches( element, attributeDifference ) ).isFalse();
 	}
+
+	@Test
+	void indexed_filters_should_match_like_all_filters_one_after_another() {
+		final CompoundFilter filter = (CompoundFilter) Filters.parse( Arrays.asList( //
+				"matcher: retestid=button", //
+				"matcher: retestid=inp.*", //
+				"matcher: id=header", //
+				"matcher: type=span", //
+				"matcher: class=nav active", //
+				"matcher: xpath=html[1]/body[1]/footer[1]", //
+				"matcher: title=Main", //
+				"matcher: type=div, attribute=font-size", //
+				"attribute=outline", //
+				"attribute-regex=color-.*", //
+				"value-regex=[0-9]+px", //
+				"change=inserted", //
+				"matcher: id=content, change=deleted", //
+				"exclude(matcher: type=html)" ) );
+		assertThat( filter.getFilters() ).hasSize( 14 );
+
+		final RootElement html = new RootElement( "html", identifyingAttributes( "html[1]", "html", null, null ),
+				new MutableAttributes().immutable(), null, "screen", 1, "Main" );
+		final List<Element> elements = new ArrayList<>();
+		elements.add( html );
+		final Element body = add( elements, html, "body", "html[1]/body[1]", "body", null, null );
+		final Element nav = add( elements, body, "nav", "html[1]/body[1]/nav[1]", "nav", "nav", "nav active" );
+		add( elements, nav, "link", "html[1]/body[1]/nav[1]/a[1]", "a", null, "link" );
+		add( elements, body, "header", "html[1]/body[1]/div[1]", "div", "header", "nav" );
+		final Element content = add( elements, body, "content", "html[1]/body[1]/div[2]", "div", "content", null );
+		add( elements, content, "input", "html[1]/body[1]/div[2]/input[1]", "input", null, null );
+		add( elements, content, "button", "html[1]/body[1]/div[2]/button[1]", "button", null, null );
+		add( elements, content, "text", "html[1]/body[1]/div[2]/span[1]", "span", null, null );
+		add( elements, body, "footer", "html[1]/body[1]/footer[1]", "footer", null, null );
+
+		final List<String> keys = Arrays.asList( "font-size", "outline", "color-background", "text", "width" );
+		final List<Filter> filters = filter.getFilters();
+		for ( final Element element : elements ) {
+			assertThat( filter.matches( element ) ).as( "%s", element )
+					.isEqualTo( filters.stream().anyMatch( f -> f.matches( element ) ) );
+			for ( final ChangeType change : ChangeType.values() ) {
+				assertThat( filter.matches( element, change ) ).as( "%s %s", element, change )
+						.isEqualTo( filters.stream().anyMatch( f -> f.matches( element, change ) ) );
+			}
+			for ( final String key : keys ) {
+				assertThat( filter.matches( element, key ) ).as( "%s %s", element, key )
+						.isEqualTo( filters.stream().anyMatch( f -> f.matches( element, key ) ) );
+				for ( final String value : Arrays.asList( "12px", "red" ) ) {
+					final AttributeDifference difference = new AttributeDifference( key, "old", value );
+					assertThat( filter.matches( element, difference ) ).as( "%s %s", element, difference )
+							.isEqualTo( filters.stream().anyMatch( f -> f.matches( element, difference ) ) );
+				}
+			}
+		}
+	}
+
+	@Test
+	void filters_should_not_be_modified_after_indexing() {
+		final List<Filter> filters = new ArrayList<>();
+		final CompoundFilter filter = new CompoundFilter( filters );
+
+		filters.add( new AttributeFilter( "input" ) );
+
+		assertThat( filter.matches( element, "input" ) ).isFalse();
+		assertThat( filter.getFilters() ).isEmpty();
+		assertThatThrownBy( () -> filter.getFilters().add( new AttributeFilter( "input" ) ) )
+				.isInstanceOf( UnsupportedOperationException.class );
+	}
+
+	@Test
+	void shared_parents_should_be_matched_only_once() {
+		final Element parent = mock( Element.class );
+		final Element child = mock( Element.class );
+		when( child.getParent() ).thenReturn( parent );
+		final Element sibling = mock( Element.class );
+		when( sibling.getParent() ).thenReturn( parent );
+		@SuppressWarnings( "unchecked" )
+		final Matcher<Element> matcher = mock( Matcher.class );
+		final CompoundFilter cut = new CompoundFilter( new MatcherFilter( matcher ) );
+
+		assertThat( cut.matches( child ) ).isFalse();
+		assertThat( cut.matches( sibling ) ).isFalse();
+		assertThat( cut.matches( child ) ).isFalse();
+
+		verify( matcher ).test( parent );
+		verify( matcher ).test( child );
+		verify( matcher ).test( sibling );
+	}
+
+	@Test
+	void filters_without_element_matchers_should_not_walk_parents() {
+		final Element child = mock( Element.class );
+		when( child.getParent() ).thenReturn( mock( Element.class ) );
+
+		assertThat( new CompoundFilter().matches( child ) ).isFalse();
+		assertThat( new CompoundFilter( new AttributeFilter( "a" ) ).matches( child ) ).isFalse();
+
+		verify( child, never() ).getParent();
+	}
+
+	@Test
+	void matcher_throwing_for_element_should_not_match_change_through_parent() {
+		final Element parent = mock( Element.class );
+		final Element child = mock( Element.class );
+		when( child.getParent() ).thenReturn( parent );
+		final Matcher<Element> throwing = element -> {
+			if ( element == child ) {
+				throw new IllegalStateException( "child" );
+			}
+			return true;
+		};
+		final Matcher<Element> parentOnly = element -> element == parent;
+
+		assertThat( new CompoundFilter( new MatcherFilter( throwing ) ).matches( child, ChangeType.INSERTED ) )
+				.isFalse();
+		assertThat( new CompoundFilter( new MatcherFilter( throwing ), new MatcherFilter( parentOnly ) )
+				.matches( child, ChangeType.INSERTED ) ).isTrue();
+		assertThatThrownBy( () -> new CompoundFilter( new MatcherFilter( throwing ) ).matches( child ) )
+				.isInstanceOf( IllegalStateException.class );
+	}
+
+	@Test
+	void should_only_be_thread_safe_if_all_filters_are() {
+		assertThat( new CompoundFilter( new AttributeFilter( "a" ), Filter.NEVER_MATCH ).isThreadSafe() ).isTrue();
+		assertThat( new CompoundFilter( new AttributeFilter( "a" ), mock( Filter.class ) ).isThreadSafe() ).isFalse();
+	}
+
+	private static Element add( final List<Element> elements, final Element parent, final String retestId,
+			final String path, final String type, final String id, final String classes ) {
+		final Element element =
+				Element.create( retestId, parent, identifyingAttributes( path, type, id, classes ),
+						new MutableAttributes().immutable() );
+		parent.addChildren( element );
+		elements.add( element );
+		return element;
+	}
+
+	private static IdentifyingAttributes identifyingAttributes( final String path, final String type,
+			final String id, final String classes ) {
+		final List<Attribute> attributes =
+				new ArrayList<>( IdentifyingAttributes.createList( Path.fromString( path ), type ) );
+		if ( id != null ) {
+			attributes.add( new StringAttribute( "id", id ) );
+		}
+		if ( classes != null ) {
+			attributes.add( new StringAttribute( "class", classes ) );
+		}
+		return new IdentifyingAttributes( attributes );
+	}
 }
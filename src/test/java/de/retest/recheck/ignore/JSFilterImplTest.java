@@ -4,10 +4,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
 import java.awt.Rectangle;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -217,4 +225,89 @@ class JSFilterImplTest {
 		cut.matches( mock( Element.class ), mock( AttributeDifference.class ) );
 		assertThat( warningAndErrorLogs.size() ).isEqualTo( 1 );
 	}
+
+	@Test
+	void legacy_functions_should_be_called_without_matches() {
+		final JSFilterImpl cut = new JSFilterImpl( ctorArg ) {
+			@Override
+			Reader readScriptFile( final Path path ) {
+				return new StringReader( //
+						"function shouldIgnoreElement(element) { return true; }\n" //
+								+ "function shouldIgnoreAttributeDifference(element, diff) {" //
+								+ "  return diff.key == 'a';" //
+								+ "}" );
+			}
+		};
+		final Element element = mock( Element.class );
+		assertThat( cut.matches( element ) ).isTrue();
+		assertThat( cut.matches( element, new AttributeDifference( "a", "1", "2" ) ) ).isTrue();
+		assertThat( cut.matches( element, new AttributeDifference( "b", "1", "2" ) ) ).isFalse();
+	}
+
+	@Test
+	void matches_should_be_called_concurrently() throws Exception {
+		final JSFilterImpl cut = new JSFilterImpl( ctorArg ) {
+			@Override
+			Reader readScriptFile( final Path path ) {
+				return new StringReader( //
+						"var calls = 0;\n" //
+								+ "function matches(element, diff) { calls++; return diff.key == '' + calls; }" );
+			}
+		};
+		final Element element = mock( Element.class );
+		// Each thread has its own scope, so the calls counted by the script equal the calls of the thread.
+		final ThreadLocal<AtomicInteger> calls = ThreadLocal.withInitial( AtomicInteger::new );
+		final Callable<Boolean> matches = () -> cut.matches( element,
+				new AttributeDifference( String.valueOf( calls.get().incrementAndGet() ), "1", "2" ) );
+		// A pool of its own starts a thread for each of the first tasks, independent of the number of processors.
+		final ExecutorService executor = Executors.newFixedThreadPool( 4 );
+		try {
+			for ( final Future<Boolean> result : executor.invokeAll( Collections.nCopies( 1000, matches ) ) ) {
+				assertThat( result.get() ).isTrue();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertThat( warningAndErrorLogs.size() ).isZero();
+	}
+
+	@Test
+	void print_should_be_available() {
+		final JSFilterImpl cut = new JSFilterImpl( ctorArg ) {
+			@Override
+			Reader readScriptFile( final Path path ) {
+				return new StringReader( //
+						"print('loaded');\n" //
+								+ "function matches(element) { print('matching', 42); return true; }" );
+			}
+		};
+		final PrintStream out = System.out;
+		final ByteArrayOutputStream printed = new ByteArrayOutputStream();
+		System.setOut( new PrintStream( printed, true ) );
+		try {
+			assertThat( cut.matches( mock( Element.class ) ) ).isTrue();
+		} finally {
+			System.setOut( out );
+		}
+		assertThat( printed.toString() ).contains( "matching 42" );
+		assertThat( warningAndErrorLogs.size() ).isZero();
+	}
+
+	@Test
+	void java_packages_and_classes_should_be_importable() {
+		final JSFilterImpl cut = new JSFilterImpl( ctorArg ) {
+			@Override
+			Reader readScriptFile( final Path path ) {
+				return new StringReader( //
+						"importPackage(java.awt);\n" //
+								+ "importClass(java.util.Collections);\n" //
+								+ "function matches(element) {\n" //
+								+ "  return new Rectangle(1, 2, 3, 4).width == 3\n" //
+								+ "      && Collections.emptyList().isEmpty();\n" //
+								+ "}" );
+			}
+		};
+		assertThat( cut.matches( mock( Element.class ) ) ).isTrue();
+		assertThat( warningAndErrorLogs.size() ).isZero();
+	}
 }
@@ -0,0 +1,223 @@
+package de.retest.recheck.persistence.bin;
+
+import static de.retest.recheck.ui.descriptors.SutStateTestUtils.createState;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.awt.Rectangle;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junitpioneer.jupiter.ClearSystemProperty;
+
+import de.retest.recheck.RecheckProperties;
+import de.retest.recheck.persistence.FileOutputFormat;
+import de.retest.recheck.persistence.Persistence;
+import de.retest.recheck.persistence.PersistenceFactory;
+import de.retest.recheck.persistence.xml.XmlTransformer;
+import de.retest.recheck.report.TestReport;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.MutableAttributes;
+import de.retest.recheck.ui.descriptors.RootElement;
+import de.retest.recheck.ui.descriptors.SutState;
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
+
+class BinaryPersistenceTest {
+
+	BinaryPersistence<SutState> cut;
+	File baseFolder;
+
+	@BeforeEach
+	void setUp( @TempDir final Path temp ) {
+		cut = new BinaryPersistence<>( new XmlTransformer() );
+		baseFolder = temp.toFile();
+	}
+
+	@Test
+	void saved_state_should_be_loaded_unchanged() throws Exception {
+		final SutState state = createState( new Screenshot( "window", "png".getBytes(), ImageType.PNG ) );
+
+		cut.save( baseFolder.toURI(), state );
+		final SutState loaded = cut.load( baseFolder.toURI() );
+
+		assertThat( new File( baseFolder, RecheckProperties.DEFAULT_BINARY_FILE_NAME ) ).exists();
+		assertThat( new File( baseFolder, RecheckProperties.SCREENSHOT_FOLDER_NAME + "/window.png" ) ).exists();
+		assertThat( loaded ).isEqualTo( state );
+		assertThat( loaded.getMetadata() ).isEqualTo( state.getMetadata() );
+
+		final RootElement expectedRoot = state.getRootElements().get( 0 );
+		final RootElement loadedRoot = loaded.getRootElements().get( 0 );
+		assertThat( loadedRoot.getRetestId() ).isEqualTo( expectedRoot.getRetestId() );
+		assertThat( loadedRoot.getScreen() ).isEqualTo( expectedRoot.getScreen() );
+		assertThat( loadedRoot.getScreenId() ).isEqualTo( expectedRoot.getScreenId() );
+		assertThat( loadedRoot.getTitle() ).isEqualTo( expectedRoot.getTitle() );
+		assertThat( loadedRoot.getScreenshot() ).isEqualTo( expectedRoot.getScreenshot() );
+
+		final Element expectedChild = expectedRoot.getContainedElements().get( 0 );
+		final Element loadedChild = loadedRoot.getContainedElements().get( 0 );
+		assertThat( loadedChild.getRetestId() ).isEqualTo( expectedChild.getRetestId() );
+		assertThat( loadedChild.getParent() ).isSameAs( loadedRoot );
+		assertThat( loadedChild.getIdentifyingAttributes().getAttributes() )
+				.containsExactlyElementsOf( expectedChild.getIdentifyingAttributes().getAttributes() );
+		assertThat( (Object) loadedChild.getAttributes() ).isEqualTo( expectedChild.getAttributes() );
+		assertThat( loadedChild.getContainedElements().get( 0 ).getRetestId() ).isEqualTo( "label" );
+	}
+
+	@Test
+	void missing_screenshot_should_be_dropped() throws Exception {
+		cut.save( baseFolder.toURI(), createState( new Screenshot( "window", "png".getBytes(), ImageType.PNG ) ) );
+		Files.delete( new File( baseFolder, RecheckProperties.SCREENSHOT_FOLDER_NAME + "/window.png" ).toPath() );
+
+		final SutState loaded = cut.load( baseFolder.toURI() );
+
+		assertThat( loaded.getRootElements().get( 0 ).getScreenshot() ).isNull();
+	}
+
+	@Test
+	void other_persistables_should_not_be_supported() {
+		final BinaryPersistence<TestReport> cut = new BinaryPersistence<>( new XmlTransformer() );
+
+		assertThatThrownBy( () -> cut.save( baseFolder.toURI(), new TestReport() ) )
+				.isInstanceOf( IllegalArgumentException.class );
+	}
+
+	@Test
+	void loaded_state_should_be_saved_again() throws Exception {
+		final SutState state = createState( new Screenshot( "window", "png".getBytes(), ImageType.PNG ) );
+		cut.save( baseFolder.toURI(), state );
+
+		cut.save( baseFolder.toURI(), cut.load( baseFolder.toURI() ) );
+
+		assertThat( cut.load( baseFolder.toURI() ) ).isEqualTo( state );
+	}
+
+	@Test
+	void values_of_other_types_should_not_be_java_serialized() throws Exception {
+		cut.save( baseFolder.toURI(), createState( null ) );
+
+		final byte[] bytes = Files.readAllBytes( binaryFile() );
+		final byte[] serializationMagic = { (byte) 0xAC, (byte) 0xED, 0x00, 0x05 };
+		for ( int i = 0; i + serializationMagic.length <= bytes.length; i++ ) {
+			assertThat( Arrays.copyOfRange( bytes, i, i + serializationMagic.length ) )
+					.isNotEqualTo( serializationMagic );
+		}
+	}
+
+	@Test
+	void values_not_bound_to_jaxb_should_not_be_saved() throws Exception {
+		final SutState saved = createState( new Screenshot( "window", "png".getBytes(), ImageType.PNG ) );
+		cut.save( baseFolder.toURI(), saved );
+		final SutState state = createState( null );
+		final Element button = state.getRootElements().get( 0 ).getContainedElements().get( 0 );
+		final MutableAttributes attributes = new MutableAttributes();
+		attributes.put( "color", new Rectangle( 1, 1, 1, 1 ) );
+		button.addChildren( Element.create( "unbound", button, button.getIdentifyingAttributes(),
+				attributes.immutable() ) );
+
+		assertThatThrownBy( () -> cut.save( baseFolder.toURI(), state ) )
+				.hasMessageContaining( "Cannot write 'java.awt.Rectangle" );
+		assertThat( cut.load( baseFolder.toURI() ) ).isEqualTo( saved );
+	}
+
+	@Test
+	@ClearSystemProperty( key = RecheckProperties.FILE_OUTPUT_FORMAT_PROPERTY_KEY )
+	void switching_formats_should_not_load_outdated_file() throws Exception {
+		final Persistence<SutState> persistence = new PersistenceFactory( new XmlTransformer() ).getPersistence();
+		final SutState first = createState( new Screenshot( "window", "png".getBytes(), ImageType.PNG ) );
+		final de.retest.recheck.ui.Path dialogPath = de.retest.recheck.ui.Path.fromString( "Dialog[1]" );
+		final RootElement dialog = new RootElement( "dialog",
+				IdentifyingAttributes.create( dialogPath, "javax.swing.JDialog" ), new MutableAttributes().immutable(),
+				null, "screen", 1, "Dialog" );
+		final SutState second = new SutState( Collections.singletonList( dialog ) );
+		final File xmlFile = new File( baseFolder, RecheckProperties.DEFAULT_XML_FILE_NAME );
+
+		System.setProperty( RecheckProperties.FILE_OUTPUT_FORMAT_PROPERTY_KEY, FileOutputFormat.BINARY.name() );
+		persistence.save( baseFolder.toURI(), first );
+		System.setProperty( RecheckProperties.FILE_OUTPUT_FORMAT_PROPERTY_KEY, FileOutputFormat.PLAIN.name() );
+		persistence.save( baseFolder.toURI(), second );
+
+		assertThat( binaryFile() ).doesNotExist();
+		assertThat( persistence.load( baseFolder.toURI() ) ).isEqualTo( second );
+		System.setProperty( RecheckProperties.FILE_OUTPUT_FORMAT_PROPERTY_KEY, FileOutputFormat.BINARY.name() );
+		assertThat( persistence.load( baseFolder.toURI() ) ).isEqualTo( second );
+
+		persistence.save( baseFolder.toURI(), first );
+
+		assertThat( xmlFile ).doesNotExist();
+		assertThat( persistence.load( baseFolder.toURI() ) ).isEqualTo( first );
+		System.setProperty( RecheckProperties.FILE_OUTPUT_FORMAT_PROPERTY_KEY, FileOutputFormat.PLAIN.name() );
+		assertThat( persistence.load( baseFolder.toURI() ) ).isEqualTo( first );
+	}
+
+	@Test
+	void corrupt_file_should_not_be_loaded() throws Exception {
+		Files.write( binaryFile(), "<xml/>".getBytes() );
+
+		assertThatThrownBy( () -> cut.load( baseFolder.toURI() ) ).isInstanceOf( IOException.class );
+	}
+
+	@Test
+	void truncated_file_should_not_be_loaded() throws Exception {
+		cut.save( baseFolder.toURI(), createState( null ) );
+		final byte[] bytes = Files.readAllBytes( binaryFile() );
+
+		for ( final int length : new int[] { 10, bytes.length / 2, bytes.length - 1 } ) {
+			Files.write( binaryFile(), Arrays.copyOf( bytes, length ) );
+
+			assertThatThrownBy( () -> cut.load( baseFolder.toURI() ) ).isInstanceOf( IOException.class );
+		}
+	}
+
+	@Test
+	void invalid_lengths_should_not_be_loaded() throws Exception {
+		cut.save( baseFolder.toURI(), createState( null ) );
+		final byte[] bytes = Files.readAllBytes( binaryFile() );
+
+		// The string count and the length of the first string follow the magic and the two versions.
+		for ( final int position : new int[] { 12, 16 } ) {
+			for ( final int value : new int[] { -1, Integer.MAX_VALUE } ) {
+				final byte[] corrupt = bytes.clone();
+				ByteBuffer.wrap( corrupt ).putInt( position, value );
+				Files.write( binaryFile(), corrupt, StandardOpenOption.TRUNCATE_EXISTING );
+
+				assertThatThrownBy( () -> cut.load( baseFolder.toURI() ) ).isInstanceOf( IOException.class );
+			}
+		}
+	}
+
+	@Test
+	void wrong_element_length_should_not_be_loaded() throws Exception {
+		cut.save( baseFolder.toURI(), createState( null ) );
+		final ByteBuffer buffer = ByteBuffer.wrap( Files.readAllBytes( binaryFile() ) );
+
+		// Skip the magic, the versions, the strings and the metadata to the length of the root element.
+		buffer.position( 12 );
+		for ( int strings = buffer.getInt(); strings > 0; strings-- ) {
+			final int length = buffer.getInt();
+			buffer.position( buffer.position() + length );
+		}
+		final int metadata = buffer.getInt();
+		final int lengthPosition = buffer.position() + metadata * 2 * Integer.BYTES + Integer.BYTES;
+		buffer.putInt( lengthPosition, buffer.getInt( lengthPosition ) - 1 );
+		Files.write( binaryFile(), buffer.array() );
+
+		assertThatThrownBy( () -> cut.load( baseFolder.toURI() ) ).isInstanceOf( IOException.class )
+				.hasRootCauseMessage( "Element 'window' has length %d, but %d bytes were read.",
+						buffer.getInt( lengthPosition ), buffer.getInt( lengthPosition ) + 1 );
+	}
+
+	private Path binaryFile() {
+		return new File( baseFolder, RecheckProperties.DEFAULT_BINARY_FILE_NAME ).toPath();
+	}
+}
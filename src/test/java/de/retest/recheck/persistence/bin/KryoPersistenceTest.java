@@ -9,22 +9,30 @@ import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import com.esotericsoftware.kryo.kryo5.Kryo;
 import com.esotericsoftware.kryo.kryo5.KryoException;
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
 
 import de.retest.recheck.persistence.IncompatibleReportVersionException;
 import de.retest.recheck.persistence.Persistable;
 import de.retest.recheck.report.SuiteReplayResult;
 import de.retest.recheck.report.TestReport;
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
 import de.retest.recheck.util.VersionProvider;
 
 class KryoPersistenceTest {
@@ -44,6 +52,41 @@ class KryoPersistenceTest {
 				.isEqualTo( persisted.getSuiteReplayResults().get( 0 ).getName() );
 	}
 
+	@Test
+	void concurrent_roundtrips_should_work( @TempDir final Path temp ) throws Exception {
+		final List<String> names = IntStream.range( 0, 16 ).mapToObj( i -> "suite-" + i ).collect( Collectors.toList() );
+
+		final List<String> loaded = names.parallelStream().map( name -> {
+			final URI identifier = temp.resolve( name ).toUri();
+			final KryoPersistence<TestReport> kryoPersistence = new KryoPersistence<>();
+			final TestReport report = new TestReport( new SuiteReplayResult( name, 23, null, "00", null ) );
+			try {
+				kryoPersistence.save( identifier, report );
+				return kryoPersistence.load( identifier ).getSuiteReplayResults().get( 0 ).getName();
+			} catch ( final IOException e ) {
+				throw new UncheckedIOException( e );
+			}
+		} ).collect( Collectors.toList() );
+
+		assertThat( loaded ).isEqualTo( names );
+	}
+
+	@Test
+	void lazily_loaded_screenshot_should_be_written_with_data() {
+		final Kryo kryo = new Kryo();
+		KryoRegister.addRecheckClasses( kryo );
+		KryoRegister.addUsedJdkClasses( kryo );
+		final byte[] data = { 1, 2, 3 };
+		final Screenshot screenshot = new Screenshot( "some", new byte[0], ImageType.PNG );
+		screenshot.setBinaryDataLoader( () -> data );
+
+		final Output output = new Output( 1024 );
+		kryo.writeObject( output, screenshot );
+		final Screenshot loaded = kryo.readObject( new Input( output.toBytes() ), Screenshot.class );
+
+		assertThat( loaded.getBinaryData() ).isEqualTo( data );
+	}
+
 	public TestReport createDummyTest() {
 		final SuiteReplayResult suite = new SuiteReplayResult( "test", 23, null, "00", null );
 		return new TestReport( suite );
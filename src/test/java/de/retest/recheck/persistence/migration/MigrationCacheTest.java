@@ -0,0 +1,131 @@
+package de.retest.recheck.persistence.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.retest.recheck.util.NamedBufferedInputStream;
+
+class MigrationCacheTest {
+
+	File folder;
+	MigrationCache cache;
+	AtomicInteger migrations;
+	UnaryOperator<NamedBufferedInputStream> migration;
+
+	@BeforeEach
+	void setUp( @TempDir final Path temp ) {
+		folder = temp.toFile();
+		cache = new MigrationCache( folder, "1.0.0-SNAPSHOT" );
+		migrations = new AtomicInteger();
+		migration = outdated -> {
+			migrations.incrementAndGet();
+			try {
+				final String content = IOUtils.toString( outdated, StandardCharsets.UTF_8 );
+				return stream( content.toUpperCase() );
+			} catch ( final IOException e ) {
+				throw new RuntimeException( e );
+			}
+		};
+	}
+
+	@Test
+	void file_should_be_migrated_only_once() throws Exception {
+		assertThat( migrate( "old" ) ).isEqualTo( "OLD" );
+		assertThat( migrate( "old" ) ).isEqualTo( "OLD" );
+
+		assertThat( migrations ).hasValue( 1 );
+	}
+
+	@Test
+	void changed_file_should_be_migrated_again() throws Exception {
+		assertThat( migrate( "old" ) ).isEqualTo( "OLD" );
+		assertThat( migrate( "older" ) ).isEqualTo( "OLDER" );
+
+		assertThat( migrations ).hasValue( 2 );
+	}
+
+	@Test
+	void other_version_should_migrate_again() throws Exception {
+		assertThat( migrate( "old" ) ).isEqualTo( "OLD" );
+		cache = new MigrationCache( folder, "1.0.1" );
+		assertThat( migrate( "old" ) ).isEqualTo( "OLD" );
+
+		assertThat( migrations ).hasValue( 2 );
+	}
+
+	@Test
+	void failed_migration_should_not_be_cached() throws Exception {
+		assertThatThrownBy( () -> cache.migrate( stream( "old" ), outdated -> {
+			throw new IllegalStateException( "failed" );
+		} ) ).isInstanceOf( IllegalStateException.class );
+
+		assertThat( folder.listFiles() ).isEmpty();
+		assertThat( migrate( "old" ) ).isEqualTo( "OLD" );
+	}
+
+	@Test
+	void cached_file_should_not_be_read_as_stream( @TempDir final Path temp ) throws Exception {
+		final File file = temp.resolve( "retest.xml" ).toFile();
+		Files.write( file.toPath(), "old".getBytes( StandardCharsets.UTF_8 ) );
+		try ( final NamedBufferedInputStream bin = new NamedBufferedInputStream( file, file.getName() ) ) {
+			assertThat( read( cache.migrate( bin, migration ) ) ).isEqualTo( "OLD" );
+		}
+
+		try ( final NamedBufferedInputStream bin = new NamedBufferedInputStream( file, file.getName() ) ) {
+			assertThat( read( cache.migrate( bin, migration ) ) ).isEqualTo( "OLD" );
+			assertThat( IOUtils.toString( bin, StandardCharsets.UTF_8 ) ).isEqualTo( "old" );
+		}
+		assertThat( migrate( "old" ) ).isEqualTo( "OLD" );
+
+		assertThat( migrations ).hasValue( 1 );
+		assertThat( folder.listFiles() ).hasSize( 1 );
+	}
+
+	@Test
+	void failed_read_should_not_leave_copy() throws Exception {
+		final InputStream failing = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException( "failed" );
+			}
+		};
+
+		assertThatThrownBy( () -> cache.migrate( new NamedBufferedInputStream( failing, "retest.xml" ), migration ) )
+				.isInstanceOf( IOException.class );
+
+		assertThat( folder.listFiles() ).isEmpty();
+		assertThat( migrations ).hasValue( 0 );
+	}
+
+	private String migrate( final String content ) throws IOException {
+		try ( final NamedBufferedInputStream migrated = cache.migrate( stream( content ), migration ) ) {
+			return IOUtils.toString( migrated, StandardCharsets.UTF_8 );
+		}
+	}
+
+	private static String read( final NamedBufferedInputStream migrated ) throws IOException {
+		try ( final NamedBufferedInputStream in = migrated ) {
+			return IOUtils.toString( in, StandardCharsets.UTF_8 );
+		}
+	}
+
+	private static NamedBufferedInputStream stream( final String content ) {
+		return new NamedBufferedInputStream( new ByteArrayInputStream( content.getBytes( StandardCharsets.UTF_8 ) ),
+				"retest.xml" );
+	}
+}
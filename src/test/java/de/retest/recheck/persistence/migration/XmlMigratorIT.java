@@ -8,11 +8,14 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.persistence.migration.transformers.IncompatibleChangesTransformer;
 import de.retest.recheck.persistence.xml.ReTestXmlDataContainer;
 import de.retest.recheck.persistence.xml.XmlTransformer;
@@ -75,6 +78,31 @@ class XmlMigratorIT {
 		ApprovalsUtil.verifyXml( writer.toString() );
 	}
 
+	@Test
+	void migration_result_should_be_cached_if_configured( @TempDir final Path cacheFolder ) throws Exception {
+		final File xmlFile = new File( "src/test/resources/migration/XmlMigratorTest-retest-v3.1.0.xml" );
+		System.setProperty( RecheckProperties.MIGRATION_CACHE_FOLDER_PROPERTY_KEY, cacheFolder.toString() );
+		try {
+			final String migrated = migrate( xmlFile );
+
+			assertThat( cacheFolder.toFile().list() ).hasSize( 1 );
+			assertThat( migrate( xmlFile ) ).isEqualTo( migrated );
+			assertThat( cacheFolder.toFile().list() ).hasSize( 1 );
+		} finally {
+			System.clearProperty( RecheckProperties.MIGRATION_CACHE_FOLDER_PROPERTY_KEY );
+		}
+	}
+
+	private static String migrate( final File xmlFile ) throws Exception {
+		try ( final NamedBufferedInputStream bin =
+				new NamedBufferedInputStream( new FileInputStream( xmlFile ), xmlFile.getName() ) ) {
+			final XmlVersionCheckResult resultChecker = XmlVersionCheckResult.create( bin );
+			try ( final BufferedInputStream migratedXml = XmlMigrator.tryToMigrate( resultChecker, bin ) ) {
+				return IOUtils.toString( migratedXml, StandardCharsets.UTF_8 );
+			}
+		}
+	}
+
 	@Disabled( "Unignore as soon as we have migration steps for retest v2." )
 	@Test
 	void parse_migrated_xml_and_check_result() throws Exception {
@@ -0,0 +1,54 @@
+package de.retest.recheck.persistence.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import de.retest.recheck.persistence.migration.transformers.ContainedComponents2ContainedElementsTransformer;
+import de.retest.recheck.persistence.migration.transformers.Path2XPathTransformer;
+
+class XmlTransformerTest {
+
+	static final String XML = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n" //
+			+ "<reTestXmlDataContainer dataType=\"old\" dataTypeVersion=\"1\">\n" //
+			+ "\t<containedComponents>\n" //
+			+ "\t\t<attribute key=\"path\">Window/JRootPane_0/JPane_1</attribute>\n" //
+			+ "\t\t<remove>Test</remove>\n" //
+			+ "\t\t<attribute key=\"suffix\">1</attribute>\n" //
+			+ "\t</containedComponents>\n" //
+			+ "</reTestXmlDataContainer>";
+
+	@Test
+	void transforming_in_single_pass_should_equal_transforming_one_after_another() throws Exception {
+		final List<XmlTransformer> transformers = Arrays.asList( //
+				new ReplaceAttributeTransformer( "reTestXmlDataContainer", "dataType", ".*", "new" ), //
+				new ReplaceAttributeTransformer( "reTestXmlDataContainer", "dataTypeVersion", ".*", "2" ), //
+				new RemoveElementTransformer( "remove" ), //
+				new Path2XPathTransformer(), //
+				new ContainedComponents2ContainedElementsTransformer() );
+
+		InputStream oneAfterAnother = toStream( XML );
+		for ( final XmlTransformer transformer : transformers ) {
+			oneAfterAnother = transformer.transform( oneAfterAnother );
+		}
+		final String expected = IOUtils.toString( oneAfterAnother, StandardCharsets.UTF_8 );
+
+		final String actual =
+				IOUtils.toString( XmlTransformer.transform( toStream( XML ), transformers ), StandardCharsets.UTF_8 );
+
+		assertThat( actual ).isEqualTo( expected );
+		assertThat( actual ).contains( "dataType=\"new\"", "<containedElements>", "Window/JRootPane[1]/JPane[2]" )
+				.doesNotContain( "remove" );
+	}
+
+	private static InputStream toStream( final String xml ) {
+		return new ByteArrayInputStream( xml.getBytes( StandardCharsets.UTF_8 ) );
+	}
+}
@@ -0,0 +1,58 @@
+package de.retest.recheck.persistence.xml;
+
+import static de.retest.recheck.RecheckProperties.DEFAULT_XML_FILE_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.retest.recheck.XmlTransformerUtil;
+import de.retest.recheck.ui.descriptors.SutState;
+
+class GoldenMasterMigratorTest {
+
+	static final File OUTDATED = new File( "src/test/resources/migration/XmlMigratorTest-retest-v3.1.0.xml" );
+
+	File root;
+	GoldenMasterMigrator migrator;
+
+	@BeforeEach
+	void setUp( @TempDir final Path temp ) {
+		root = temp.toFile();
+		migrator = new GoldenMasterMigrator( XmlTransformerUtil.getXmlTransformer() );
+	}
+
+	@Test
+	void outdated_golden_masters_should_be_migrated_once() throws Exception {
+		final File goldenMaster = new File( root, "com.example.Test/check.recheck" );
+		FileUtils.copyFile( OUTDATED, new File( goldenMaster, DEFAULT_XML_FILE_NAME ) );
+
+		assertThat( migrator.migrateInPlace( root ) ).containsExactly( goldenMaster );
+		assertThat( FileUtils.readFileToString( new File( goldenMaster, DEFAULT_XML_FILE_NAME ), "UTF-8" ) )
+				.contains( "dataTypeVersion=\"" + SutState.PERSISTENCE_VERSION + "\"" );
+
+		assertThat( migrator.migrateInPlace( root ) ).isEmpty();
+	}
+
+	@Test
+	void outdated_zip_golden_masters_should_be_migrated() throws Exception {
+		final File goldenMaster = new File( root, "check.recheck" );
+		try ( final ZipOutputStream out = new ZipOutputStream( new FileOutputStream( goldenMaster ) ) ) {
+			out.putNextEntry( new ZipEntry( DEFAULT_XML_FILE_NAME ) );
+			FileUtils.copyFile( OUTDATED, out );
+		}
+
+		assertThat( migrator.migrateInPlace( root ) ).containsExactly( goldenMaster );
+		assertThat( migrator.migrateInPlace( root ) ).isEmpty();
+		assertThat( new XmlZipPersistence<SutState>( XmlTransformerUtil.getXmlTransformer() )
+				.load( goldenMaster.toURI() ).getRootElements() ).hasSize( 1 );
+	}
+}
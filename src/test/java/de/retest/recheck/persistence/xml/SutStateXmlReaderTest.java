@@ -0,0 +1,125 @@
+package de.retest.recheck.persistence.xml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.retest.recheck.RecheckProperties;
+import de.retest.recheck.XmlTransformerUtil;
+import de.retest.recheck.persistence.xml.util.ScreenshotFolderPersistence;
+import de.retest.recheck.persistence.xml.util.ScreenshotStore;
+import de.retest.recheck.ui.descriptors.Attributes;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.RootElement;
+import de.retest.recheck.ui.descriptors.SutState;
+import de.retest.recheck.ui.descriptors.SutStateTestUtils;
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
+
+class SutStateXmlReaderTest {
+
+	XmlTransformer xml;
+	File baseFolder;
+	ScreenshotFolderPersistence screenshotPersistence;
+
+	@BeforeEach
+	void setUp( @TempDir final Path temp ) {
+		xml = XmlTransformerUtil.getXmlTransformer();
+		baseFolder = temp.toFile();
+		screenshotPersistence = new ScreenshotFolderPersistence( baseFolder, new ScreenshotStore( baseFolder ), false );
+	}
+
+	@Test
+	void state_should_be_read_like_by_jaxb() throws Exception {
+		final String persisted = toXml( createState() );
+
+		final SutState expected = readWithJaxb( persisted );
+		final SutState actual = read( persisted );
+
+		assertThat( actual ).isEqualTo( expected );
+		assertThat( actual.getMetadata() ).isEqualTo( expected.getMetadata() );
+
+		final RootElement expectedRoot = expected.getRootElements().get( 0 );
+		final RootElement actualRoot = actual.getRootElements().get( 0 );
+		assertThat( actualRoot.getRetestId() ).isEqualTo( expectedRoot.getRetestId() );
+		assertThat( actualRoot.getScreen() ).isEqualTo( expectedRoot.getScreen() );
+		assertThat( actualRoot.getScreenId() ).isEqualTo( expectedRoot.getScreenId() );
+		assertThat( actualRoot.getTitle() ).isEqualTo( expectedRoot.getTitle() );
+		assertThat( actualRoot.getScreenshot() ).isEqualTo( expectedRoot.getScreenshot() );
+		assertThat( actualRoot.getScreenshot().getBinaryData() ).isEqualTo( "png".getBytes() );
+		assertThat( actualRoot.getAttributes().get( Attributes.SCREENSHOT ) ).isSameAs( actualRoot.getScreenshot() );
+
+		final Element expectedChild = expectedRoot.getContainedElements().get( 0 );
+		final Element actualChild = actualRoot.getContainedElements().get( 0 );
+		assertThat( actualChild.getRetestId() ).isEqualTo( expectedChild.getRetestId() );
+		assertThat( actualChild.getParent() ).isSameAs( actualRoot );
+		assertThat( actualChild.getIdentifyingAttributes().getAttributes() )
+				.containsExactlyElementsOf( expectedChild.getIdentifyingAttributes().getAttributes() );
+		assertThat( (Object) actualChild.getAttributes() ).isEqualTo( expectedChild.getAttributes() );
+		assertThat( actualChild.getContainedElements().get( 0 ).getParent() ).isSameAs( actualChild );
+	}
+
+	@Test
+	void element_with_invalid_retest_id_should_be_read_by_jaxb() throws Exception {
+		final String persisted = toXml( createState() ).replace( "retestId=\"button\"", "retestId=\"the button\"" );
+
+		final RootElement root = read( persisted ).getRootElements().get( 0 );
+
+		final Element button = root.getContainedElements().get( 0 );
+		assertThat( button.getRetestId() ).isEqualTo( "the button" );
+		assertThat( button.getParent() ).isSameAs( root );
+		assertThat( button.getContainedElements().get( 0 ).getParent() ).isSameAs( button );
+	}
+
+	@Test
+	void missing_screenshot_should_be_dropped() throws Exception {
+		final String persisted = toXml( createState() );
+		Files.delete( new File( baseFolder, RecheckProperties.SCREENSHOT_FOLDER_NAME + "/window.png" ).toPath() );
+
+		final RootElement root = read( persisted ).getRootElements().get( 0 );
+
+		assertThat( root.getScreenshot() ).isNull();
+		assertThat( root.getAttributes().get( Attributes.SCREENSHOT ) ).isNull();
+	}
+
+	@Test
+	void unknown_element_should_not_be_read() throws Exception {
+		final String persisted = toXml( createState() ).replace( "<data xsi:type=\"sutState\">",
+				"<data xsi:type=\"sutState\"><unknown/>" );
+
+		assertThatThrownBy( () -> read( persisted ) ).isInstanceOf( IOException.class );
+	}
+
+	private String toXml( final SutState state ) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		xml.toXML( new ReTestXmlDataContainer<>( state ), out, screenshotPersistence.getMarshallListener() );
+		return new String( out.toByteArray(), StandardCharsets.UTF_8 );
+	}
+
+	private SutState readWithJaxb( final String persisted ) {
+		final ReTestXmlDataContainer<SutState> container =
+				xml.fromXML( new ByteArrayInputStream( persisted.getBytes( StandardCharsets.UTF_8 ) ),
+						screenshotPersistence.getUnmarshallListener() );
+		return container.data();
+	}
+
+	private SutState read( final String persisted ) throws Exception {
+		return new SutStateXmlReader( xml, screenshotPersistence.getUnmarshallListener() )
+				.read( new ByteArrayInputStream( persisted.getBytes( StandardCharsets.UTF_8 ) ) ).data();
+	}
+
+	private static SutState createState() {
+		return SutStateTestUtils.createState( new Screenshot( "window", "png".getBytes(), ImageType.PNG ) );
+	}
+}
@@ -35,8 +35,9 @@ class XmlTransformerTest {
 				.getContainedElements().get( 0 ); // meta[3]
 
 		/*
-		 * XXX See path in line 130, retest ID in line 114, both in state1.xml. If we reuse the JAXBContext in
-		 * XmlTransformer, then the retest ID becomes the one from html[1]/head[1]/meta[3] in state0.xml.
+		 * XXX See path in line 130, retest ID in line 114, both in state1.xml. If the RenderContainedElementsAdapter of
+		 * the reused JAXBContext is shared by both unmarshallers, then the retest ID becomes the one from
+		 * html[1]/head[1]/meta[3] in state0.xml.
 		 */
 		assertThat( meta3.getIdentifyingAttributes().getPath() ).isEqualTo( "html[1]/head[1]/meta[3]" );
 		assertThat( meta3.getRetestId() ).isEqualTo( "meta-afc35" );
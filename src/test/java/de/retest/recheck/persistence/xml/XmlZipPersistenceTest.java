@@ -44,6 +44,12 @@ class XmlZipPersistenceTest {
 		ApprovalsUtil.verifyXml( readReTestXml( baseFolder ) );
 	}
 
+	@Test
+	void invalid_compression_level_should_be_rejected() {
+		assertThatThrownBy( () -> new XmlZipPersistence<>( xmlTransformer, 10, true ) )
+				.isInstanceOf( IllegalArgumentException.class );
+	}
+
 	String readReTestXml( final File file ) throws IOException {
 		return FileUtil.readFromZipFile( file, in -> {
 			final ZipEntry entry = in.getEntry( "retest.xml" );
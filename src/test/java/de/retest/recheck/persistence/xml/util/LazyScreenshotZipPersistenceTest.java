@@ -141,6 +141,26 @@ class LazyScreenshotZipPersistenceTest {
 		} );
 	}
 
+	@Test
+	void screenshots_should_be_stored_uncompressed() throws Exception {
+		final File zipFile = getTmpZipfile();
+
+		screenshotPersistence.screenshots.add( screenshot1 );
+
+		writeToFile( zipFile, out -> {
+			final ZipOutputStream zout = new ZipOutputStream( out );
+			screenshotPersistence.saveScreenshotsNow( zout, true );
+			zout.finish();
+		} );
+
+		readFromZipFile( zipFile, in -> {
+			final ZipEntry entry = in.getEntry( path1 );
+			assertThat( entry.getMethod() ).isEqualTo( ZipEntry.STORED );
+			assertThat( IOUtils.toByteArray( in.getInputStream( entry ) ) ).isEqualTo( imageBytes1 );
+			return null;
+		} );
+	}
+
 	@Test
 	void writing_of_duplicates() throws Exception {
 		final File zipFile = getTmpZipfile();
@@ -4,6 +4,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verifyNoInteractions;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -12,8 +14,13 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.junitpioneer.jupiter.ClearSystemProperty;
 
+import de.retest.recheck.RecheckProperties;
 import de.retest.recheck.persistence.Persistable;
+import de.retest.recheck.persistence.ProjectLayout;
+import de.retest.recheck.persistence.SeparatePathsProjectLayout;
+import de.retest.recheck.persistence.xml.XmlTransformer;
 import de.retest.recheck.ui.image.Screenshot;
 import de.retest.recheck.ui.image.Screenshot.ImageType;
 import de.retest.recheck.util.FileUtil;
@@ -114,6 +121,81 @@ class ScreenshotFolderPersistenceTest {
 		assertThat( emptyScreenshot.getBinaryData() ).isEqualTo( filledImageBytes );
 	}
 
+	@Test
+	void load_image_on_demand() throws Exception {
+		createImageFileForEmptyScreenshot();
+
+		screenshotPersistence.getUnmarshallListener().afterUnmarshal( emptyScreenshot, null );
+		final byte[] changedImageBytes = "testcontent2".getBytes();
+		FileUtil.writeToFile( emptyImageFile, out -> out.write( changedImageBytes ) );
+
+		assertThat( emptyScreenshot.getBinaryData() ).isEqualTo( changedImageBytes );
+	}
+
+	@Test
+	void save_lazily_loaded_screenshot_to_its_own_file() throws Exception {
+		createImageFileForEmptyScreenshot();
+		screenshotPersistence.getUnmarshallListener().afterUnmarshal( emptyScreenshot, null );
+
+		screenshotPersistence.getMarshallListener().afterMarshal( emptyScreenshot );
+
+		assertThat( emptyImageFile ).hasBinaryContent( filledImageBytes );
+	}
+
+	@Test
+	void sha_should_be_persisted_with_screenshot() throws Exception {
+		final XmlTransformer xml = new XmlTransformer( ScreenshotTransformerTestJaxbClass.class );
+		final ScreenshotTransformerTestJaxbClass persisted = new ScreenshotTransformerTestJaxbClass();
+		persisted.setScreenshot( filledScreenshot );
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		xml.toXML( persisted, out, screenshotPersistence.getMarshallListener() );
+		// Loading must not be needed to compare the screenshot.
+		FileUtil.writeToFile( filledImageFile, fileOut -> fileOut.write( "modified".getBytes() ) );
+
+		final ScreenshotTransformerTestJaxbClass loaded = xml.fromXML(
+				new ByteArrayInputStream( out.toByteArray() ), screenshotPersistence.getUnmarshallListener() );
+
+		assertThat( out.toString() ).contains( "<sha256>" + filledScreenshot.getSha256() + "</sha256>" );
+		assertThat( loaded.getScreenshot() ).isEqualTo( filledScreenshot );
+	}
+
+	@Test
+	void screenshot_should_be_saved_to_and_loaded_from_store() throws Exception {
+		final ScreenshotStore store = new ScreenshotStore( baseFolder );
+		final ScreenshotFolderPersistence cut = new ScreenshotFolderPersistence( baseFolder, store, true );
+		final XmlTransformer xml = new XmlTransformer( ScreenshotTransformerTestJaxbClass.class );
+		final ScreenshotTransformerTestJaxbClass persisted = new ScreenshotTransformerTestJaxbClass();
+		persisted.setScreenshot( filledScreenshot );
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		xml.toXML( persisted, out, cut.getMarshallListener() );
+
+		final ScreenshotTransformerTestJaxbClass loaded =
+				xml.fromXML( new ByteArrayInputStream( out.toByteArray() ), cut.getUnmarshallListener() );
+
+		assertThat( screenshotFolder ).doesNotExist();
+		assertThat( store.getFile( filledScreenshot.getSha256(), ImageType.PNG ) ).hasBinaryContent( filledImageBytes );
+		assertThat( loaded.getScreenshot().getBinaryData() ).isEqualTo( filledImageBytes );
+	}
+
+	@Test
+	@ClearSystemProperty( key = RecheckProperties.SCREENSHOT_STORE_ENABLED_PROPERTY_KEY )
+	void screenshots_should_be_saved_to_store_of_given_layout() throws Exception {
+		System.setProperty( RecheckProperties.SCREENSHOT_STORE_ENABLED_PROPERTY_KEY, "true" );
+		final ProjectLayout layout = new SeparatePathsProjectLayout( baseFolder.toPath(), baseFolder.toPath() );
+		final File first = new File( baseFolder, "com.example.FirstTest/check.recheck" );
+		final File second = new File( baseFolder, "com.example.SecondTest/check.recheck" );
+
+		new ScreenshotFolderPersistence( first, layout ).saveScreenshot( filledScreenshot );
+		new ScreenshotFolderPersistence( second, layout )
+				.saveScreenshot( new Screenshot( "other", filledImageBytes, ImageType.PNG ) );
+
+		final File stored = new ScreenshotStore( baseFolder ).getFile( filledScreenshot.getSha256(), ImageType.PNG );
+		assertThat( stored ).hasBinaryContent( filledImageBytes );
+		assertThat( stored.getParentFile().list() ).hasSize( 1 );
+		assertThat( new File( first, ScreenshotStore.STORE_FOLDER_NAME ) ).doesNotExist();
+		assertThat( new File( second, ScreenshotStore.STORE_FOLDER_NAME ) ).doesNotExist();
+	}
+
 	@Test
 	void load_not_existing_image_to_screenshot() {
 		final Pair<Screenshot, Screenshot> parent = Pair.of( emptyScreenshot, emptyScreenshot );
@@ -0,0 +1,114 @@
+package de.retest.recheck.persistence.xml.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import de.retest.recheck.RecheckProperties;
+import de.retest.recheck.persistence.MavenProjectLayout;
+import de.retest.recheck.persistence.ProjectLayout;
+import de.retest.recheck.persistence.SeparatePathsProjectLayout;
+import de.retest.recheck.ui.image.Screenshot;
+import de.retest.recheck.ui.image.Screenshot.ImageType;
+
+class ScreenshotStoreTest {
+
+	File root;
+	ScreenshotStore cut;
+
+	Screenshot screenshot;
+	File screenshotFile;
+
+	@BeforeEach
+	void setUp( @TempDir final Path temp ) {
+		root = new File( temp.toFile(), RecheckProperties.RECHECK_FOLDER_NAME );
+		cut = new ScreenshotStore( root );
+
+		screenshot = new Screenshot( "window", "content".getBytes(), ImageType.PNG );
+		screenshotFile = cut.getFile( screenshot.getSha256(), ImageType.PNG );
+	}
+
+	@Test
+	void store_should_be_located_in_parent_of_suite_folders() {
+		final File goldenMaster = new File( root, "com.example.Test/check.recheck" );
+		final ProjectLayout layout = new SeparatePathsProjectLayout( root.toPath(), root.toPath() );
+
+		final ScreenshotStore store = ScreenshotStore.forGoldenMaster( goldenMaster, layout );
+
+		assertThat( store.getFile( screenshot.getSha256(), ImageType.PNG ) )
+				.isEqualTo( screenshotFile.getAbsoluteFile() );
+	}
+
+	@Test
+	void store_should_be_located_by_detected_project_layout() {
+		final File goldenMasters = new File( MavenProjectLayout.DEFAULT_RETEST_PROJECT_PATH,
+				RecheckProperties.RECHECK_FOLDER_NAME );
+		final File goldenMaster = new File( goldenMasters, "com.example.Test/check.recheck" );
+
+		final ScreenshotStore store = ScreenshotStore.forGoldenMaster( goldenMaster );
+
+		assertThat( store.getFile( screenshot.getSha256(), ImageType.PNG ).getPath() ).startsWith(
+				new File( goldenMasters, ScreenshotStore.STORE_FOLDER_NAME ).getAbsolutePath() );
+	}
+
+	@Test
+	void store_should_default_to_parent_folder() {
+		final File suiteFolder = new File( root, "custom/com.example.Test" );
+		final File goldenMaster = new File( suiteFolder, "check.recheck" );
+		final ProjectLayout layout = new SeparatePathsProjectLayout( root.toPath(), root.toPath() );
+
+		for ( final ProjectLayout projectLayout : Arrays.asList( layout, null ) ) {
+			final ScreenshotStore store = ScreenshotStore.forGoldenMaster( goldenMaster, projectLayout );
+
+			assertThat( store.getFile( screenshot.getSha256(), ImageType.PNG ).getPath() )
+					.startsWith( new File( suiteFolder, ScreenshotStore.STORE_FOLDER_NAME ).getAbsolutePath() );
+		}
+	}
+
+	@Test
+	void saved_screenshot_should_be_loaded() throws Exception {
+		cut.save( screenshot );
+
+		assertThat( screenshotFile ).hasBinaryContent( "content".getBytes() );
+		assertThat( cut.getBinaryDataLoader( screenshot.getSha256(), ImageType.PNG ).load() )
+				.isEqualTo( "content".getBytes() );
+	}
+
+	@Test
+	void identical_screenshots_should_be_saved_once() throws Exception {
+		cut.save( screenshot );
+		cut.save( new Screenshot( "other", "content".getBytes(), ImageType.PNG ) );
+
+		assertThat( screenshotFile.getParentFile().list() ).hasSize( 1 );
+	}
+
+	@Test
+	void missing_or_invalid_hash_should_not_be_loaded() {
+		assertThat( cut.getBinaryDataLoader( screenshot.getSha256(), ImageType.PNG ) ).isNull();
+		assertThat( cut.getBinaryDataLoader( null, ImageType.PNG ) ).isNull();
+		assertThat( cut.getBinaryDataLoader( "../../secret", ImageType.PNG ) ).isNull();
+	}
+
+	@Test
+	void garbage_collection_should_remove_only_unreferenced_screenshots() throws Exception {
+		final Screenshot unreferenced = new Screenshot( "other", "other".getBytes(), ImageType.PNG );
+		cut.save( screenshot );
+		cut.save( unreferenced );
+		final File goldenMaster = new File( root, "com.example.Test/check.recheck" );
+		goldenMaster.mkdirs();
+		Files.write( new File( goldenMaster, RecheckProperties.DEFAULT_XML_FILE_NAME ).toPath(),
+				("<screenshot><sha256>" + screenshot.getSha256() + "</sha256></screenshot>").getBytes() );
+
+		assertThat( cut.collectGarbage() ).isEqualTo( 1 );
+
+		assertThat( screenshotFile ).exists();
+		assertThat( cut.getFile( unreferenced.getSha256(), ImageType.PNG ) ).doesNotExist();
+	}
+}
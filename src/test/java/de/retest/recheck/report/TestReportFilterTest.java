@@ -14,6 +14,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -375,6 +377,53 @@ class TestReportFilterTest {
 		assertThat( differences ).containsExactly( notFilterMe );
 	}
 
+	@Test
+	void test_replay_result_should_be_filtered_in_parallel_keeping_order() throws Exception {
+		final TestReplayResult testReplayResult = new TestReplayResult( "test", 1 );
+		for ( int i = 0; i < 100; i++ ) {
+			final ActionReplayResult actionReplayResult = mock( ActionReplayResult.class );
+			when( actionReplayResult.getMetadataDifference() ).thenReturn( MetadataDifference.empty() );
+			when( actionReplayResult.getStateDifference() ).thenReturn( stateDiff );
+			when( actionReplayResult.getDuration() ).thenReturn( (long) i );
+			testReplayResult.addAction( actionReplayResult );
+		}
+		assertThat( filter.isThreadSafe() ).isTrue();
+
+		final TestReplayResult filtered = new TestReportFilter( filter, true ).filter( testReplayResult );
+
+		assertThat( filtered.getActionReplayResults() ).extracting( ActionReplayResult::getDuration )
+				.containsExactlyElementsOf( testReplayResult.getActionReplayResults().stream()
+						.map( ActionReplayResult::getDuration ).collect( Collectors.toList() ) );
+		assertThat( filtered.getActionReplayResults() ).allSatisfy( action -> assertThat( action
+				.getStateDifference().getRootElementDifferences().get( 0 ).getElementDifference()
+				.getAttributesDifference().getDifferences() ).containsExactly( notFilterMe ) );
+	}
+
+	@Test
+	void parallel_filter_should_filter_sequentially_if_filter_is_not_thread_safe() throws Exception {
+		final TestReplayResult testReplayResult = new TestReplayResult( "test", 1 );
+		for ( int i = 0; i < 100; i++ ) {
+			final ActionReplayResult actionReplayResult = mock( ActionReplayResult.class );
+			when( actionReplayResult.getMetadataDifference() ).thenReturn( MetadataDifference.empty() );
+			when( actionReplayResult.getStateDifference() ).thenReturn( stateDiff );
+			testReplayResult.addAction( actionReplayResult );
+		}
+		final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		final Filter notThreadSafe = mock( Filter.class );
+		when( notThreadSafe.matches( any(), any( AttributeDifference.class ) ) ).then( invocation -> {
+			threads.add( Thread.currentThread() );
+			return ((AttributeDifference) invocation.getArgument( 1 )).getKey().equals( "filterMe" );
+		} );
+		assertThat( notThreadSafe.isThreadSafe() ).isFalse();
+
+		final TestReplayResult filtered = new TestReportFilter( notThreadSafe, true ).filter( testReplayResult );
+
+		assertThat( threads ).containsExactly( Thread.currentThread() );
+		assertThat( filtered.getActionReplayResults() ).allSatisfy( action -> assertThat( action
+				.getStateDifference().getRootElementDifferences().get( 0 ).getElementDifference()
+				.getAttributesDifference().getDifferences() ).containsExactly( notFilterMe ) );
+	}
+
 	@Test
 	void suite_replay_result_should_be_filtered_properly() throws Exception {
 		final SuiteReplayResult filteredSuiteReplayResult = cut.filter( suiteReplayResult );
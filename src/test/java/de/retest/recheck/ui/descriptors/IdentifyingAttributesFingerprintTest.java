@@ -0,0 +1,90 @@
+package de.retest.recheck.ui.descriptors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.retest.recheck.ignore.GloballyIgnoredAttributes;
+import de.retest.recheck.ui.Path;
+
+class IdentifyingAttributesFingerprintTest {
+
+	private final Path path = Path.fromString( "Window[1]/path[1]/component[1]" );
+
+	@Test
+	void match_should_respect_attribute_types() {
+		final List<Attribute> stringAttributes = IdentifyingAttributes.createList( path, "Component" );
+		stringAttributes.add( new StringAttribute( "text", "some text" ) );
+		final List<Attribute> textAttributes = IdentifyingAttributes.createList( path, "Component" );
+		textAttributes.add( new TextAttribute( "text", "some text" ) );
+		final IdentifyingAttributes withString = new IdentifyingAttributes( stringAttributes );
+		final IdentifyingAttributes withText = new IdentifyingAttributes( textAttributes );
+
+		assertThat( withString.match( withText ) ).isEqualTo( 1.0 );
+		assertThat( withText.match( withString ) ).isCloseTo( 3.0 / 4.0, within( 0.001 ) );
+	}
+
+	@Test
+	void match_should_delegate_to_unknown_attributes() {
+		final List<Attribute> expectedAttributes = IdentifyingAttributes.createList( path, "Component" );
+		expectedAttributes.add( new DefaultAttribute( "custom", "value" ) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public double match( final Attribute other ) {
+				return 0.5;
+			}
+		} );
+		final List<Attribute> actualAttributes = IdentifyingAttributes.createList( path, "Component" );
+		actualAttributes.add( new DefaultAttribute( "custom", "value" ) );
+		final IdentifyingAttributes expected = new IdentifyingAttributes( expectedAttributes );
+		final IdentifyingAttributes actual = new IdentifyingAttributes( actualAttributes );
+
+		assertThat( expected.match( actual ) ).isCloseTo( 3.5 / 4.0, within( 0.001 ) );
+		assertThat( actual.match( expected ) ).isEqualTo( 1.0 );
+	}
+
+	@Test
+	void match_should_be_same_as_matching_attributes() {
+		final List<Attribute> expectedAttributes =
+				IdentifyingAttributes.createList( Path.fromString( "html[1]/body[1]/div[2]/p[3]" ), "p" );
+		expectedAttributes.add( new WeightedTextAttribute( "text", "Some longer text" ) );
+		expectedAttributes.add( OutlineAttribute.create( new Rectangle( 10, 20, 100, 30 ) ) );
+		final List<Attribute> actualAttributes =
+				IdentifyingAttributes.createList( Path.fromString( "html[1]/body[1]/div[1]/p[3]" ), "p" );
+		actualAttributes.add( new WeightedTextAttribute( "text", "Some long text" ) );
+		actualAttributes.add( OutlineAttribute.create( new Rectangle( 10, 25, 100, 30 ) ) );
+		final IdentifyingAttributes expected = new IdentifyingAttributes( expectedAttributes );
+		final IdentifyingAttributes actual = new IdentifyingAttributes( actualAttributes );
+
+		double result = 0.0;
+		double unifyingFactor = 0.0;
+		for ( final Attribute attribute : expected.getAttributes() ) {
+			unifyingFactor += attribute.getWeight();
+			result += attribute.getWeight() * attribute.match( actual.getAttribute( attribute.getKey() ) );
+		}
+
+		assertThat( expected.match( actual ) ).isEqualTo( result / unifyingFactor );
+	}
+
+	@Test
+	void ignored_attribute_should_only_be_ignored_if_present_in_expected() {
+		final List<Attribute> attributes = IdentifyingAttributes.createList( path, "Component" );
+		final IdentifyingAttributes expected = new IdentifyingAttributes( attributes );
+		attributes.add( new StringAttribute( "ignored", "value" ) );
+		final IdentifyingAttributes actual = new IdentifyingAttributes( attributes );
+
+		try {
+			GloballyIgnoredAttributes.getTestInstance( Arrays.asList( "ignored" ) );
+			assertThat( expected.match( actual ) ).isCloseTo( 3.0 / 4.0, within( 0.001 ) );
+			assertThat( actual.match( expected ) ).isEqualTo( 1.0 );
+		} finally {
+			GloballyIgnoredAttributes.resetTestInstance();
+		}
+	}
+}
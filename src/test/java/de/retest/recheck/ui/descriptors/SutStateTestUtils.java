@@ -0,0 +1,68 @@
+package de.retest.recheck.ui.descriptors;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.retest.recheck.ui.Path;
+import de.retest.recheck.ui.PathElement;
+import de.retest.recheck.ui.image.Screenshot;
+
+public final class SutStateTestUtils {
+
+	private SutStateTestUtils() {}
+
+	/**
+	 * Creates a window containing a button, which in turn contains a label. The button has identifying attributes of
+	 * all built-in types and characters to be escaped, so that the state covers what persistences have to write.
+	 *
+	 * @param screenshot
+	 *            the screenshot of the window, may be {@code null}
+	 * @return a state with metadata
+	 */
+	@SuppressWarnings( "deprecation" )
+	public static SutState createState( final Screenshot screenshot ) {
+		final Path windowPath = Path.fromString( "Window[1]" );
+		final MutableAttributes windowAttributes = new MutableAttributes();
+		windowAttributes.put( "title", "Main window" );
+		if ( screenshot != null ) {
+			windowAttributes.put( screenshot );
+		}
+		final RootElement root = new RootElement( "window", IdentifyingAttributes.create( windowPath,
+				"javax.swing.JFrame" ), windowAttributes.immutable(), screenshot, "screen", 42, "Main window" );
+
+		final Path buttonPath = Path.path( windowPath, new PathElement( "Button", 1 ) );
+		final IdentifyingAttributes buttonIdentifyingAttributes = new IdentifyingAttributes( Arrays.asList( //
+				new PathAttribute( buttonPath, "path" ), //
+				new StringAttribute( IdentifyingAttributes.TYPE_ATTRIBUTE_KEY, "javax.swing.JButton" ), //
+				new SuffixAttribute( "1" ), //
+				new ContextAttribute( "context" ), //
+				new TextAttribute( "text", "Click ]]> <me>", "var" ), //
+				new WeightedTextAttribute( "name", "button" ), //
+				new CodeLocAttribute( "Foo.java:42" ), //
+				new StringAttribute( "empty", "" ), //
+				OutlineAttribute.create( new Rectangle( 1, 2, 3, 4 ) ), //
+				OutlineAttribute.createAbsolute( null ), //
+				new DefaultAttribute( "default", 3.14 ), //
+				new DefaultAttribute( "enabled", true ) ) );
+		final MutableAttributes buttonAttributes = new MutableAttributes();
+		buttonAttributes.put( "enabled", true );
+		buttonAttributes.put( "fontSize", 12 );
+		buttonAttributes.put( "opacity", 0.5 );
+		buttonAttributes.put( "text", "Click & me" );
+		final Element button =
+				Element.create( "button", root, buttonIdentifyingAttributes, buttonAttributes.immutable() );
+		root.addChildren( button );
+
+		final Path labelPath = Path.path( buttonPath, new PathElement( "Label", 1 ) );
+		button.addChildren( Element.create( "label", button,
+				IdentifyingAttributes.create( labelPath, "javax.swing.JLabel" ),
+				new MutableAttributes().immutable() ) );
+
+		final Map<String, String> metadata = new HashMap<>();
+		metadata.put( "os.name", "Linux" );
+		return new SutState( Collections.singletonList( root ), () -> metadata );
+	}
+}
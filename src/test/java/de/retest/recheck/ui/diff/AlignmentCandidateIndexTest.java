@@ -0,0 +1,107 @@
+package de.retest.recheck.ui.diff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import de.retest.recheck.ui.Path;
+import de.retest.recheck.ui.descriptors.Attribute;
+import de.retest.recheck.ui.descriptors.Attributes;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.OutlineAttribute;
+import de.retest.recheck.ui.descriptors.TextAttribute;
+
+class AlignmentCandidateIndexTest {
+
+	@Test
+	void candidates_should_share_path() {
+		final Element expected = create( "root[1]/comp[1]", "Comp" );
+		final Element samePath = create( "root[1]/comp[1]", "Other" );
+		final Element unrelated = create( "other[1]/panel[2]", "Panel" );
+
+		final AlignmentCandidateIndex cut = new AlignmentCandidateIndex( Arrays.asList( unrelated, samePath ) );
+
+		assertThat( cut.getCandidates( expected ) ).containsExactly( samePath );
+	}
+
+	@Test
+	void candidates_should_share_suffix_of_same_type() {
+		final Element expected = create( "root[1]/comp[5]", "Comp" );
+		final Element sameSuffix = create( "other[1]/comp[5]", "Comp" );
+		final Element otherType = create( "other[1]/panel[5]", "Panel" );
+		final Element unrelated = create( "other[1]/comp[6]", "Comp" );
+
+		final AlignmentCandidateIndex cut =
+				new AlignmentCandidateIndex( Arrays.asList( sameSuffix, otherType, unrelated ) );
+
+		assertThat( cut.getCandidates( expected ) ).containsExactly( sameSuffix );
+	}
+
+	@Test
+	void candidates_should_share_text_words() {
+		final Element expected = create( "form[1]/button[1]", "Button", text( "Submit the order" ) );
+		final Element sameWord = create( "page[1]/div[2]/button[3]", "Button", text( "Order now" ) );
+		final Element unrelated = create( "page[1]/div[2]/button[4]", "Button", text( "Cancel" ) );
+
+		final AlignmentCandidateIndex cut = new AlignmentCandidateIndex( Arrays.asList( sameWord, unrelated ) );
+
+		assertThat( cut.getCandidates( expected ) ).containsExactly( sameWord );
+	}
+
+	@Test
+	void candidates_should_lie_in_same_or_neighbouring_outline_cell() {
+		final Element expected = create( "form[1]/button[1]", "Button", outline( 100, 100 ) );
+		final Element sameCell = create( "page[1]/div[2]/button[2]", "Button", outline( 120, 110 ) );
+		final Element neighbourCell = create( "page[1]/div[3]/button[3]", "Button", outline( 150, 140 ) );
+		final Element distantCell = create( "page[1]/div[4]/button[4]", "Button", outline( 300, 300 ) );
+		final Element otherType = create( "page[1]/div[5]/input[5]", "Input", outline( 100, 100 ) );
+
+		final AlignmentCandidateIndex cut = new AlignmentCandidateIndex(
+				Arrays.asList( sameCell, neighbourCell, distantCell, otherType ) );
+
+		assertThat( cut.getCandidates( expected ) ).containsExactly( sameCell, neighbourCell );
+	}
+
+	@Test
+	void buckets_larger_than_max_size_should_be_skipped() {
+		final Element expected = create( "root[1]/comp[1]", "Comp" );
+
+		final List<Element> siblings = createSiblings( AlignmentCandidateIndex.MAX_BUCKET_SIZE );
+		assertThat( new AlignmentCandidateIndex( siblings ).getCandidates( expected ) )
+				.containsExactlyElementsOf( siblings );
+
+		final List<Element> tooManySiblings = createSiblings( AlignmentCandidateIndex.MAX_BUCKET_SIZE + 1 );
+		assertThat( new AlignmentCandidateIndex( tooManySiblings ).getCandidates( expected ) )
+				.containsExactly( tooManySiblings.get( 0 ) );
+	}
+
+	private static List<Element> createSiblings( final int count ) {
+		final List<Element> siblings = new ArrayList<>();
+		for ( int i = 1; i <= count; i++ ) {
+			siblings.add( create( "root[1]/comp[" + i + "]", "Comp" ) );
+		}
+		return siblings;
+	}
+
+	private static TextAttribute text( final String text ) {
+		return new TextAttribute( "text", text );
+	}
+
+	private static OutlineAttribute outline( final int x, final int y ) {
+		return OutlineAttribute.create( new Rectangle( x, y, 10, 10 ) );
+	}
+
+	private static Element create( final String path, final String type, final Attribute... attributes ) {
+		final List<Attribute> identifying = IdentifyingAttributes.createList( Path.fromString( path ), type );
+		identifying.addAll( Arrays.asList( attributes ) );
+		return Element.create( "retestId", mock( Element.class ), new IdentifyingAttributes( identifying ),
+				new Attributes() );
+	}
+}
@@ -25,6 +25,7 @@ import de.retest.recheck.ui.descriptors.OutlineAttribute;
 import de.retest.recheck.ui.descriptors.PathAttribute;
 import de.retest.recheck.ui.descriptors.StringAttribute;
 import de.retest.recheck.ui.descriptors.SuffixAttribute;
+import de.retest.recheck.ui.descriptors.WeightedTextAttribute;
 
 class AlignmentTest {
 
@@ -209,6 +210,175 @@ class AlignmentTest {
 		assertThat( mappedActual ).isNull();
 	}
 
+	@Test
+	void large_alignment_should_use_candidates_of_index() throws Exception {
+		final int size = AlignmentCandidateIndex.MIN_INDEXED_ELEMENTS * 2;
+		final List<Element> expComps = new ArrayList<>();
+		final List<Element> actComps = new ArrayList<>();
+		for ( int i = 1; i <= size; i++ ) {
+			expComps.add( buildText( "root[1]/comp[" + i + "]", "Comp", "Item number " + i ) );
+			// changed text prevents identity mapping, so candidates have to be scored
+			actComps.add( buildText( "root[1]/comp[" + i + "]", "Comp", "Item number " + i + " changed" ) );
+		}
+		final List<Element> shuffledActComps = new ArrayList<>( actComps );
+		Collections.reverse( shuffledActComps );
+		final Element expected = buildEqual( "root[1]", Root.class, expComps.toArray( new Element[0] ) );
+		final Element actual = buildEqual( "root[1]", Root.class, shuffledActComps.toArray( new Element[0] ) );
+
+		final Alignment alignment = Alignment.createAlignment( expected, actual );
+
+		for ( int i = 0; i < size; i++ ) {
+			assertThat( alignment.getActual( expComps.get( i ) ) ).isSameAs( actComps.get( i ) );
+		}
+	}
+
+	@Test
+	void large_alignment_should_fall_back_to_all_elements_if_index_has_no_candidates() throws Exception {
+		final int size = AlignmentCandidateIndex.MIN_INDEXED_ELEMENTS * 2;
+		final List<Element> expComps = new ArrayList<>();
+		final List<Element> actComps = new ArrayList<>();
+		for ( int i = 1; i <= size; i++ ) {
+			expComps.add( buildText( "root[1]/comp" + i + "[1]", "Comp" + i, null ) );
+			actComps.add( buildText( "root[1]/comp" + i + "[1]", "Comp" + i, null ) );
+		}
+		final Element expChanged = expComps.get( 0 );
+		final Element actChanged = buildText( "root[1]/changed[1]", "Changed", null );
+		actComps.set( 0, actChanged );
+		final Element expected = buildEqual( "root[1]", Root.class, expComps.toArray( new Element[0] ) );
+		final Element actual = buildEqual( "root[1]", Root.class, actComps.toArray( new Element[0] ) );
+
+		final Alignment alignment = Alignment.createAlignment( expected, actual );
+
+		assertThat( alignment.getActual( expChanged ) ).isSameAs( actChanged );
+	}
+
+	@Test
+	void parallel_alignment_should_be_identical_to_sequential_alignment() throws Exception {
+		final List<Element> expComps = new ArrayList<>();
+		final List<Element> actComps = new ArrayList<>();
+		for ( int i = 1; i <= Alignment.MIN_PARALLEL_ELEMENTS * 4; i++ ) {
+			final Element expComp = buildText( "root[1]/comp[" + i + "]", "Comp", "Item " + i % 7 );
+			expComps.add( buildEqual( "root[1]/list[" + i % 5 + "]", Comp.class, expComp ) );
+			final Element actComp = buildText( "root[1]/comp[" + (i + i % 3) + "]", "Comp", "Item " + i % 11 );
+			actComps.add( buildEqual( "root[1]/list[" + i % 4 + "]", Comp.class, actComp ) );
+		}
+		final Element expected = buildEqual( "root[1]", Root.class, expComps.toArray( new Element[0] ) );
+		final Element actual = buildEqual( "root[1]", Root.class, actComps.toArray( new Element[0] ) );
+
+		final Alignment sequential = Alignment.createAlignment( expected, actual, false );
+		final Alignment parallel = Alignment.createAlignment( expected, actual, true );
+
+		assertThat( parallel ).isEqualTo( sequential );
+	}
+
+	@Test
+	void unchanged_subtree_should_align_all_contained_elements() throws Exception {
+		final Element expB = buildEqual( "root[1]/a[1]/b[1]", Comp.class );
+		final Element expA = buildEqual( "root[1]/a[1]", Comp.class, expB );
+		final Element expC = buildText( "root[1]/c[1]", "Comp", "expected" );
+		final Element expected = buildEqual( "root[1]", Root.class, expA, expC );
+
+		final Element actB = buildEqual( "root[1]/a[1]/b[1]", Comp.class );
+		final Element actA = buildEqual( "root[1]/a[1]", Comp.class, actB );
+		final Element actC = buildText( "root[1]/c[1]", "Comp", "actual" );
+		final Element actual = buildEqual( "root[1]", Root.class, actA, actC );
+
+		final Alignment alignment = Alignment.createAlignment( expected, actual );
+
+		assertThat( alignment.getActual( expA ) ).isSameAs( actA );
+		assertThat( alignment.getActual( expB ) ).isSameAs( actB );
+		assertThat( alignment.getActual( expC ) ).isSameAs( actC );
+	}
+
+	@Test
+	void parents_shared_by_many_elements_should_be_aligned() throws Exception {
+		final Element expInner = buildEqual( "root[1]/outer[1]/inner[1]", Comp.class,
+				buildText( "root[1]/outer[1]/inner[1]/comp[1]", "Comp", "one" ),
+				buildText( "root[1]/outer[1]/inner[1]/comp[2]", "Comp", "two" ),
+				buildText( "root[1]/outer[1]/inner[1]/comp[3]", "Comp", "three" ) );
+		final Element expOuter = buildEqual( "root[1]/outer[1]", Comp.class, expInner );
+		final Element expected = buildEqual( "root[1]", Root.class, expOuter );
+
+		final Element actInner = buildEqual( "root[1]/outer[1]/inner[2]", Comp.class,
+				buildText( "root[1]/outer[1]/inner[2]/comp[1]", "Comp", "one" ),
+				buildText( "root[1]/outer[1]/inner[2]/comp[2]", "Comp", "two" ),
+				buildText( "root[1]/outer[1]/inner[2]/comp[3]", "Comp", "three" ) );
+		final Element actOuter = buildEqual( "root[1]/outer[1]", Comp.class, actInner );
+		final Element actual = buildEqual( "root[1]", Root.class, actOuter );
+
+		final Alignment alignment = Alignment.createAlignment( expected, actual );
+
+		assertThat( alignment.getActual( expected ) ).isSameAs( actual );
+		assertThat( alignment.getActual( expOuter ) ).isSameAs( actOuter );
+		assertThat( alignment.getActual( expInner ) ).isSameAs( actInner );
+	}
+
+	@Test
+	void parent_chains_should_be_aligned_once_per_distinct_parent_pair() throws Exception {
+		final Element expFirst = buildEqual( "root[1]/first[1]", Comp.class,
+				buildText( "root[1]/first[1]/comp[1]", "Comp", "one" ),
+				buildText( "root[1]/first[1]/comp[2]", "Comp", "two" ),
+				buildText( "root[1]/first[1]/comp[3]", "Comp", "three" ) );
+		final Element expSecond = buildEqual( "root[1]/second[1]", Comp.class,
+				buildText( "root[1]/second[1]/comp[1]", "Comp", "four" ),
+				buildText( "root[1]/second[1]/comp[2]", "Comp", "five" ) );
+		final Element expected = buildEqual( "root[1]", Root.class, expFirst, expSecond );
+
+		final Element actFirst = buildEqual( "root[1]/first[2]", Comp.class,
+				buildText( "root[1]/first[2]/comp[1]", "Comp", "one" ),
+				buildText( "root[1]/first[2]/comp[2]", "Comp", "two" ),
+				buildText( "root[1]/first[2]/comp[3]", "Comp", "three" ) );
+		final Element actSecond = buildEqual( "root[1]/second[2]", Comp.class,
+				buildText( "root[1]/second[2]/comp[1]", "Comp", "four" ),
+				buildText( "root[1]/second[2]/comp[2]", "Comp", "five" ) );
+		final Element actual = buildEqual( "root[1]", Root.class, actFirst, actSecond );
+
+		final Alignment alignment = Alignment.createAlignment( expected, actual );
+
+		assertThat( alignment.alignedParentChains ).isEqualTo( 2 );
+		assertThat( alignment.getActual( expFirst ) ).isSameAs( actFirst );
+		assertThat( alignment.getActual( expSecond ) ).isSameAs( actSecond );
+	}
+
+	@Test
+	void hierarchical_alignment_should_align_within_containers() throws Exception {
+		final Element expB = buildText( "root[1]/a[1]/b[1]", "Comp", "first" );
+		final Element expC = buildText( "root[1]/a[1]/c[1]", "Comp", "second" );
+		final Element expA = buildEqual( "root[1]/a[1]", Comp.class, expB, expC );
+		final Element expected = buildEqual( "root[1]", Root.class, expA );
+
+		final Element actB = buildText( "root[1]/a[1]/b[1]", "Comp", "first changed" );
+		final Element actC = buildText( "root[1]/a[1]/c[1]", "Comp", "second" );
+		final Element actA = buildEqual( "root[1]/a[1]", Comp.class, actB, actC );
+		final Element actual = buildEqual( "root[1]", Root.class, actA );
+
+		final Alignment alignment = Alignment.createAlignment( expected, actual, AlignmentStrategy.HIERARCHICAL );
+
+		assertThat( alignment.getActual( expA ) ).isSameAs( actA );
+		assertThat( alignment.getActual( expB ) ).isSameAs( actB );
+		assertThat( alignment.getActual( expC ) ).isSameAs( actC );
+		assertThat( alignment ).isEqualTo( Alignment.createAlignment( expected, actual ) );
+	}
+
+	@Test
+	void hierarchical_alignment_should_fall_back_to_global_alignment_for_moved_elements() throws Exception {
+		final Element expMoved = buildText( "root[1]/a[1]/moved[1]", "Comp", "moved element" );
+		final Element expA = buildEqual( "root[1]/a[1]", Comp.class, expMoved );
+		final Element expB = buildEqual( "root[1]/b[1]", OtherComp.class );
+		final Element expected = buildEqual( "root[1]", Root.class, expA, expB );
+
+		final Element actA = buildEqual( "root[1]/a[1]", Comp.class );
+		final Element actMoved = buildText( "root[1]/b[1]/moved[1]", "Comp", "moved element" );
+		final Element actB = buildEqual( "root[1]/b[1]", OtherComp.class, actMoved );
+		final Element actual = buildEqual( "root[1]", Root.class, actA, actB );
+
+		final Alignment alignment = Alignment.createAlignment( expected, actual, AlignmentStrategy.HIERARCHICAL );
+
+		assertThat( alignment.getActual( expA ) ).isSameAs( actA );
+		assertThat( alignment.getActual( expB ) ).isSameAs( actB );
+		assertThat( alignment.getActual( expMoved ) ).isSameAs( actMoved );
+	}
+
 	@Test
 	void toReverseDeque_should_create_reverse_deque() throws Exception {
 		final Element e0 = Element.create( "e0", mock( Element.class ),
@@ -230,4 +400,13 @@ class AlignmentTest {
 		element.addChildren( containedComponents );
 		return element;
 	}
+
+	private static Element buildText( final String path, final String type, final String text ) {
+		final List<Attribute> identifying = IdentifyingAttributes.createList( fromString( path ), type );
+		if ( text != null ) {
+			identifying.add( new WeightedTextAttribute( "text", text ) );
+		}
+		return Element.create( "id", mock( Element.class ), new IdentifyingAttributes( identifying ),
+				new Attributes() );
+	}
 }
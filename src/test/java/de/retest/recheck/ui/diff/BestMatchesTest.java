@@ -0,0 +1,78 @@
+package de.retest.recheck.ui.diff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import de.retest.recheck.ui.Path;
+import de.retest.recheck.ui.descriptors.Attributes;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+
+class BestMatchesTest {
+
+	@Test
+	void should_poll_in_same_order_as_sorting_all_matches() {
+		final Element expected = create( "root[1]/comp[1]", "Comp" );
+		final List<Element> candidates = new ArrayList<>();
+		for ( int i = 0; i < BestMatches.SIZE * 5; i++ ) {
+			// few distinct similarities, so there are many ties
+			candidates.add( create( "root[" + (i % 2 + 1) + "]/comp[" + (i % 3 + 2) + "]", "Comp" + i % 2 ) );
+		}
+
+		final TreeSet<Match> sorted = new TreeSet<>();
+		candidates.forEach( candidate -> sorted.add( Match.of( Alignment.match( expected, candidate ), candidate ) ) );
+
+		final BestMatches cut = BestMatches.of( expected, candidates );
+
+		for ( Match match = sorted.pollFirst(); match != null; match = sorted.pollFirst() ) {
+			final Match polled = cut.pollFirst();
+			assertThat( polled.element ).isSameAs( match.element );
+			assertThat( polled.similarity ).isEqualTo( match.similarity );
+		}
+		assertThat( cut.pollFirst() ).isNull();
+	}
+
+	@Test
+	void should_stop_at_equal_match() {
+		final Element expected = create( "root[1]/comp[1]", "Comp" );
+		final Element before = create( "root[1]/comp[2]", "Comp" );
+		final Element equal = create( "root[1]/comp[1]", "Comp" );
+		final Element after = create( "root[1]/comp[3]", "Comp" );
+
+		final BestMatches cut = BestMatches.of( expected, Arrays.asList( before, equal, after ) );
+
+		assertThat( cut.pollFirst().element ).isSameAs( equal );
+		assertThat( cut.pollFirst().element ).isSameAs( before );
+		assertThat( cut.pollFirst() ).isNull();
+	}
+
+	@Test
+	void copy_should_poll_independently() {
+		final Element expected = create( "root[1]/comp[1]", "Comp" );
+		final List<Element> candidates = new ArrayList<>();
+		for ( int i = 0; i < BestMatches.SIZE * 2; i++ ) {
+			candidates.add( create( "root[1]/comp[" + (i + 2) + "]", "Comp" + i % 3 ) );
+		}
+		final BestMatches cut = BestMatches.of( expected, candidates );
+
+		final BestMatches copy = cut.copy();
+		final Match first = copy.pollFirst();
+		while ( copy.pollFirst() != null ) {
+			// poll all, which also scores again
+		}
+
+		assertThat( cut.pollFirst().element ).isSameAs( first.element );
+	}
+
+	private static Element create( final String path, final String type ) {
+		return Element.create( "id", mock( Element.class ), IdentifyingAttributes.create( Path.fromString( path ), type ),
+				new Attributes() );
+	}
+}
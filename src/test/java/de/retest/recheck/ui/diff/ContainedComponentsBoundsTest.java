@@ -0,0 +1,159 @@
+package de.retest.recheck.ui.diff;
+
+import static de.retest.recheck.ui.descriptors.ElementUtil.flattenChildElements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import de.retest.recheck.ui.DefaultValueFinder;
+import de.retest.recheck.ui.Path;
+import de.retest.recheck.ui.descriptors.Element;
+import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
+import de.retest.recheck.ui.descriptors.MutableAttributes;
+
+class ContainedComponentsBoundsTest {
+
+	private static final class Window {}
+
+	private static final class Comp {}
+
+	private static final class Other {}
+
+	private static final DefaultValueFinder NO_DEFAULTS = ( identifyingAttributes, key, value ) -> false;
+	private static final DefaultValueFinder ALL_DEFAULTS = ( identifyingAttributes, key, value ) -> true;
+
+	@Test
+	void shifted_paths_should_be_decided_like_exact_number() throws Exception {
+		final Element expected = window();
+		final Element actual = window();
+		actual.addChildren( build( "window[1]/comp[1]", Other.class, "inserted" ) );
+		for ( int i = 1; i <= 70; i++ ) {
+			expected.addChildren( build( "window[1]/comp[" + i + "]", Comp.class, "value" ) );
+			actual.addChildren( build( "window[1]/comp[" + (i + 1) + "]", Comp.class, "value" ) );
+		}
+
+		assertDecidedLikeExactNumber( expected, actual, NO_DEFAULTS );
+	}
+
+	@Test
+	void default_values_should_be_decided_like_exact_number() throws Exception {
+		final Element expected = window();
+		final Element actual = window();
+		for ( int i = 1; i <= 70; i++ ) {
+			expected.addChildren( build( "window[1]/comp[" + i + "]", Comp.class, "value" ) );
+			actual.addChildren( build( "window[1]/comp[" + i + "]", Comp.class, "changed" ) );
+		}
+
+		assertDecidedLikeExactNumber( expected, actual, NO_DEFAULTS );
+		assertDecidedLikeExactNumber( expected, actual, ALL_DEFAULTS );
+	}
+
+	@Test
+	void many_inserted_elements_should_be_decided_without_exact_number() throws Exception {
+		final Element expected = window();
+		final Element actual = window();
+		for ( int i = 1; i <= 20; i++ ) {
+			expected.addChildren( build( "window[1]/comp[" + i + "]", Comp.class, "value" ) );
+		}
+		for ( int i = 1; i <= 70; i++ ) {
+			actual.addChildren( build( "window[1]/comp[" + i + "]", Comp.class, "value" ) );
+		}
+
+		assertThat( reachesThreshold( expected, actual, 0.5 ) ).hasValue( true );
+		assertDecidedLikeExactNumber( expected, actual, NO_DEFAULTS );
+	}
+
+	@Test
+	void many_deleted_elements_should_be_decided_without_exact_number() throws Exception {
+		final Element expected = window();
+		final Element actual = window();
+		final Element container = build( "window[1]/comp[1]", Comp.class, "value" );
+		expected.addChildren( container );
+		for ( int i = 1; i <= 70; i++ ) {
+			container.addChildren( build( "window[1]/comp[1]/comp[" + i + "]", Comp.class, "value" ) );
+		}
+		actual.addChildren( build( "window[1]/comp[1]", Comp.class, "value" ) );
+
+		assertThat( reachesThreshold( expected, actual, 0.5 ) ).hasValue( false );
+		assertDecidedLikeExactNumber( expected, actual, NO_DEFAULTS );
+	}
+
+	@Test
+	void same_components_in_renamed_window_should_be_decided_without_exact_number() throws Exception {
+		final Element expected = build( "window[1]", Window.class, "title" );
+		final Element actual = build( "window[1]", Window.class, "renamed title" );
+		for ( int i = 1; i <= 70; i++ ) {
+			expected.addChildren( container( "window[1]/comp[" + i + "]" ) );
+			actual.addChildren( container( "window[1]/comp[" + i + "]" ) );
+		}
+
+		assertThat( ContainedComponentsBounds.estimate( expected, actual, flattenChildElements( actual ).size() ) )
+				.isZero();
+		assertThat( reachesThreshold( expected, actual, 0.5 ) ).hasValue( false );
+		assertDecidedLikeExactNumber( expected, actual, NO_DEFAULTS );
+	}
+
+	@Test
+	void some_changed_components_in_renamed_window_should_be_decided_like_exact_number() throws Exception {
+		final Element expected = build( "window[1]", Window.class, "title" );
+		final Element actual = build( "window[1]", Window.class, "renamed title" );
+		for ( int i = 1; i <= 70; i++ ) {
+			expected.addChildren( container( "window[1]/comp[" + i + "]" ) );
+			actual.addChildren( i % 5 == 0 ? build( "window[1]/comp[" + i + "]", Comp.class, "changed" )
+					: container( "window[1]/comp[" + i + "]" ) );
+		}
+
+		assertDecidedLikeExactNumber( expected, actual, NO_DEFAULTS );
+		assertDecidedLikeExactNumber( expected, actual, ALL_DEFAULTS );
+	}
+
+	private static Element container( final String path ) {
+		final Element container = build( path, Comp.class, "value" );
+		container.addChildren( build( path + "/comp[1]", Comp.class, "value" ),
+				build( path + "/comp[2]", Other.class, "value" ) );
+		return container;
+	}
+
+	private static void assertDecidedLikeExactNumber( final Element expected, final Element actual,
+			final DefaultValueFinder defaultValueFinder ) {
+		final int expectedElements = flattenChildElements( expected ).size();
+		final int actualElements = flattenChildElements( actual ).size();
+		final int exact = new ElementDifferenceFinder( defaultValueFinder ).findChildDifferences( expected, actual )
+				.stream() //
+				.mapToInt( difference -> difference.getImmediateDifferences().size() ) //
+				.sum();
+
+		assertThat( exact ).isBetween( ContainedComponentsBounds.lowerBound( expectedElements, actualElements ),
+				ContainedComponentsBounds.upperBound( expected, actualElements ) );
+		assertThat( exact )
+				.isLessThanOrEqualTo( ContainedComponentsBounds.estimate( expected, actual, actualElements ) );
+		for ( double threshold = 0.05; threshold < 1.0; threshold += 0.05 ) {
+			final boolean exactDecision = exact / (Math.max( expectedElements, actualElements ) + 1.0) >= threshold;
+			assertThat( reachesThreshold( expected, actual, threshold ) ).as( "threshold %s", threshold )
+					.satisfiesAnyOf( decision -> assertThat( decision ).isEmpty(),
+							decision -> assertThat( decision ).hasValue( exactDecision ) );
+		}
+	}
+
+	private static Optional<Boolean> reachesThreshold( final Element expected, final Element actual,
+			final double threshold ) {
+		return ContainedComponentsBounds.reachesThreshold( expected, actual, flattenChildElements( expected ).size(),
+				flattenChildElements( actual ).size(), threshold );
+	}
+
+	private static Element window() {
+		return build( "window[1]", Window.class, null );
+	}
+
+	private static Element build( final String path, final Class<?> type, final String value ) {
+		final MutableAttributes attributes = new MutableAttributes();
+		if ( value != null ) {
+			attributes.put( "value", value );
+		}
+		return Element.create( "id", mock( Element.class ),
+				IdentifyingAttributes.create( Path.fromString( path ), type ), attributes.immutable() );
+	}
+}
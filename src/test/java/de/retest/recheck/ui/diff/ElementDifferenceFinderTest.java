@@ -81,6 +81,23 @@ class ElementDifferenceFinderTest {
 		assertThat( difference ).isNull();
 	}
 
+	@Test
+	void unchanged_children_should_not_hide_changed_sibling() throws Exception {
+		final ElementDifferenceFinder cut = new ElementDifferenceFinder( mock( Environment.class ) );
+
+		final Element expected = buildElement();
+		final Element actual = buildElement();
+		final Element changed = Element.create( "id", actual,
+				new IdentifyingAttributes( createIdentifyingAttribute( fromString( "comp1" ), child3.class ) ),
+				toAttributes( "color", "yellow" ) );
+		actual.getContainedElements().set( 2, changed );
+
+		final ElementDifference difference = cut.differenceFor( expected, actual );
+
+		assertThat( difference.getElementDifferences() ).hasSize( 2 );
+		assertThat( difference.toString() ).contains( "color: expected=\"violett\", actual=\"yellow\"" );
+	}
+
 	@Test
 	void different_state_in_first_child() throws Exception {
 		final ElementDifferenceFinder cut = new ElementDifferenceFinder( mock( Environment.class ) );
@@ -3,26 +3,36 @@ package de.retest.recheck.ui.diff;
 import static de.retest.recheck.ui.diff.ElementBuilder.buildElement;
 import static de.retest.recheck.util.ApprovalsUtil.verify;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import javax.swing.JDialog;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 import de.retest.recheck.ui.Environment;
 import de.retest.recheck.ui.Path;
 import de.retest.recheck.ui.PathElement;
+import de.retest.recheck.ui.descriptors.Attribute;
 import de.retest.recheck.ui.descriptors.Attributes;
 import de.retest.recheck.ui.descriptors.Element;
 import de.retest.recheck.ui.descriptors.IdentifyingAttributes;
 import de.retest.recheck.ui.descriptors.MutableAttributes;
 import de.retest.recheck.ui.descriptors.RootElement;
+import de.retest.recheck.ui.descriptors.TextAttribute;
 import de.retest.recheck.ui.image.Screenshot;
 import de.retest.recheck.ui.image.Screenshot.ImageType;
 
@@ -174,11 +184,102 @@ class RootElementDifferenceFinderTest {
 		verify( differences );
 	}
 
+	@Test
+	void renamed_window_with_same_components_should_be_decided_without_child_differences() {
+		final IdentifyingAttributes identifyingAttributes1 =
+				withTitle( Path.path( new PathElement( "Window", 1 ) ), Window.class, "Orders" );
+		final IdentifyingAttributes identifyingAttributes2 =
+				withTitle( Path.path( new PathElement( "Other", 1 ) ), JDialog.class, "Invoices" );
+		// Otherwise the windows would be decided by their identifying attributes only.
+		assertThat( identifyingAttributes1.match( identifyingAttributes2 ) ).isStrictlyBetween( 0.0, 0.5 );
+		final RootElement expected = descriptorFor( identifyingAttributes1, attributes, screenshot );
+		final RootElement actual = descriptorFor( identifyingAttributes2, attributes, screenshot );
+		for ( int i = 1; i <= 100; i++ ) {
+			final Path path = Path.fromString( "Window[1]/Comp[" + i + "]" );
+			expected.addChildren( Element.create( "id", expected, IdentifyingAttributes.create( path, Comp.class ),
+					attributes ) );
+			actual.addChildren(
+					Element.create( "id", actual, IdentifyingAttributes.create( path, Comp.class ), attributes ) );
+		}
+		final ElementDifferenceFinder elementDifferenceFinder =
+				spy( new ElementDifferenceFinder( mock( Environment.class ) ) );
+
+		final List<RootElementDifference> differences = new RootElementDifferenceFinder( elementDifferenceFinder )
+				.findDifferences( Collections.singletonList( expected ), Collections.singletonList( actual ) );
+
+		assertThat( differences ).extracting( RootElementDifference::getActualRootElement )
+				.containsExactly( null, actual );
+		Mockito.verify( elementDifferenceFinder, never() ).findChildDifferences( any(), any() );
+	}
+
+	@Test
+	void parallel_differences_should_be_identical_to_sequential_differences() {
+		final RootElement descriptor_AS = descriptorFor( identifyingAttributesA, attributes, screenshot );
+		final RootElement descriptor_AO =
+				descriptorFor( identifyingAttributesA, otherAttributes.immutable(), screenshot );
+		final RootElement descriptor_BS = descriptorFor( identifyingAttributesB, attributes, screenshot );
+		final RootElement descriptor_BO =
+				descriptorFor( identifyingAttributesB, otherAttributes.immutable(), screenshot );
+		final RootElement descriptor_inserted = descriptorFor( IdentifyingAttributes.create(
+				Path.path( new PathElement( "Other", 1 ) ), JDialog.class ), attributes, screenshot );
+		final List<RootElement> expecteds = Arrays.asList( descriptor_AS, descriptor_BS );
+		final List<RootElement> actuals = Arrays.asList( descriptor_inserted, descriptor_BO, descriptor_AO );
+
+		final Environment<?> threadSafe = mock( Environment.class );
+		when( threadSafe.isThreadSafe() ).thenReturn( true );
+
+		final List<RootElementDifference> sequential = new RootElementDifferenceFinder( threadSafe,
+				AlignmentStrategy.GLOBAL, false ).findDifferences( expecteds, actuals );
+		final List<RootElementDifference> parallel = new RootElementDifferenceFinder( threadSafe,
+				AlignmentStrategy.GLOBAL, true ).findDifferences( expecteds, actuals );
+
+		assertThat( parallel ).hasSize( 3 );
+		assertThat( parallel ).extracting( RootElementDifference::getActualRootElement )
+				.containsExactlyElementsOf( sequential.stream().map( RootElementDifference::getActualRootElement )
+						.collect( Collectors.toList() ) );
+		assertThat( parallel ).extracting( RootElementDifference::toString )
+				.containsExactlyElementsOf( sequential.stream().map( RootElementDifference::toString )
+						.collect( Collectors.toList() ) );
+	}
+
+	@Test
+	void parallel_differences_should_be_found_sequentially_if_default_value_finder_is_not_thread_safe() {
+		final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		final Environment<?> notThreadSafe = mock( Environment.class );
+		when( notThreadSafe.isDefaultValue( any(), any(), any() ) ).then( invocation -> {
+			threads.add( Thread.currentThread() );
+			return false;
+		} );
+		final MutableAttributes otherAttributes = new MutableAttributes();
+		otherAttributes.put( "key", "other" );
+		final List<RootElement> expecteds = new ArrayList<>();
+		final List<RootElement> actuals = new ArrayList<>();
+		for ( int i = 1; i <= 20; i++ ) {
+			final IdentifyingAttributes identifyingAttributes =
+					IdentifyingAttributes.create( Path.path( new PathElement( "Window", i ) ), Window.class );
+			expecteds.add( descriptorFor( identifyingAttributes, attributes, screenshot ) );
+			actuals.add( descriptorFor( identifyingAttributes, otherAttributes.immutable(), screenshot ) );
+		}
+
+		final List<RootElementDifference> differences =
+				new RootElementDifferenceFinder( notThreadSafe, AlignmentStrategy.GLOBAL, true )
+						.findDifferences( expecteds, actuals );
+
+		assertThat( differences ).hasSize( 20 );
+		assertThat( threads ).containsExactly( Thread.currentThread() );
+	}
+
 	@Test
 	void two_null_arguments() {
 		assertThat( cut.findDifference( (RootElement) null, null ) ).isNull();
 	}
 
+	private static IdentifyingAttributes withTitle( final Path path, final Class<?> type, final String title ) {
+		final List<Attribute> attributes = IdentifyingAttributes.createList( path, type.getName() );
+		attributes.add( new TextAttribute( "text", title ) );
+		return new IdentifyingAttributes( attributes );
+	}
+
 	private RootElement descriptorFor( final IdentifyingAttributes identifyingAttributes, final Attributes attributes,
 			final Screenshot screenshot, final Element... childrenArray ) {
 		List<Element> children = new ArrayList<>();
@@ -194,4 +295,6 @@ class RootElementDifferenceFinderTest {
 	private static class Window {}
 
 	private static class OtherWindow {}
+
+	private static class Comp {}
 }
@@ -2,6 +2,9 @@ package de.retest.recheck.ui.image;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Test;
 
 import de.retest.recheck.ui.image.Screenshot.ImageType;
@@ -36,4 +39,57 @@ class ScreenshotTest {
 		final Screenshot shot = new Screenshot( "some", new byte[] { 1, 2, 4, 6, 3, 4, 7, 8, 2 }, ImageType.PNG );
 		shot.setBinaryData( null );
 	}
+
+	@Test
+	void lazy_data_should_be_loaded_once_when_needed() {
+		final byte[] data = { 1, 2, 4, 6, 3, 4, 7, 8, 2 };
+		final AtomicInteger loads = new AtomicInteger();
+		final Screenshot shot = new Screenshot( "some", new byte[0], ImageType.PNG );
+
+		shot.setBinaryDataLoader( () -> {
+			loads.incrementAndGet();
+			return data;
+		} );
+		assertThat( loads ).hasValue( 0 );
+
+		assertThat( shot ).isEqualTo( new Screenshot( "some", data, ImageType.PNG ) );
+		assertThat( shot.getBinaryData() ).isEqualTo( data );
+		assertThat( loads ).hasValue( 1 );
+	}
+
+	@Test
+	void failing_lazy_data_should_result_in_no_data() {
+		final Screenshot shot = new Screenshot( "some", new byte[] { 1, 2, 4 }, ImageType.PNG );
+
+		shot.setBinaryDataLoader( () -> {
+			throw new IOException( "gone" );
+		} );
+
+		assertThat( shot.getBinaryData() ).isNull();
+	}
+
+	@Test
+	void persisted_sha_should_be_compared_without_loading_data() {
+		final byte[] data = { 1, 2, 4, 6, 3, 4, 7, 8, 2 };
+		final Screenshot loaded = new Screenshot( "some", data, ImageType.PNG );
+		final AtomicInteger loads = new AtomicInteger();
+		final Screenshot lazy = new Screenshot( "some", ImageType.PNG, loaded.getSha256(), () -> {
+			loads.incrementAndGet();
+			return data;
+		} );
+
+		assertThat( lazy ).isEqualTo( loaded );
+		assertThat( lazy.hashCode() ).isEqualTo( loaded.hashCode() );
+		assertThat( loads ).hasValue( 0 );
+	}
+
+	@Test
+	void sha_should_only_be_computed_when_needed() {
+		final Screenshot shot = new Screenshot( "some", new byte[] { 1, 2, 4 }, ImageType.PNG );
+
+		shot.setBinaryData( new byte[] { 1, 2, 5 } );
+
+		assertThat( shot.getSha256() )
+				.isEqualTo( new Screenshot( "other", new byte[] { 1, 2, 5 }, ImageType.PNG ).getSha256() );
+	}
 }
@@ -3,9 +3,9 @@ package de.retest.recheck.util;
 import static de.retest.recheck.util.ChecksumCalculator.getInstance;
 import static org.assertj.core.api.Assertions.assertThat;
 
-import org.junit.Test;
+import org.junit.jupiter.api.Test;
 
-public class ChecksumCalculatorTest {
+class ChecksumCalculatorTest {
 
 	private static final String TEST_1 = "testdata";
 	private static final String TEST_MD5_1 = "ef654c40ab4f1747fc699915d4f70902";
@@ -21,7 +21,7 @@ public class ChecksumCalculatorTest {
 
 	@SuppressWarnings( "deprecation" )
 	@Test
-	public void regresion_test_for_MD5_calculation() {
+	void regresion_test_for_MD5_calculation() {
 		assertThat( getInstance().md5( TEST_1 ) ).isEqualTo( TEST_MD5_1 );
 		assertThat( getInstance().md5( TEST_2 ) ).isEqualTo( TEST_MD5_2 );
 		assertThat( getInstance().md5( TEST_3 ) ).isEqualTo( TEST_MD5_3 );
@@ -32,7 +32,7 @@ public class ChecksumCalculatorTest {
 	}
 
 	@Test
-	public void regresion_test_for_SHA256_calculation() {
+	void regresion_test_for_SHA256_calculation() {
 		assertThat( getInstance().sha256( TEST_1 ) ).isEqualTo( TEST_SHA256_1 );
 		assertThat( getInstance().sha256( TEST_2 ) ).isEqualTo( TEST_SHA256_2 );
 		assertThat( getInstance().sha256( TEST_3 ) ).isEqualTo( TEST_SHA256_3 );
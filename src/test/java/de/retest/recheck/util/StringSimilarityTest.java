@@ -3,9 +3,11 @@ package de.retest.recheck.util;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.within;
 
+import java.util.Locale;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.commons.text.similarity.FuzzyScore;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -32,6 +34,39 @@ class StringSimilarityTest {
 		assertThat( similarityPath2And3 ).isCloseTo( 0.125, within( 0.01 ) );
 	}
 
+	@ParameterizedTest
+	@MethodSource( "randomTextPairs" )
+	void textSimilarity_should_be_same_as_fuzzy_score( final String text0, final String text1 ) throws Exception {
+		final double fuzzyScore = new FuzzyScore( Locale.GERMAN ).fuzzyScore( text0, text1 );
+		final double expected = text0.equals( text1 ) ? 1.0
+				: fuzzyScore / (Math.max( text0.length(), text1.length() ) * 4.0);
+
+		assertThat( StringSimilarity.textSimilarity( text0, text1 ) ).as( "'%s' compared to '%s'", text0, text1 )
+				.isEqualTo( expected );
+		assertThat( StringSimilarity.textSimilarity( TextProfile.of( text0 ), TextProfile.of( text1 ) ) )
+				.as( "'%s' compared to '%s'", text0, text1 ).isEqualTo( expected );
+	}
+
+	public static Stream<Arguments> randomTextPairs() {
+		return Stream.concat( Stream.of( Arguments.of( "", "a" ), Arguments.of( "Abc", "aBC" ),
+				Arguments.of( "Straße", "STRASSE" ), Arguments.of( "aaa", "aa" ), Arguments.of( "xbc", "abc" ) ),
+				Stream.generate( () -> Arguments.of( RandomStringUtils.random( 20, "aAbBcC d" ),
+						RandomStringUtils.random( 10, "aAbBcC d" ) ) ).limit( 50 ) );
+	}
+
+	@Test
+	void textSimilarity_should_handle_null_values() throws Exception {
+		assertThat( StringSimilarity.textSimilarity( TextProfile.of( null ), TextProfile.of( null ) ) ).isEqualTo( 1.0 );
+		assertThat( StringSimilarity.textSimilarity( TextProfile.of( null ), TextProfile.of( "a" ) ) ).isEqualTo( 0.0 );
+		assertThat( StringSimilarity.textSimilarity( TextProfile.of( "a" ), TextProfile.of( null ) ) ).isEqualTo( 0.0 );
+	}
+
+	@Test
+	void removeBrackets_should_remove_all_brackets() throws Exception {
+		assertThat( StringSimilarity.removeBrackets( "html[1]/body[1]/div[[2]]" ) ).isEqualTo( "html1/body1/div2" );
+		assertThat( StringSimilarity.removeBrackets( "" ) ).isEmpty();
+	}
+
 	@Test
 	void pathSimilarity_should_be_percentage_of_difference() {
 		final String commonPrefix =